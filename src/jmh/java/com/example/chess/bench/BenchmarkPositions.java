@@ -0,0 +1,58 @@
+package com.example.chess.bench;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.MoveResult;
+import com.example.chess.model.Board;
+import com.example.chess.model.BoardLayout;
+import com.example.chess.model.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed corpus of midgame positions used by the benchmarks. Each line is a
+ * legal move sequence from the initial setup; keep them stable so results
+ * stay comparable across runs.
+ */
+public final class BenchmarkPositions {
+
+    public static final List<String> MIDGAME_LINES = List.of(
+            "H1-G4 B9-B8 D2-D3 F9-F7 E1-D2 E9-E7 H2-H3 C10-D7 G4-H7 G10-E8 F2-F4 D10-E9"
+                    + " D2-B4 H10-G7 B4-A4 I9-I7 F1-E1 J9-J7 G1-J4 G7-F4 A4-F4 E7-E6 I1-H1 B10-B9",
+            "D2-D4 E9-E8 C2-C4 D10-F8 A2-A4 E10-E9 E2-E4 J9-J8 D1-C2 G9-G8 J2-J3 J10-J9"
+                    + " E1-C3 H10-I7 C1-B4 F8-B4 F1-E1 E9-J4 C3-D2 C10-B7 E1-D1 B4-C3 I2-I4 F10-G9",
+            "E2-E4 J9-J8 D1-G4 D9-D8 G4-F3 B9-B7 C2-C3 I9-I8 C1-B4 H9-H8 J2-J3 D8-D7"
+                    + " B1-D1 E10-D9 I2-I4 C9-C7 E1-E3 D9-E8 E3-D3 B10-B8 D3-E3 E8-F8 J1-J2 F8-C5",
+            "E2-E4 G9-G8 C1-D4 C9-C7 C2-C4 D10-A7 H2-H3 D9-D7 J2-J3 C10-B7 E4-E5 B7-C4"
+                    + " I2-I4 C4-D1 G1-J4 A9-A8 J4-E9 H10-E9 J1-J2 B10-D10 E1-E2 E9-F6 E2-F3 E10-D9",
+            "I2-I4 A9-A7 H2-H4 I9-I8 E2-E3 C9-C7 B2-B4 B9-B8 I1-I3 G9-G8 F1-E2 F10-G9"
+                    + " J2-J4 H9-H7 E1-F1 A10-B9 A2-A4 G8-G7 H4-H5 B9-A9 J1-I1 G9-H8 C2-C4 F9-F8",
+            "C2-C3 F9-F8 F2-F4 J9-J7 I2-I4 G10-A4 G1-F2 C9-C8 G2-G3 D9-D7 F2-D4 J10-J9"
+                    + " J2-J4 B9-B7 I1-I2 A4-C2 B2-B3 H9-H7 I2-I1 A9-A8 E1-F2 A10-A9 F2-E3 H7-H6"
+    );
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Replays every corpus line on a fresh board of the given layout.
+     */
+    public static List<Game> midgames(BoardLayout layout) {
+        List<Game> games = new ArrayList<>();
+        for (String line : MIDGAME_LINES) {
+            games.add(replay(layout, line));
+        }
+        return games;
+    }
+
+    public static Game replay(BoardLayout layout, String line) {
+        Game game = new Game(Board.initialSetup(layout), Color.WHITE);
+        for (String move : line.split(" ")) {
+            MoveResult result = game.playMove(move);
+            if (!result.success()) {
+                throw new IllegalStateException("Corpus move " + move + " rejected: " + result.message());
+            }
+        }
+        return game;
+    }
+}
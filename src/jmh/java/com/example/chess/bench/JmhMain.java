@@ -0,0 +1,153 @@
+package com.example.chess.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler and compares them against a
+ * stored baseline. Started by the {@code jmh} Maven profile:
+ * <pre>
+ * mvn -Pjmh verify                              # run and check against the baseline
+ * mvn -Pjmh verify -Djmh.updateBaseline=true    # run and record a new baseline
+ * mvn -Pjmh verify -Djmh.include=GameBenchmarks # run a subset
+ * </pre>
+ * A benchmark regresses when its throughput drops, or its bytes allocated per
+ * operation grow, by more than {@code jmh.threshold} (a fraction, default 0.10).
+ * Any regression makes the process exit with status 1, failing the build.
+ * Without a baseline file the results are only reported.
+ */
+public final class JmhMain {
+    private static final String ALLOC_KEY = "gc.alloc.rate.norm";
+    // allocation noise floor, so a 0 B/op baseline does not fail on a stray byte
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    private JmhMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("jmh.include", ".*");
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "0.10"));
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "src/jmh/baseline.properties"));
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh-result.json"));
+        boolean update = Boolean.getBoolean("jmh.updateBaseline");
+
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        Options options = new OptionsBuilder()
+                .include("com\\.example\\.chess\\..*" + include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        Map<String, double[]> measured = summarize(new Runner(options).run());
+
+        if (update) {
+            writeBaseline(baseline, measured);
+            System.out.println("Baseline written to " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + "; run with -Djmh.updateBaseline=true to record one");
+            return;
+        }
+        List<String> regressions = compare(readBaseline(baseline), measured, threshold);
+        if (!regressions.isEmpty()) {
+            System.out.println("Benchmark regressions beyond " + Math.round(threshold * 100) + "%:");
+            regressions.forEach(line -> System.out.println("  " + line));
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressed beyond " + Math.round(threshold * 100) + "%");
+    }
+
+    /**
+     * Benchmark name, plus its parameters as {@code [key=value,...]} if it has
+     * any, to {ops per time unit, bytes per op}.
+     */
+    private static Map<String, double[]> summarize(Collection<RunResult> results) {
+        Map<String, double[]> summary = new TreeMap<>();
+        for (RunResult run : results) {
+            double bytes = Double.NaN;
+            for (Map.Entry<String, Result> secondary : run.getSecondaryResults().entrySet()) {
+                if (secondary.getKey().endsWith(ALLOC_KEY)) {
+                    bytes = secondary.getValue().getScore();
+                }
+            }
+            summary.put(name(run), new double[] {run.getPrimaryResult().getScore(), bytes});
+        }
+        return summary;
+    }
+
+    private static String name(RunResult run) {
+        StringJoiner params = new StringJoiner(",", "[", "]").setEmptyValue("");
+        for (String key : run.getParams().getParamsKeys()) {
+            params.add(key + "=" + run.getParams().getParam(key));
+        }
+        return run.getParams().getBenchmark() + params;
+    }
+
+    private static List<String> compare(Map<String, double[]> baseline, Map<String, double[]> measured,
+            double threshold) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : measured.entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double[] now = entry.getValue();
+            if (now[0] < before[0] * (1 - threshold)) {
+                regressions.add(String.format("%s throughput %.3f -> %.3f ops/us", entry.getKey(), before[0], now[0]));
+            }
+            if (!Double.isNaN(before[1]) && !Double.isNaN(now[1])
+                    && now[1] > before[1] * (1 + threshold) + ALLOC_SLACK_BYTES) {
+                regressions.add(String.format("%s allocation %.1f -> %.1f B/op", entry.getKey(), before[1], now[1]));
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, double[]> readBaseline(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        Map<String, double[]> baseline = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(".ops")) {
+                String name = key.substring(0, key.length() - ".ops".length());
+                String bytes = properties.getProperty(name + ".bytes", "NaN");
+                baseline.put(name, new double[] {Double.parseDouble(properties.getProperty(key)),
+                        Double.parseDouble(bytes)});
+            }
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(Path file, Map<String, double[]> measured) throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<String, double[]> entry : measured.entrySet()) {
+            properties.setProperty(entry.getKey() + ".ops", Double.toString(entry.getValue()[0]));
+            properties.setProperty(entry.getKey() + ".bytes", Double.toString(entry.getValue()[1]));
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "JMH baseline: ops/us and bytes/op per benchmark");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.chess.engine;
+
+import com.example.chess.bench.BenchmarkPositions;
+import com.example.chess.game.Game;
+import com.example.chess.model.BoardLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches per second to a fixed {@code depth} over the midgame corpus, each
+ * from an empty transposition table, at each Lazy-SMP thread count. With one
+ * thread this is the plain engine's speed; the ratio of a higher count's score
+ * to it is that count's time-to-depth speedup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EngineBenchmarks {
+    static final int TABLE_MB = 64;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"5"})
+    public int depth;
+
+    private Game[] games;
+    private Engine engine;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        games = BenchmarkPositions.midgames(BoardLayout.BITBOARD).toArray(new Game[0]);
+        engine = new Engine(new TranspositionTable(TABLE_MB), threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        // each search starts cold, as a single time-to-depth measurement would
+        engine.table().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        Game game = games[next];
+        next = next + 1 == games.length ? 0 : next + 1;
+        return engine.search(game, SearchLimits.depth(depth));
+    }
+}
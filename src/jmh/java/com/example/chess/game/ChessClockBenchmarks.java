@@ -0,0 +1,66 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChessClock} read throughput from several threads sharing one running
+ * clock: spectators alone, and spectators while the owner keeps pressing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessClockBenchmarks {
+
+    private ChessClock clock;
+
+    @Setup
+    public void setUp() {
+        clock = ChessClock.fischer(Duration.ofHours(1), Duration.ofSeconds(2));
+        clock.start(Color.WHITE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Duration remaining() {
+        return clock.getRemaining(Color.WHITE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean timeUp() {
+        return clock.isTimeUp(Color.BLACK);
+    }
+
+    @Benchmark
+    @Group("pressed")
+    @GroupThreads(3)
+    public Duration pressedRemaining() {
+        return clock.getRemaining(Color.WHITE);
+    }
+
+    @Benchmark
+    @Group("pressed")
+    @GroupThreads(1)
+    public void pressedSwitch() {
+        clock.switchClock();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.chess.game;
+
+import com.example.chess.bench.BenchmarkPositions;
+import com.example.chess.model.BoardLayout;
+import com.example.chess.model.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Game} hot paths over the midgame corpus. Each invocation moves on to
+ * the next corpus position, so scores are averages over the whole corpus.
+ * <p>
+ * Lives in the game package because {@code parseMove} is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmarks {
+
+    private Game[] games;
+    private Move[] moves;
+    private String[] moveTexts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Game> corpus = BenchmarkPositions.midgames(BoardLayout.BITBOARD);
+        games = corpus.toArray(new Game[0]);
+        moves = new Move[games.length];
+        moveTexts = new String[games.length];
+        MoveList buffer = new MoveList();
+        for (int i = 0; i < games.length; i++) {
+            games[i].generateLegalMoves(buffer);
+            moves[i] = buffer.toMove(0);
+            moveTexts[i] = moves[i].from().toAlgebraic() + "-" + moves[i].to().toAlgebraic();
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == games.length ? 0 : index + 1;
+        return index;
+    }
+
+    /**
+     * Plays one legal move as text and takes it back, keeping the corpus intact.
+     */
+    @Benchmark
+    public MoveResult playMoveText() {
+        int i = nextIndex();
+        games[i].playMove(moveTexts[i]);
+        return games[i].takeback();
+    }
+
+    @Benchmark
+    public MoveResult playMove() {
+        int i = nextIndex();
+        games[i].playMove(moves[i]);
+        return games[i].takeback();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        Game game = games[nextIndex()];
+        return game.isInCheck(game.getBoard(), game.getActiveColor());
+    }
+
+    @Benchmark
+    public boolean hasAnyLegalMove() {
+        Game game = games[nextIndex()];
+        return game.hasAnyLegalMove(game.getActiveColor());
+    }
+
+    @Benchmark
+    public Move parseMove() {
+        int i = nextIndex();
+        return games[i].parseMove(moveTexts[i]);
+    }
+
+    @Benchmark
+    public String renderBoard() {
+        return games[nextIndex()].renderBoard();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.chess.model;
+
+import com.example.chess.bench.BenchmarkPositions;
+import com.example.chess.game.Game;
+import com.example.chess.game.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same workloads on every {@link BoardLayout}, to pick a layout per
+ * workload: piece lookup and ray walking, make/unmake, check detection, legal
+ * move generation and board copies, over the midgame corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardLayoutBenchmarks {
+
+    @Param({"ARRAY", "BITBOARD", "MAILBOX"})
+    public BoardLayout layout;
+
+    private Game[] games;
+    private int[] froms;
+    private int[] tos;
+    private final MoveList buffer = new MoveList();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        games = BenchmarkPositions.midgames(layout).toArray(new Game[0]);
+        froms = new int[games.length];
+        tos = new int[games.length];
+        for (int i = 0; i < games.length; i++) {
+            games[i].generateLegalMoves(buffer);
+            froms[i] = buffer.from(0);
+            tos[i] = buffer.to(0);
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == games.length ? 0 : index + 1;
+        return index;
+    }
+
+    /**
+     * Every square's first blocker in all eight directions.
+     */
+    @Benchmark
+    public int firstOccupied() {
+        Board board = games[nextIndex()].getBoard();
+        int sum = 0;
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+                sum += board.firstOccupied(square, dir, Position.BOARD_SIZE);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int pieceAt() {
+        Board board = games[nextIndex()].getBoard();
+        int pieces = 0;
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            if (board.pieceAt(square) != null) {
+                pieces++;
+            }
+        }
+        return pieces;
+    }
+
+    @Benchmark
+    public long makeUnmake() {
+        int i = nextIndex();
+        games[i].makeMove(froms[i], tos[i]);
+        long key = games[i].getPositionKey();
+        games[i].unmakeMove();
+        return key;
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        Game game = games[nextIndex()];
+        return game.isInCheck(game.getBoard(), game.getActiveColor());
+    }
+
+    @Benchmark
+    public boolean hasAnyLegalMove() {
+        Game game = games[nextIndex()];
+        return game.hasAnyLegalMove(game.getActiveColor());
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        games[nextIndex()].generateLegalMoves(buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        return games[nextIndex()].getBoard().copy();
+    }
+}
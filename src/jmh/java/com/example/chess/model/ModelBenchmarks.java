@@ -0,0 +1,149 @@
+package com.example.chess.model;
+
+import com.example.chess.bench.BenchmarkPositions;
+import com.example.chess.game.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Board}, {@link Position}, {@link PositionSnapshot},
+ * {@link PositionNotation} and {@link MoveParser} hot paths over the midgame
+ * corpus. The snapshot and notation benchmarks reuse one buffer, builder and
+ * board, so B/op should stay at zero, as it should for the move parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmarks {
+
+    private Board[] boards;
+    private String[] squares;
+    private ByteBuffer snapshots;
+    private String[] notations;
+    private final PositionNotation notation = new PositionNotation();
+    private final StringBuilder text = new StringBuilder(128);
+    private Board decoded;
+    private String[] moveTexts;
+    private byte[] moveLines;
+    private int[] lineStarts;
+    private int nextBoard;
+    private int nextSquare;
+    private int nextSnapshot;
+    private int nextMove;
+
+    @Setup
+    public void setUp() {
+        boards = BenchmarkPositions.midgames(BoardLayout.BITBOARD).stream()
+                .map(Game::getBoard)
+                .toArray(Board[]::new);
+        squares = new String[Position.SQUARE_COUNT];
+        for (int i = 0; i < squares.length; i++) {
+            squares[i] = Position.fromIndex(i).toAlgebraic();
+        }
+        snapshots = ByteBuffer.allocateDirect(boards.length * PositionSnapshot.BYTES);
+        for (Board board : boards) {
+            PositionSnapshot.write(board, Color.WHITE, snapshots);
+        }
+        notations = new String[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            notations[i] = PositionNotation.format(boards[i], Color.WHITE);
+        }
+        String[] forms = {"%s %s", "%s-%s", "%s to %s"};
+        Random random = new Random(24);
+        moveTexts = new String[1024];
+        StringBuilder lines = new StringBuilder();
+        lineStarts = new int[moveTexts.length + 1];
+        for (int i = 0; i < moveTexts.length; i++) {
+            String from = Position.fromIndex(random.nextInt(Position.SQUARE_COUNT)).toAlgebraic();
+            String to = Position.fromIndex(random.nextInt(Position.SQUARE_COUNT)).toAlgebraic();
+            moveTexts[i] = String.format(forms[i % forms.length], from, i % 2 == 0 ? to : to.toLowerCase());
+            lineStarts[i] = lines.length();
+            lines.append(moveTexts[i]).append('\n');
+        }
+        lineStarts[moveTexts.length] = lines.length();
+        moveLines = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        decoded = new Board();
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        Board board = boards[nextBoard];
+        nextBoard = nextBoard + 1 == boards.length ? 0 : nextBoard + 1;
+        return board.copy();
+    }
+
+    @Benchmark
+    public Position fromAlgebraic() {
+        String square = squares[nextSquare];
+        nextSquare = nextSquare + 1 == squares.length ? 0 : nextSquare + 1;
+        return Position.fromAlgebraic(square);
+    }
+
+    @Benchmark
+    public ByteBuffer snapshotWrite() {
+        int index = nextSnapshotIndex();
+        snapshots.position(index * PositionSnapshot.BYTES);
+        PositionSnapshot.write(boards[index], Color.WHITE, snapshots);
+        return snapshots;
+    }
+
+    @Benchmark
+    public Color snapshotRead() {
+        snapshots.position(nextSnapshotIndex() * PositionSnapshot.BYTES);
+        return PositionSnapshot.read(snapshots, decoded);
+    }
+
+    @Benchmark
+    public Color notationParse() {
+        return notation.parse(notations[nextSnapshotIndex()], decoded);
+    }
+
+    @Benchmark
+    public int notationFormat() {
+        text.setLength(0);
+        PositionNotation.append(boards[nextSnapshotIndex()], Color.WHITE, text);
+        return text.length();
+    }
+
+    @Benchmark
+    public int moveParse() {
+        return MoveParser.parse(moveTexts[nextMoveIndex()]);
+    }
+
+    /**
+     * Parses one line of a byte buffer in place, newline included.
+     */
+    @Benchmark
+    public int moveParseBytes() {
+        int i = nextMoveIndex();
+        return MoveParser.parse(moveLines, lineStarts[i], lineStarts[i + 1] - lineStarts[i]);
+    }
+
+    private int nextMoveIndex() {
+        int index = nextMove;
+        nextMove = index + 1 == moveTexts.length ? 0 : index + 1;
+        return index;
+    }
+
+    private int nextSnapshotIndex() {
+        int index = nextSnapshot;
+        nextSnapshot = index + 1 == boards.length ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.RandomPlay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game archive encode and decode speed in games per second, over
+ * {@value #GAMES} seeded random games of up to 200 plies. Setup prints the
+ * archive size in bytes per game, the other figure worth watching.
+ * <ul>
+ * <li>{@code write}: encode every game into a new archive file.</li>
+ * <li>{@code read}: decode every game of that archive.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchiveBenchmarks {
+    static final int GAMES = 1_000;
+
+    private List<ArchivedGame> games;
+    private Path directory;
+    private Path archive;
+    private Path scratch;
+
+    @Setup
+    public void setUp() throws IOException {
+        games = randomGames(new Random(2024));
+        directory = Files.createTempDirectory("archive");
+        archive = directory.resolve("games.archive");
+        scratch = directory.resolve("scratch.archive");
+        long plies = 0;
+        try (GameArchiveWriter writer = GameArchiveWriter.create(archive)) {
+            for (ArchivedGame game : games) {
+                writer.write(game);
+                plies += game.moves().size();
+            }
+        }
+        System.out.printf("archive: %d games, %.1f plies/game, %.1f bytes/game%n", GAMES,
+                (double) plies / GAMES, (double) Files.size(archive) / GAMES);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(scratch);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long write() throws IOException {
+        try (GameArchiveWriter writer = GameArchiveWriter.create(scratch)) {
+            for (ArchivedGame game : games) {
+                writer.write(game);
+            }
+            return writer.count();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int read() throws IOException {
+        int plies = 0;
+        try (GameArchiveReader reader = GameArchiveReader.open(archive)) {
+            for (ArchivedGame game = reader.read(); game != null; game = reader.read()) {
+                plies += game.moves().size();
+            }
+        }
+        return plies;
+    }
+
+    private static List<ArchivedGame> randomGames(Random random) {
+        List<ArchivedGame> games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            games.add(ArchivedGame.of(RandomPlay.play(new Game(), random, random.nextInt(200))));
+        }
+        return games;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.model.Move;
+import com.example.chess.model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link Journal} append cost and {@link GameJournal} recovery speed. Scores
+ * are throughput like every other benchmark here, so the baseline check
+ * applies; for appends the mean latency is the reciprocal.
+ * <ul>
+ * <li>{@code append}: one record into the mapping, no fsync.</li>
+ * <li>{@code appendDurable}: append and wait for the fsync, from four threads,
+ * which then share flushes.</li>
+ * <li>{@code recover}: open a journal of {@value #GAMES} six-move games and
+ * rebuild them; the score is games per second.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmarks {
+    static final int GAMES = 1_000;
+
+    private static final String[] LINE = {"E2-E4", "E9-E7", "D2-D4", "D9-D7", "C2-C4", "C9-C7"};
+
+    private Path appendDirectory;
+    private Path recoveryDirectory;
+    private Journal journal;
+    private JournalRecord record;
+
+    @Setup
+    public void setUp() throws IOException {
+        record = JournalRecord.move(1, 14, 34, null, null);
+        recoveryDirectory = Files.createTempDirectory("journal-recovery");
+        try (GameJournal games = GameJournal.open(recoveryDirectory)) {
+            for (long id = 1; id <= GAMES; id++) {
+                Game game = games.create(id);
+                for (String text : LINE) {
+                    String[] squares = text.split("-");
+                    games.playMove(id, game,
+                            new Move(Position.fromAlgebraic(squares[0]), Position.fromAlgebraic(squares[1])));
+                }
+            }
+        }
+    }
+
+    /**
+     * A fresh journal per iteration, so appends do not pile up gigabytes of
+     * segments over a run.
+     */
+    @Setup(Level.Iteration)
+    public void openJournal() throws IOException {
+        appendDirectory = Files.createTempDirectory("journal-append");
+        journal = Journal.open(appendDirectory);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeJournal() throws IOException {
+        journal.close();
+        delete(appendDirectory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        delete(recoveryDirectory);
+    }
+
+    @Benchmark
+    public long append() {
+        return journal.append(record);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long appendDurable() throws IOException, InterruptedException {
+        long sequence = journal.append(record);
+        journal.awaitDurable(sequence);
+        return sequence;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int recover() throws IOException {
+        try (GameJournal games = GameJournal.open(recoveryDirectory)) {
+            return games.recover().size();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.RandomPlay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ArchiveValidator} throughput in games per second over a text game
+ * file of {@value #GAMES} seeded random games of up to 200 plies, at each pool
+ * size; per-thread scores that hold steady as {@code threads} grows (up to the
+ * core count) mean the validator scales. Chunks are {@value #CHUNK_BYTES}
+ * bytes so the file splits into enough of them to share out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmarks {
+    static final int GAMES = 4_000;
+    static final int CHUNK_BYTES = 1 << 16;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path directory;
+    private Path file;
+    private ForkJoinPool pool;
+    private ArchiveValidator validator;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("validator");
+        file = directory.resolve("games.txt");
+        Files.write(file, randomGames(new Random(2025)).getBytes(StandardCharsets.US_ASCII));
+        pool = new ForkJoinPool(threads);
+        validator = new ArchiveValidator(pool, CHUNK_BYTES);
+        System.out.printf("game file: %d games, %d bytes%n", GAMES, Files.size(file));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public ValidationSummary validate() throws IOException {
+        return validator.validate(file);
+    }
+
+    private static String randomGames(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < GAMES; i++) {
+            Game game = RandomPlay.play(new Game(), random, 1 + random.nextInt(200));
+            ArchiveValidator.appendGame(game.getMoveHistory(), text);
+        }
+        return text.toString();
+    }
+}
@@ -2,10 +2,14 @@ package com.example.chess;
 
 import com.example.chess.game.Game;
 import com.example.chess.game.MoveResult;
+import com.example.chess.game.Perft;
+import com.example.chess.server.GameServer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.CommandLineRunner;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.Scanner;
 
@@ -18,6 +22,14 @@ public class ChessApplication implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
+        if (args.length > 0 && (args[0].equals("perft") || args[0].equals("divide"))) {
+            runPerft(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            runServer(args);
+            return;
+        }
         Game game = new Game();
         try (Scanner scanner = new Scanner(System.in)) {
             System.out.println("╔══════════════════════════════════════════════╗");
@@ -115,6 +127,67 @@ public class ChessApplication implements CommandLineRunner {
         }
     }
     
+    /**
+     * Batch mode: {@code perft N} prints leaf counts for depths 1..N from the
+     * initial setup, {@code divide N} prints the count below each root move.
+     */
+    private void runPerft(String... args) {
+        int depth;
+        try {
+            depth = Integer.parseInt(args.length > 1 ? args[1] : "3");
+        } catch (NumberFormatException e) {
+            depth = 0;
+        }
+        if (depth < 1) {
+            System.out.println("Usage: perft N | divide N");
+            return;
+        }
+        Perft perft = new Perft(new Game());
+        if (args[0].equals("divide")) {
+            long total = 0;
+            for (Perft.Division division : perft.divide(depth)) {
+                System.out.println(division.move().from().toAlgebraic() + "-" + division.move().to().toAlgebraic()
+                        + ": " + division.nodes());
+                total += division.nodes();
+            }
+            System.out.println("Total: " + total);
+            return;
+        }
+        System.out.println("depth        nodes   captures promotions  castles     checks    mates     nodes/s");
+        for (int d = 1; d <= depth; d++) {
+            Perft.Result r = perft.run(d);
+            System.out.printf("%5d %12d %10d %10d %8d %10d %8d %11d%n", d, r.nodes(), r.captures(),
+                    r.promotions(), r.castles(), r.checks(), r.mates(), r.nodesPerSecond());
+        }
+    }
+
+    /**
+     * Server mode: {@code serve [port]} hosts games over the binary protocol
+     * (default port 7070) until stdin is closed or reads {@code exit}.
+     */
+    private void runServer(String... args) {
+        int port;
+        try {
+            port = Integer.parseInt(args.length > 1 ? args[1] : "7070");
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: serve [port]");
+            return;
+        }
+        try (GameServer server = GameServer.start(new InetSocketAddress(port));
+                Scanner scanner = new Scanner(System.in)) {
+            System.out.println("Serving games on " + server.address() + " - type exit to stop");
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine().trim();
+                if (line.equals("exit") || line.equals("quit")) {
+                    break;
+                }
+                System.out.println("Games: " + server.gameCount());
+            }
+        } catch (IOException e) {
+            System.out.println("Server failed: " + e.getMessage());
+        }
+    }
+
     private void printHelp() {
         System.out.println();
         System.out.println("MOVE NOTATION:");
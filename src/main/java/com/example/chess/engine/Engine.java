@@ -0,0 +1,131 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Built-in engine for the 10x10 variant.
+ * <p>
+ * {@link #search} never touches the caller's {@link Game}; it searches a copy of
+ * the current position. The transposition table is kept between searches, so
+ * analysing consecutive positions of one game reuses earlier work.
+ * <p>
+ * With more than one thread the engine runs Lazy SMP: the calling thread is the
+ * main searcher and {@code threads - 1} helpers from a fixed pool of platform
+ * threads search the same position with staggered depths, communicating only
+ * through the shared transposition table. The main thread's result is returned.
+ * Close multi-threaded engines to release the pool.
+ */
+public final class Engine implements AutoCloseable {
+    /**
+     * Score of being mated right now; mate in {@code n} plies scores {@code MATE_SCORE - n}.
+     */
+    public static final int MATE_SCORE = 31_000;
+
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    private final TranspositionTable table;
+    private final int threads;
+    private final ExecutorService helpers;
+
+    public Engine() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    public Engine(TranspositionTable table) {
+        this(table, 1);
+    }
+
+    /**
+     * @param threads total search threads including the caller, at least 1
+     */
+    public Engine(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required: " + threads);
+        }
+        this.table = table;
+        this.threads = threads;
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, helperThreads()) : null;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * Searches the position of {@code game} for the side to move.
+     */
+    public SearchResult search(Game game, SearchLimits limits) {
+        table.newSearch();
+        Searcher main = new Searcher(copyOf(game), table, 0);
+        if (helpers == null) {
+            return main.search(limits);
+        }
+
+        // Helpers run until the main thread is done (or the time budget expires).
+        SearchLimits helperLimits = new SearchLimits(SearchLimits.MAX_DEPTH, limits.timeMillis(), 0);
+        List<Searcher> helperSearchers = new ArrayList<>(threads - 1);
+        List<Future<SearchResult>> running = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            Searcher helper = new Searcher(copyOf(game), table, i);
+            helperSearchers.add(helper);
+            running.add(helpers.submit(() -> helper.search(helperLimits)));
+        }
+
+        SearchResult result;
+        try {
+            result = main.search(limits);
+        } finally {
+            helperSearchers.forEach(Searcher::stop);
+        }
+        long nodes = result.nodes();
+        for (int i = 0; i < running.size(); i++) {
+            awaitQuietly(running.get(i));
+            nodes += helperSearchers.get(i).nodes();
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.principalVariation(), result.depth(),
+                nodes, result.elapsed());
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static Game copyOf(Game game) {
+        return new Game(game.getBoard().copy(), game.getActiveColor());
+    }
+
+    private static void awaitQuietly(Future<SearchResult> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory helperThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "engine-helper-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
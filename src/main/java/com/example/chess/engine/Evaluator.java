@@ -0,0 +1,70 @@
+package com.example.chess.engine;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+
+/**
+ * Static evaluation: material plus small placement bonuses.
+ * <p>
+ * Values reflect the variant: the 3+1 knight and the range-capped bishop are
+ * worth about the same, the Lover moves like a king but cannot give check.
+ */
+final class Evaluator {
+    private static final int[] VALUES = new int[PieceType.values().length];
+    private static final int[] CENTER = new int[Position.SQUARE_COUNT];
+
+    static {
+        VALUES[PieceType.KING.ordinal()] = 0;
+        VALUES[PieceType.QUEEN.ordinal()] = 900;
+        VALUES[PieceType.ROOK.ordinal()] = 500;
+        VALUES[PieceType.BISHOP.ordinal()] = 300;
+        VALUES[PieceType.KNIGHT.ordinal()] = 300;
+        VALUES[PieceType.PAWN.ordinal()] = 100;
+        VALUES[PieceType.LOVER.ordinal()] = 250;
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            int row = square / Position.BOARD_SIZE;
+            int col = square % Position.BOARD_SIZE;
+            // 0 in the corners up to 8 on the four centre squares
+            CENTER[square] = 9 - (Math.abs(2 * row - 9) + Math.abs(2 * col - 9)) / 2;
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    static int value(PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * Scores the board from {@code side}'s point of view.
+     */
+    static int evaluate(Board board, Color side) {
+        int score = sideScore(board, Color.WHITE) - sideScore(board, Color.BLACK);
+        return side == Color.WHITE ? score : -score;
+    }
+
+    private static int sideScore(Board board, Color color) {
+        int score = 0;
+        for (int square = board.nextOccupied(color, 0); square >= 0; square = board.nextOccupied(color, square + 1)) {
+            Piece piece = board.pieceAt(square);
+            score += VALUES[piece.type().ordinal()];
+            score += switch (piece.type()) {
+                case KNIGHT, BISHOP, LOVER -> 3 * CENTER[square];
+                case QUEEN -> CENTER[square];
+                case PAWN -> 2 * CENTER[square] + 4 * advancement(square, color);
+                case KING -> -4 * advancement(square, color);
+                case ROOK -> 0;
+            };
+        }
+        return score;
+    }
+
+    private static int advancement(int square, Color color) {
+        int row = square / Position.BOARD_SIZE;
+        return color == Color.WHITE ? row : Position.BOARD_SIZE - 1 - row;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.chess.engine;
+
+import java.time.Duration;
+
+/**
+ * Stop conditions for {@link Engine#search}. A search ends at whichever limit is
+ * reached first; {@code 0} disables the time or node limit.
+ *
+ * @param maxDepth   deepest iteration to complete, 1..{@link #MAX_DEPTH}
+ * @param timeMillis wall-clock budget in milliseconds, or 0 for none
+ * @param maxNodes   node budget, or 0 for none
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH + ": " + maxDepth);
+        }
+        if (timeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits time(Duration budget) {
+        return new SearchLimits(MAX_DEPTH, Math.max(1, budget.toMillis()), 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, 0, maxNodes);
+    }
+}
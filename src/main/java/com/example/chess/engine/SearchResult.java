@@ -0,0 +1,31 @@
+package com.example.chess.engine;
+
+import com.example.chess.model.Move;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a search.
+ *
+ * @param bestMove           move to play, or {@code null} if the side to move has no legal move
+ * @param score              centipawns from the side to move's point of view; mates are
+ *                           reported as {@code ±(Engine.MATE_SCORE - plies)}
+ * @param principalVariation expected line starting with {@code bestMove}
+ * @param depth              deepest completed iteration
+ * @param nodes              nodes visited, quiescence included
+ * @param elapsed            wall-clock time spent
+ */
+public record SearchResult(Move bestMove, int score, List<Move> principalVariation, int depth, long nodes,
+        Duration elapsed) {
+
+    public long nodesPerSecond() {
+        long nanos = Math.max(1, elapsed.toNanos());
+        // nodes * 1e9 overflows a long past about 9.2e9 nodes
+        return (long) ((double) nodes * 1e9 / nanos);
+    }
+
+    public boolean isMateScore() {
+        return Math.abs(score) >= Engine.MATE_SCORE - Searcher.MAX_PLY;
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.MoveList;
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One search thread: negamax alpha-beta with iterative deepening, aspiration
+ * windows and quiescence search over captures.
+ * <p>
+ * Move ordering: hash move, then captures and promotions by MVV-LVA, then two
+ * killer moves per ply, then the history heuristic. All per-ply buffers are
+ * allocated up front, so the search itself does not allocate.
+ * <p>
+ * Works on its own {@link Game} copy through {@link Game#generateLegalMoves},
+ * {@link Game#makeMove(int)} and {@link Game#unmakeMove()}, so the rules
+ * (Lover never checks, bishop range 6, castling towards the Lover) are exactly
+ * those of {@link Game#playMove}.
+ */
+final class Searcher {
+    static final int MAX_PLY = 128;
+    static final int INFINITY = 32_000;
+    static final int MATE_BOUND = Engine.MATE_SCORE - MAX_PLY;
+
+    private static final int ASPIRATION_WINDOW = 40;
+
+    // Lazy-SMP depth staggering: helper i skips depths where
+    // ((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) is odd, so helpers spread over
+    // neighbouring depths instead of all repeating the main thread's iteration.
+    private static final int[] SKIP_SIZE = {1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6};
+    private static final int CHECK_INTERVAL = 1024;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int HISTORY_LIMIT = 1 << 26;
+
+    private final Game game;
+    private final Board board;
+    private final TranspositionTable table;
+    private final int threadIndex;
+
+    private final MoveList[] moves = new MoveList[MAX_PLY];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[] history = new int[2 * Position.SQUARE_COUNT * Position.SQUARE_COUNT];
+
+    private long nodes;
+    private long deadline;
+    private long nodeLimit;
+    private volatile boolean stopped;
+
+    /**
+     * @param threadIndex 0 for the main thread, 1.. for Lazy-SMP helpers
+     */
+    Searcher(Game game, TranspositionTable table, int threadIndex) {
+        this.game = game;
+        this.board = game.getBoard();
+        this.table = table;
+        this.threadIndex = threadIndex;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moves[ply] = new MoveList(256);
+        }
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    long nodes() {
+        return nodes;
+    }
+
+    SearchResult search(SearchLimits limits) {
+        long start = System.nanoTime();
+        deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() * 1_000_000L : Long.MAX_VALUE;
+        nodeLimit = limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE;
+        nodes = 0;
+
+        // a side set up without a king has already lost
+        if (board.kingSquare(game.getActiveColor()) < 0) {
+            return new SearchResult(null, -Engine.MATE_SCORE, List.of(), 0, 0,
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+        MoveList rootMoves = new MoveList();
+        game.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = game.isInCheck(board, game.getActiveColor()) ? -Engine.MATE_SCORE : 0;
+            return new SearchResult(null, score, List.of(), 0, 0, Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        int bestFrom = rootMoves.from(0);
+        int bestTo = rootMoves.to(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] bestLine = {TranspositionTable.encodeMove(bestFrom, bestTo)};
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            if (skipsDepth(depth)) {
+                continue;
+            }
+            int score = aspirationSearch(depth, bestScore);
+            if (stopped && completedDepth > 0) {
+                break;
+            }
+            if (pvLength[0] > 0) {
+                bestLine = Arrays.copyOf(pv[0], pvLength[0]);
+                bestFrom = TranspositionTable.moveFrom(bestLine[0]);
+                bestTo = TranspositionTable.moveTo(bestLine[0]);
+                bestScore = score;
+            }
+            completedDepth = depth;
+            if (stopped || Math.abs(bestScore) >= MATE_BOUND) {
+                break;
+            }
+        }
+
+        List<Move> line = new ArrayList<>(bestLine.length);
+        for (int move : bestLine) {
+            line.add(PackedMove.toMove(move));
+        }
+        Move bestMove = PackedMove.toMove(TranspositionTable.encodeMove(bestFrom, bestTo));
+        return new SearchResult(bestMove, bestScore, List.copyOf(line),
+                completedDepth, nodes, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private boolean skipsDepth(int depth) {
+        if (threadIndex == 0 || depth == 1) {
+            return false;
+        }
+        int i = (threadIndex - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 != 0;
+    }
+
+    private int aspirationSearch(int depth, int previous) {
+        if (depth < 4) {
+            return negamax(depth, -INFINITY, INFINITY, 0);
+        }
+        int alpha = previous - ASPIRATION_WINDOW;
+        int beta = previous + ASPIRATION_WINDOW;
+        int score = negamax(depth, alpha, beta, 0);
+        if (!stopped && (score <= alpha || score >= beta)) {
+            score = negamax(depth, -INFINITY, INFINITY, 0);
+        }
+        return score;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        Color side = game.getActiveColor();
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(board, side);
+        }
+
+        long key = game.getPositionKey();
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int stored = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && stored >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && stored <= alpha)) {
+                    return stored;
+                }
+            }
+        }
+
+        // no move captures a king, so only a set-up board lacks one; score it as mated
+        if (board.kingSquare(side) < 0) {
+            return -Engine.MATE_SCORE + ply;
+        }
+        boolean inCheck = game.isInCheck(board, side);
+        MoveList list = moves[ply];
+        game.generateLegalMoves(list);
+        if (list.isEmpty()) {
+            return inCheck ? -Engine.MATE_SCORE + ply : 0;
+        }
+        if (inCheck) {
+            depth++;
+        }
+        scoreMoves(list, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < list.size(); i++) {
+            list.pickBest(i);
+            int move = list.move(i);
+            boolean quiet = !PackedMove.isCapture(move);
+
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = PackedMove.squares(move);
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, bestMove);
+                    if (score >= beta) {
+                        if (quiet) {
+                            rememberQuiet(side, ply, move, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT
+                : TranspositionTable.BOUND_UPPER;
+        table.store(key, Math.min(depth, 0xFF), bound, toTable(best, ply), bestMove);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if (countNode()) {
+            return 0;
+        }
+        Color side = game.getActiveColor();
+        int standPat = Evaluator.evaluate(board, side);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList list = moves[ply];
+        game.generateLegalMoves(list);
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if ((list.move(i) & (PackedMove.CAPTURE | PackedMove.PROMOTION)) != 0) {
+                list.set(kept++, list.move(i));
+            }
+        }
+        list.truncate(kept);
+        scoreMoves(list, ply, 0);
+
+        for (int i = 0; i < list.size(); i++) {
+            list.pickBest(i);
+            game.makeMove(list.move(i));
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Scores every move for {@link MoveList#pickBest}; moves keep the
+     * {@code from << 7 | to} form of the table and the killer slots for comparison.
+     */
+    private void scoreMoves(MoveList list, int ply, int hashMove) {
+        int sideOffset = game.getActiveColor().ordinal() * Position.SQUARE_COUNT * Position.SQUARE_COUNT;
+        for (int i = 0; i < list.size(); i++) {
+            int packed = list.move(i);
+            int move = PackedMove.squares(packed);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if ((packed & (PackedMove.CAPTURE | PackedMove.PROMOTION)) != 0) {
+                PieceType victim = PackedMove.captured(packed);
+                int gain = Evaluator.value(victim == null ? PieceType.QUEEN : victim);
+                score = CAPTURE_SCORE + gain * 16 - Evaluator.value(PackedMove.moved(packed)) / 16;
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = history[sideOffset + PackedMove.from(packed) * Position.SQUARE_COUNT + PackedMove.to(packed)];
+            }
+            list.setScore(i, score);
+        }
+    }
+
+    private void rememberQuiet(Color side, int ply, int packed, int depth) {
+        int move = PackedMove.squares(packed);
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int index = side.ordinal() * Position.SQUARE_COUNT * Position.SQUARE_COUNT
+                + PackedMove.from(packed) * Position.SQUARE_COUNT + PackedMove.to(packed);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+
+    /**
+     * Counts a node and checks the limits every {@value #CHECK_INTERVAL} nodes.
+     *
+     * @return whether the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (nodes % CHECK_INTERVAL == 0 && (nodes >= nodeLimit || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table shared by any number of search threads.
+ * <p>
+ * Entries are two longs in a flat {@code long[]}: {@code key ^ data} followed by
+ * {@code data}. Writers store both words without locking; a reader only accepts an
+ * entry when XOR-ing the two words gives back its key, so an entry torn by a
+ * concurrent write simply reads as a miss. Four entries form a 64-byte bucket.
+ * <p>
+ * Data word layout (low to high bits): move (16, {@code from << 7 | to} on the
+ * 0..99 square indices), score (16, signed), depth (8), bound (2), generation (6).
+ * <p>
+ * Replacement is depth-preferred with aging: a probe for the same position is
+ * overwritten unless the stored entry is much deeper, otherwise the entry with the
+ * lowest {@code depth - 8 * age} in the bucket is replaced.
+ */
+public final class TranspositionTable {
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+    private static final int SQUARE_BITS = 7;
+    private static final int GENERATION_MASK = 0x3F;
+    private static final int AGE_WEIGHT = 8;
+
+    private final long[] slots;
+    private final long bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates a table using at most {@code megabytes} of memory (rounded down to a
+     * power-of-two number of buckets).
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB: " + megabytes);
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BUCKET_BYTES);
+        if (buckets * BUCKET_LONGS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Table size too large: " + megabytes + " MB");
+        }
+        this.slots = new long[(int) (buckets * BUCKET_LONGS)];
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * Marks the start of a new search so older entries age out first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Empties the table and resets the counters. Not safe while searches are running.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0L);
+        generation = 0;
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        collisions.reset();
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @return the verified data word, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketBase(key);
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int slot = base + i * ENTRY_LONGS;
+            long data = (long) SLOTS.getOpaque(slots, slot + 1);
+            if (data != 0 && ((long) SLOTS.getOpaque(slots, slot) ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result, subject to the replacement policy.
+     *
+     * @param move 16-bit move from {@link #encodeMove}, or 0 for none
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int base = bucketBase(key);
+        int current = generation;
+        int victim = -1;
+        int victimValue = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int slot = base + i * ENTRY_LONGS;
+            long data = (long) SLOTS.getOpaque(slots, slot + 1);
+            if (data == 0) {
+                victim = slot;
+                victimValue = Integer.MIN_VALUE;
+                break;
+            }
+            if (((long) SLOTS.getOpaque(slots, slot) ^ data) == key) {
+                if (bound != BOUND_EXACT && depth + 2 < depth(data) && generation(data) == current) {
+                    return;
+                }
+                if (move == 0) {
+                    move = move(data);
+                }
+                write(slot, key, pack(depth, bound, score, move, current));
+                return;
+            }
+            int age = (current - generation(data)) & GENERATION_MASK;
+            int value = depth(data) - AGE_WEIGHT * age;
+            if (value < victimValue) {
+                victimValue = value;
+                victim = slot;
+            }
+        }
+        if (victimValue != Integer.MIN_VALUE) {
+            collisions.increment();
+        }
+        write(victim, key, pack(depth, bound, score, move, current));
+    }
+
+    private void write(int slot, long key, long data) {
+        stores.increment();
+        SLOTS.setOpaque(slots, slot, key ^ data);
+        SLOTS.setOpaque(slots, slot + 1, data);
+    }
+
+    private int bucketBase(long key) {
+        long mixed = key ^ (key >>> 32);
+        return (int) (mixed & bucketMask) * BUCKET_LONGS;
+    }
+
+    private static long pack(int depth, int bound, int score, int move, int generation) {
+        if (depth < 0 || depth > 0xFF) {
+            throw new IllegalArgumentException("Depth out of range: " + depth);
+        }
+        if (bound < BOUND_EXACT || bound > BOUND_UPPER) {
+            throw new IllegalArgumentException("Unknown bound: " + bound);
+        }
+        if (score < Short.MIN_VALUE || score > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Score out of range: " + score);
+        }
+        return (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) depth << 32
+                | (long) bound << 40
+                | (long) generation << 42;
+    }
+
+    public static int encodeMove(int from, int to) {
+        return from << SQUARE_BITS | to;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int moveFrom(int move) {
+        return move >>> SQUARE_BITS;
+    }
+
+    public static int moveTo(int move) {
+        return move & ((1 << SQUARE_BITS) - 1);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 42) & GENERATION_MASK;
+    }
+
+    /**
+     * Number of entries the table can hold.
+     */
+    public int capacity() {
+        return slots.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Snapshot of the usage counters; cheap enough to poll while searching.
+     */
+    public Stats stats() {
+        long sampled = 0;
+        long used = 0;
+        int current = generation;
+        int limit = Math.min(slots.length, 1000 * ENTRY_LONGS);
+        for (int slot = 0; slot < limit; slot += ENTRY_LONGS) {
+            long data = (long) SLOTS.getOpaque(slots, slot + 1);
+            sampled++;
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return new Stats(probes.sum(), hits.sum(), stores.sum(), collisions.sum(),
+                sampled == 0 ? 0 : (int) (used * 1000 / sampled));
+    }
+
+    /**
+     * Usage counters. {@code collisions} counts stores that evicted an entry
+     * belonging to a different position; {@code permilleFull} is sampled from the
+     * first thousand entries and only counts entries of the current search.
+     */
+    public record Stats(long probes, long hits, long stores, long collisions, int permilleFull) {
+
+        public double hitRate() {
+            return probes == 0 ? 0.0 : (double) hits / probes;
+        }
+    }
+}
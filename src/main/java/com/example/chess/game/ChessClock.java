@@ -3,18 +3,96 @@ package com.example.chess.game;
 import com.example.chess.model.Color;
 
 import java.time.Duration;
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A chess clock that tracks remaining time for both players.
  * Time counts down when a player's clock is running.
+ * <p>
+ * Time comes from a {@link TimeSource}, by default {@link System#nanoTime()},
+ * so wall-clock adjustments do not move it; a {@link VirtualTimeSource} runs
+ * games on simulated time. The whole clock is one immutable {@link State} swapped
+ * atomically on start, pause, resume and switch; reads never change it, so
+ * any thread may read the clock while its owner presses it, and a read is a
+ * single volatile load.
  */
 public class ChessClock {
-    private final Map<Color, Long> remainingMillis = new EnumMap<>(Color.class);
-    private Color runningClock;
-    private long lastTickTime;
-    private boolean paused = true;
+
+    /**
+     * How a player's time is topped up or held back on each turn.
+     */
+    public enum Mode {
+        /**
+         * No bonus: the clock only counts down.
+         */
+        SUDDEN_DEATH,
+        /**
+         * The bonus is added to the mover's time after each move.
+         */
+        FISCHER,
+        /**
+         * The clock waits for the bonus at the start of each turn before
+         * counting down; unused delay is lost.
+         */
+        DELAY
+    }
+
+    /**
+     * Stored times as of {@code sinceNanos}; while running, the running player
+     * is charged for what has elapsed since then beyond {@code graceNanos}.
+     */
+    private record State(long whiteNanos, long blackNanos, Color running, boolean paused,
+            long sinceNanos, long graceNanos) {
+
+        long stored(Color color) {
+            return color == Color.WHITE ? whiteNanos : blackNanos;
+        }
+
+        long remaining(Color color, long now) {
+            long left = stored(color);
+            if (!paused && color == running) {
+                left -= Math.max(0, now - sinceNanos - graceNanos);
+            }
+            return Math.max(0, left);
+        }
+
+        /**
+         * Nanoseconds from {@code now} until the running player's flag falls.
+         */
+        long untilFlagFall(long now) {
+            return Math.max(0, stored(running) + graceNanos - (now - sinceNanos));
+        }
+
+        /**
+         * Charges the running player up to {@code now}.
+         */
+        State settle(long now) {
+            if (paused) {
+                return this;
+            }
+            long elapsed = now - sinceNanos;
+            long left = remaining(running, now);
+            long grace = Math.max(0, graceNanos - elapsed);
+            return running == Color.WHITE
+                    ? new State(left, blackNanos, running, false, now, grace)
+                    : new State(whiteNanos, left, running, false, now, grace);
+        }
+
+        State withStored(Color color, long nanos) {
+            return color == Color.WHITE
+                    ? new State(nanos, blackNanos, running, paused, sinceNanos, graceNanos)
+                    : new State(whiteNanos, nanos, running, paused, sinceNanos, graceNanos);
+        }
+    }
+
+    private final Mode mode;
+    private final long timePerPlayerNanos;
+    private final long bonusNanos;
+    private final TimeSource time;
+    private final AtomicReference<State> state;
+    private final AtomicReference<FlagScheduler.Timeout> flag = new AtomicReference<>();
+    private volatile FlagScheduler flagScheduler;
+    private volatile Runnable onFlagFall;
 
     /**
      * Creates a new chess clock with the specified time per player.
@@ -22,88 +100,247 @@ public class ChessClock {
      * @param timePerPlayer the time each player has
      */
     public ChessClock(Duration timePerPlayer) {
-        long millis = timePerPlayer.toMillis();
-        remainingMillis.put(Color.WHITE, millis);
-        remainingMillis.put(Color.BLACK, millis);
-        runningClock = Color.WHITE;
+        this(timePerPlayer, Mode.SUDDEN_DEATH, Duration.ZERO, TimeSource.system());
+    }
+
+    /**
+     * Creates a clock with the specified time per player that reads {@code time}.
+     */
+    public ChessClock(Duration timePerPlayer, TimeSource time) {
+        this(timePerPlayer, Mode.SUDDEN_DEATH, Duration.ZERO, time);
+    }
+
+    /**
+     * Creates a clock with the specified time per player and a per-move bonus.
+     *
+     * @param timePerPlayer the time each player starts with
+     * @param mode          how the bonus is applied
+     * @param bonus         the increment or delay per move
+     * @param time          where the clock reads the time
+     */
+    public ChessClock(Duration timePerPlayer, Mode mode, Duration bonus, TimeSource time) {
+        if (timePerPlayer.isNegative() || bonus.isNegative()) {
+            throw new IllegalArgumentException("Clock times must not be negative");
+        }
+        this.mode = mode;
+        this.time = time;
+        this.bonusNanos = mode == Mode.SUDDEN_DEATH ? 0 : bonus.toNanos();
+        long nanos = timePerPlayer.toNanos();
+        this.timePerPlayerNanos = nanos;
+        this.state = new AtomicReference<>(new State(nanos, nanos, Color.WHITE, true, 0, 0));
+    }
+
+    public static ChessClock fischer(Duration timePerPlayer, Duration increment) {
+        return new ChessClock(timePerPlayer, Mode.FISCHER, increment, TimeSource.system());
+    }
+
+    public static ChessClock delay(Duration timePerPlayer, Duration delay) {
+        return new ChessClock(timePerPlayer, Mode.DELAY, delay, TimeSource.system());
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * The time each player started with.
+     */
+    public Duration getTimePerPlayer() {
+        return Duration.ofNanos(timePerPlayerNanos);
+    }
+
+    /**
+     * The increment or delay per move; zero for sudden death.
+     */
+    public Duration getBonus() {
+        return Duration.ofNanos(bonusNanos);
+    }
+
+    public TimeSource getTimeSource() {
+        return time;
+    }
+
+    /**
+     * Has {@code scheduler} run {@code onFlagFall} when the running player's time
+     * is due to run out, kept up to date as the clock starts, switches, pauses
+     * and resumes. The callback runs on the scheduler's thread and should only
+     * hand the time-out over to whoever owns the game.
+     */
+    public void watchFlag(FlagScheduler scheduler, Runnable onFlagFall) {
+        this.onFlagFall = onFlagFall;
+        this.flagScheduler = scheduler;
+        armFlag();
+    }
+
+    /**
+     * Moves this clock's flag watch, if any, to {@code next}, which replaces it.
+     */
+    void handFlagWatchTo(ChessClock next) {
+        FlagScheduler scheduler = flagScheduler;
+        Runnable callback = onFlagFall;
+        unwatchFlag();
+        if (scheduler != null) {
+            next.watchFlag(scheduler, callback);
+        }
+    }
+
+    /**
+     * Cancels the flag fall scheduled by {@link #watchFlag} and stops
+     * scheduling more, so the scheduler lets go of the clock and its callback.
+     */
+    public void unwatchFlag() {
+        this.flagScheduler = null;
+        this.onFlagFall = null;
+        FlagScheduler.Timeout previous = flag.getAndSet(null);
+        if (previous != null) {
+            previous.cancel();
+        }
     }
 
     /**
      * Starts the clock for the given color.
      */
     public void start(Color color) {
-        updateTime();
-        this.runningClock = color;
-        this.paused = false;
-        this.lastTickTime = System.currentTimeMillis();
+        long now = time.nanoTime();
+        long grace = turnGrace();
+        state.updateAndGet(s -> {
+            State settled = s.settle(now);
+            return new State(settled.whiteNanos(), settled.blackNanos(), color, false, now, grace);
+        });
+        armFlag();
     }
 
     /**
      * Pauses the clock (e.g., for draw offers).
      */
     public void pause() {
-        updateTime();
-        this.paused = true;
+        long now = time.nanoTime();
+        state.updateAndGet(s -> {
+            State settled = s.settle(now);
+            return new State(settled.whiteNanos(), settled.blackNanos(), settled.running(), true,
+                    now, settled.graceNanos());
+        });
+        armFlag();
     }
 
     /**
      * Resumes the clock.
      */
     public void resume() {
-        if (paused) {
-            this.lastTickTime = System.currentTimeMillis();
-            this.paused = false;
+        long now = time.nanoTime();
+        State before = state.getAndUpdate(s -> s.paused()
+                ? new State(s.whiteNanos(), s.blackNanos(), s.running(), false, now, s.graceNanos())
+                : s);
+        if (before.paused()) {
+            armFlag();
         }
     }
 
     /**
-     * Switches the clock to the other player after a move.
+     * Switches the clock to the other player after a move, crediting the mover
+     * with the increment in {@link Mode#FISCHER} mode unless already flagged.
      */
     public void switchClock() {
-        updateTime();
-        this.runningClock = runningClock.opposite();
-        this.lastTickTime = System.currentTimeMillis();
+        long now = time.nanoTime();
+        long increment = mode == Mode.FISCHER ? bonusNanos : 0;
+        long grace = turnGrace();
+        state.updateAndGet(s -> {
+            State settled = s.settle(now);
+            Color mover = settled.running();
+            long moverNanos = settled.stored(mover);
+            if (moverNanos > 0) {
+                settled = settled.withStored(mover, moverNanos + increment);
+            }
+            return new State(settled.whiteNanos(), settled.blackNanos(), mover.opposite(), settled.paused(),
+                    now, grace);
+        });
+        armFlag();
+    }
+
+    /**
+     * Hands the turn back to the player whose move was taken back, undoing
+     * {@link #switchClock()}: no increment for the handover, and in
+     * {@link Mode#FISCHER} mode the one credited for that move is removed.
+     * Time already spent on either turn stays spent.
+     */
+    public void switchBack() {
+        long now = time.nanoTime();
+        long increment = mode == Mode.FISCHER ? bonusNanos : 0;
+        long grace = turnGrace();
+        state.updateAndGet(s -> {
+            State settled = s.settle(now);
+            Color mover = settled.running().opposite();
+            long moverNanos = settled.stored(mover);
+            // a mover flagged before the move was never credited, so is left at or below zero
+            if (moverNanos > increment) {
+                settled = settled.withStored(mover, moverNanos - increment);
+            }
+            return new State(settled.whiteNanos(), settled.blackNanos(), mover, settled.paused(), now, grace);
+        });
+        armFlag();
     }
 
     /**
-     * Gets the remaining time for a color.
+     * Sets both players' remaining time, as when resuming a saved game. The
+     * running player's turn counts from now, with a fresh delay.
+     */
+    public void restore(Duration white, Duration black) {
+        long now = time.nanoTime();
+        long grace = turnGrace();
+        state.updateAndGet(s -> new State(white.toNanos(), black.toNanos(), s.running(), s.paused(), now, grace));
+        armFlag();
+    }
+
+    /**
+     * Gets the remaining time for a color, rounded up to the millisecond so
+     * that it only shows zero once the flag has fallen.
      */
     public Duration getRemaining(Color color) {
-        updateTime();
-        return Duration.ofMillis(remainingMillis.get(color));
+        long nanos = state.get().remaining(color, time.nanoTime());
+        return Duration.ofMillis((nanos + 999_999) / 1_000_000);
     }
 
     /**
      * Checks if a player has run out of time.
      */
     public boolean isTimeUp(Color color) {
-        updateTime();
-        return remainingMillis.get(color) <= 0;
+        return state.get().remaining(color, time.nanoTime()) <= 0;
     }
 
     /**
      * Gets which player's clock is currently running.
      */
     public Color getRunningClock() {
-        return runningClock;
+        return state.get().running();
     }
 
     /**
      * Checks if the clock is paused.
      */
     public boolean isPaused() {
-        return paused;
+        return state.get().paused();
     }
 
-    private void updateTime() {
-        if (paused || runningClock == null) {
+    /**
+     * Replaces the scheduled flag fall with one for the running player's
+     * remaining time, or just cancels it while paused.
+     */
+    void armFlag() {
+        FlagScheduler scheduler = flagScheduler;
+        if (scheduler == null) {
             return;
         }
-        long now = System.currentTimeMillis();
-        long elapsed = now - lastTickTime;
-        long current = remainingMillis.get(runningClock);
-        remainingMillis.put(runningClock, Math.max(0, current - elapsed));
-        lastTickTime = now;
+        State current = state.get();
+        FlagScheduler.Timeout next = current.paused() ? null
+                : scheduler.schedule(Duration.ofNanos(current.untilFlagFall(time.nanoTime())), onFlagFall);
+        FlagScheduler.Timeout previous = flag.getAndSet(next);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private long turnGrace() {
+        return mode == Mode.DELAY ? bonusNanos : 0;
     }
 
     /**
@@ -119,9 +356,10 @@ public class ChessClock {
 
     @Override
     public String toString() {
+        State current = state.get();
         return String.format("White: %s | Black: %s%s",
                 formatTime(Color.WHITE),
                 formatTime(Color.BLACK),
-                paused ? " (PAUSED)" : " ← " + runningClock);
+                current.paused() ? " (PAUSED)" : " ← " + current.running());
     }
 }
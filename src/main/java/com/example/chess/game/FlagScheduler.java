@@ -0,0 +1,248 @@
+package com.example.chess.game;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel that fires flag falls for any number of running
+ * clocks from a single thread.
+ * <p>
+ * Four wheels of {@value #SLOTS} slots each cover 1, 256, 65 536 and 16 777 216
+ * ticks per slot; a timeout sits in the finest wheel that can hold its
+ * deadline and drops to finer wheels as the deadline comes near, so scheduling
+ * and cancelling are O(1) and the thread only touches timeouts when they cascade
+ * or expire. Deadlines past the coarsest wheel are parked in its last slot and
+ * placed again when they get there. Deadlines are rounded up to whole ticks, so a
+ * timeout never fires early.
+ * <p>
+ * Any thread may schedule or cancel; only the wheel thread touches the slots,
+ * picking requests up from lock-free queues. Tasks run on the wheel thread and
+ * must be short, typically a hand-off to whoever owns the game.
+ */
+public final class FlagScheduler implements Closeable {
+    private static final int WHEEL_BITS = 8;
+    private static final int SLOTS = 1 << WHEEL_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Timeout[][] wheels = new Timeout[LEVELS][SLOTS];
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private long currentTick;
+    // written by the wheel thread only
+    private volatile int pending;
+    private volatile boolean idle;
+    private volatile boolean running = true;
+
+    /**
+     * A scheduler with millisecond ticks.
+     */
+    public FlagScheduler() {
+        this(Duration.ofMillis(1));
+    }
+
+    public FlagScheduler(Duration tick) {
+        if (tick.isZero() || tick.isNegative()) {
+            throw new IllegalArgumentException("Tick must be positive: " + tick);
+        }
+        this.tickNanos = tick.toNanos();
+        this.thread = new Thread(this::run, "flag-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs {@code task} on the wheel thread once {@code delay} has passed.
+     */
+    public Timeout schedule(Duration delay, Runnable task) {
+        long deadline = System.nanoTime() - startNanos + Math.max(0, delay.toNanos());
+        Timeout timeout = new Timeout(this, Math.floorDiv(deadline + tickNanos - 1, tickNanos), task);
+        scheduled.add(timeout);
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+        return timeout;
+    }
+
+    /**
+     * Timeouts scheduled and not yet fired or cancelled, as last seen by the
+     * wheel thread.
+     */
+    public int pendingCount() {
+        return pending;
+    }
+
+    /**
+     * Stops the wheel thread; timeouts still pending never fire.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        while (running) {
+            transfer();
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+            while (currentTick < nowTick) {
+                currentTick++;
+                advance();
+            }
+            if (pending == 0 && scheduled.isEmpty()) {
+                idle = true;
+                // re-check so a timeout added before the flag was set is not missed
+                if (scheduled.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+            } else {
+                long nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+                LockSupport.parkNanos(this, nextTickNanos - System.nanoTime());
+            }
+        }
+    }
+
+    private void transfer() {
+        for (Timeout timeout = scheduled.poll(); timeout != null; timeout = scheduled.poll()) {
+            if (timeout.state.get() == Timeout.PENDING) {
+                pending++;
+                place(timeout);
+            }
+        }
+        for (Timeout timeout = cancelled.poll(); timeout != null; timeout = cancelled.poll()) {
+            if (timeout.slot != null) {
+                unlink(timeout);
+                pending--;
+            }
+        }
+    }
+
+    /**
+     * Cascades the coarser wheels that start a new slot at this tick, then
+     * fires everything in the finest wheel's slot.
+     */
+    private void advance() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                cascade(level, (int) (currentTick >>> (WHEEL_BITS * level)) & MASK);
+            }
+        }
+        Timeout[] slot = wheels[0];
+        int index = (int) currentTick & MASK;
+        for (Timeout timeout = slot[index]; timeout != null; timeout = slot[index]) {
+            unlink(timeout);
+            fire(timeout);
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Timeout[] slot = wheels[level];
+        for (Timeout timeout = slot[index]; timeout != null; timeout = slot[index]) {
+            unlink(timeout);
+            place(timeout);
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            fire(timeout);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        long position = timeout.deadlineTick;
+        if (delta >= 1L << (WHEEL_BITS * LEVELS)) {
+            // beyond the coarsest wheel: wait in its last slot and be placed again there
+            position = currentTick + ((long) MASK << (WHEEL_BITS * level));
+        }
+        Timeout[] slot = wheels[level];
+        int index = (int) (position >>> (WHEEL_BITS * level)) & MASK;
+        timeout.slot = slot;
+        timeout.index = index;
+        timeout.next = slot[index];
+        if (slot[index] != null) {
+            slot[index].prev = timeout;
+        }
+        slot[index] = timeout;
+    }
+
+    private static void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            timeout.slot[timeout.index] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.slot = null;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private void fire(Timeout timeout) {
+        pending--;
+        if (timeout.state.compareAndSet(Timeout.PENDING, Timeout.FIRED)) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                // report it, but one broken task must not stop every other clock
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+    }
+
+    /**
+     * Handle on a scheduled task.
+     */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int FIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final FlagScheduler scheduler;
+        private final long deadlineTick;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // wheel-thread only
+        private Timeout[] slot;
+        private int index;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(FlagScheduler scheduler, long deadlineTick, Runnable task) {
+            this.scheduler = scheduler;
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        /**
+         * Prevents the task from running if it has not started yet.
+         *
+         * @return false if the task already fired or was cancelled before
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            scheduler.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+}
@@ -3,18 +3,31 @@ package com.example.chess.game;
 import com.example.chess.model.Board;
 import com.example.chess.model.Color;
 import com.example.chess.model.Move;
+import com.example.chess.model.MoveParser;
+import com.example.chess.model.MoveTables;
+import com.example.chess.model.PackedMove;
 import com.example.chess.model.Piece;
 import com.example.chess.model.PieceType;
 import com.example.chess.model.Position;
+import com.example.chess.model.PositionNotation;
+import com.example.chess.model.PositionSnapshot;
+import com.example.chess.model.Zobrist;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.Executor;
 
 public class Game {
+    // read into the board on reset, so a reused game keeps its board
+    private static final ByteBuffer INITIAL_SETUP = initialSetupSnapshot();
+
     private Board board;
     private Color activeColor;
     private GameStatus status;
@@ -22,6 +35,15 @@ public class Game {
     private boolean drawOffered;
     private Color drawOfferedBy;
     private Color winner;
+    private final LegalMoveGenerator legalMoves = new LegalMoveGenerator();
+    private final Deque<PlayedMove> history = new ArrayDeque<>();
+
+    /**
+     * A played move with the status before and after it, kept for
+     * {@link #takeback()} and {@link #getMoveHistory()}.
+     */
+    private record PlayedMove(Move move, GameStatus statusBefore, GameStatus statusAfter) {
+    }
 
     public Game() {
         reset();
@@ -34,15 +56,47 @@ public class Game {
         this.drawOffered = false;
     }
 
+    private static ByteBuffer initialSetupSnapshot() {
+        ByteBuffer snapshot = ByteBuffer.allocate(PositionSnapshot.BYTES);
+        PositionSnapshot.write(Board.initialSetup(), Color.WHITE, snapshot);
+        return snapshot.flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * A game from a position in {@link PositionNotation}, with the side to move
+     * it names.
+     *
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static Game fromNotation(CharSequence text) {
+        Board board = new Board();
+        Color side = new PositionNotation().parse(text, board);
+        return new Game(board, side);
+    }
+
+    /**
+     * Back to the initial setup with White to move, clearing the history and
+     * restarting any clock. An existing board is set up again in place.
+     */
     public void reset() {
-        this.board = Board.initialSetup();
+        if (board == null) {
+            board = Board.initialSetup();
+        } else {
+            PositionSnapshot.read(INITIAL_SETUP.duplicate(), board);
+        }
         this.activeColor = Color.WHITE;
         this.status = GameStatus.ONGOING;
         this.drawOffered = false;
         this.drawOfferedBy = null;
         this.winner = null;
+        this.history.clear();
         if (clock != null) {
-            clock = new ChessClock(Duration.ofMinutes(10));
+            // same settings and flag watch, back at full time with White to move
+            ChessClock old = clock;
+            old.pause();
+            clock = new ChessClock(old.getTimePerPlayer(), old.getMode(), old.getBonus(), old.getTimeSource());
+            clock.start(Color.WHITE);
+            old.handFlagWatchTo(clock);
         }
     }
 
@@ -50,7 +104,32 @@ public class Game {
      * Enables the chess clock with the specified time per player.
      */
     public void enableClock(Duration timePerPlayer) {
+        enableClock(timePerPlayer, TimeSource.system());
+    }
+
+    /**
+     * Enables the chess clock on {@code time}, such as a {@link VirtualTimeSource}
+     * for simulated games; a move made after the mover's time has run out on it
+     * ends the game on time.
+     */
+    public void enableClock(Duration timePerPlayer, TimeSource time) {
+        this.clock = new ChessClock(timePerPlayer, time);
+        this.clock.start(Color.WHITE);
+    }
+
+    /**
+     * Enables the chess clock and has {@code flags} end the game on time even
+     * if the player to move never tries to move. The flag fall is handed to
+     * {@code owner}, which must run it wherever the game's other commands run,
+     * such as the mailbox of a {@link com.example.chess.host.GameActor}.
+     * <p>
+     * The clock reads system time: {@code flags} waits out real delays, so a
+     * clock on any other {@link TimeSource} would have its flag fall checked
+     * at the wrong moments.
+     */
+    public void enableClock(Duration timePerPlayer, FlagScheduler flags, Executor owner) {
         this.clock = new ChessClock(timePerPlayer);
+        this.clock.watchFlag(flags, () -> owner.execute(this::flagFell));
         this.clock.start(Color.WHITE);
     }
 
@@ -82,13 +161,28 @@ public class Game {
         return board;
     }
 
+    /**
+     * 64-bit Zobrist key of the current position: placement, castling-relevant
+     * moved flags and side to move. Identical positions yield identical keys on
+     * every JVM.
+     */
+    public long getPositionKey() {
+        return board.zobristKey() ^ Zobrist.sideToMove(activeColor);
+    }
+
+    /**
+     * The current position in {@link PositionNotation}.
+     */
+    public String toNotation() {
+        return PositionNotation.format(board, activeColor);
+    }
+
     public MoveResult playMove(String input) {
-        try {
-            Move parsed = parseMove(input);
-            return playMove(parsed);
-        } catch (IllegalArgumentException ex) {
-            return MoveResult.fail(ex.getMessage());
+        int parsed = MoveParser.parse(input == null ? "" : input);
+        if (MoveParser.isError(parsed)) {
+            return MoveResult.fail(MoveParser.describe(parsed, input == null ? "" : input));
         }
+        return playMove(PackedMove.toMove(parsed));
     }
 
     public MoveResult playMove(Move move) {
@@ -101,37 +195,45 @@ public class Game {
         }
         
         // Check clock if enabled
-        if (clock != null && clock.isTimeUp(activeColor)) {
-            status = GameStatus.TIME_UP;
-            winner = activeColor.opposite();
+        if (checkFlag()) {
             return MoveResult.fail("Time is up for " + activeColor);
         }
         
-        Optional<Piece> pieceOpt = board.get(move.from());
-        if (pieceOpt.isEmpty()) {
+        Piece piece = board.pieceAt(move.from().index());
+        if (piece == null) {
             return MoveResult.fail("No piece at " + move.from().toAlgebraic());
         }
-        Piece piece = pieceOpt.get();
         if (piece.color() != activeColor) {
             return MoveResult.fail("It is not " + piece.color() + "'s turn");
         }
         
         // Check for castling move
-        if (piece.type() == PieceType.KING && isCastlingMove(move, piece)) {
+        if (piece.type() == PieceType.KING && isCastlingMove(move.from().index(), move.to().index(), piece)) {
             return executeCastling(move, piece);
         }
         
         if (!isLegalMoveIgnoringCheck(board, move, piece)) {
             return MoveResult.fail("Illegal move for " + piece.type());
         }
+        if (LegalMoveGenerator.isKingCapture(board, move.to().index())) {
+            return MoveResult.fail("A king cannot be captured");
+        }
 
-        Board simulated = board.copy();
-        applyMove(simulated, move, piece);
-        if (isInCheck(simulated, activeColor)) {
+        applyMove(board, move, piece);
+        if (isInCheck(board, activeColor)) {
+            board.unmakeMove();
             return MoveResult.fail("Move would leave king in check");
         }
 
-        applyMove(board, move, piece);
+        return completeMove(move, false);
+    }
+
+    /**
+     * Finishes a move already made on the board: hands the turn over and
+     * computes check, checkmate or stalemate for the side now to move.
+     */
+    private MoveResult completeMove(Move move, boolean castling) {
+        GameStatus before = status;
         
         // Clear draw offer after move
         drawOffered = false;
@@ -147,23 +249,95 @@ public class Game {
         // Check for check, checkmate, or stalemate
         boolean check = isInCheck(board, activeColor);
         boolean hasLegalMoves = hasAnyLegalMove(activeColor);
+        String prefix = castling ? "Castling. " : "";
+        MoveResult result;
         
         if (check && !hasLegalMoves) {
             status = GameStatus.CHECKMATE;
             winner = activeColor.opposite();
-            return MoveResult.ok("Checkmate! " + winner + " wins!", false);
+            result = MoveResult.ok(prefix + "Checkmate! " + winner + " wins!", false);
         } else if (!check && !hasLegalMoves) {
             status = GameStatus.DRAW;
-            return MoveResult.ok("Stalemate! Game is a draw.", false);
+            result = MoveResult.ok(prefix + "Stalemate! Game is a draw.", false);
         } else if (check) {
             status = GameStatus.CHECK;
-            return MoveResult.ok("Check!", true);
+            result = MoveResult.ok(prefix + "Check!", true);
+        } else {
+            status = GameStatus.ONGOING;
+            result = MoveResult.ok(castling ? "Castling completed" : "Move accepted", false);
         }
-        
-        status = GameStatus.ONGOING;
-        return MoveResult.ok("Move accepted", false);
+        history.push(new PlayedMove(move, before, status));
+        return result;
+    }
+
+    /**
+     * Every move played with {@link #playMove(Move)} and not taken back,
+     * oldest first; castling is the king's move.
+     */
+    public List<Move> getMoveHistory() {
+        List<Move> moves = new ArrayList<>(history.size());
+        for (Iterator<PlayedMove> played = history.descendingIterator(); played.hasNext(); ) {
+            moves.add(played.next().move());
+        }
+        return moves;
+    }
+
+    /**
+     * Takes back the last move played: restores the board, the side to move
+     * and the status before that move, and hands the clock back.
+     */
+    public MoveResult takeback() {
+        PlayedMove last = history.peek();
+        if (last == null) {
+            return MoveResult.fail("No move to take back");
+        }
+        if (status != last.statusAfter()) {
+            return MoveResult.fail("Cannot take back - game ended: " + status);
+        }
+        history.pop();
+        board.unmakeMove();
+        activeColor = activeColor.opposite();
+        status = last.statusBefore();
+        winner = null;
+        boolean offerPending = drawOffered;
+        drawOffered = false;
+        drawOfferedBy = null;
+        if (clock != null) {
+            clock.switchBack();
+            if (offerPending) {
+                // the offer paused the clock, and with it gone nothing else would resume it
+                clock.resume();
+            }
+        }
+        return MoveResult.ok("Move taken back", status == GameStatus.CHECK);
     }
     
+    /**
+     * Ends the game with {@link GameStatus#TIME_UP} if the player to move has
+     * run out of time.
+     *
+     * @return true if the game has just been lost on time
+     */
+    public boolean checkFlag() {
+        if (clock == null || isGameOver() || !clock.isTimeUp(activeColor)) {
+            return false;
+        }
+        status = GameStatus.TIME_UP;
+        winner = activeColor.opposite();
+        clock.pause();
+        return true;
+    }
+
+    /**
+     * A scheduled flag fall. One made stale by a move or pause that raced with
+     * it finds time not yet up and is scheduled again for the current turn.
+     */
+    private void flagFell() {
+        if (!checkFlag() && !isGameOver()) {
+            clock.armFlag();
+        }
+    }
+
     /**
      * Offers a draw to the opponent.
      */
@@ -225,58 +399,77 @@ public class Game {
      * Checks if the given color has any legal move available.
      */
     public boolean hasAnyLegalMove(Color color) {
-        List<Move> allMoves = generateAllMoves(color);
-        for (Move move : allMoves) {
-            Board simulated = board.copy();
-            Piece piece = board.get(move.from()).orElse(null);
-            if (piece != null) {
-                applyMove(simulated, move, piece);
-                if (!isInCheck(simulated, color)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return legalMoves.hasLegalMove(board, color);
     }
     
     /**
-     * Generates all possible moves for a color (without checking if they leave king in check).
+     * Fills {@code out} with every legal move for the side to move, castling
+     * included. Intended for engines and tools that walk the move tree with
+     * {@link #makeMove(int, int)} and {@link #unmakeMove()}.
      */
-    private List<Move> generateAllMoves(Color color) {
-        List<Move> moves = new ArrayList<>();
-        for (int row = 1; row <= Position.BOARD_SIZE; row++) {
-            for (int col = 1; col <= Position.BOARD_SIZE; col++) {
-                Position from = new Position(row, col);
-                Optional<Piece> pieceOpt = board.get(from);
-                if (pieceOpt.isEmpty() || pieceOpt.get().color() != color) {
-                    continue;
-                }
-                Piece piece = pieceOpt.get();
-                // Generate all possible destinations
-                for (int toRow = 1; toRow <= Position.BOARD_SIZE; toRow++) {
-                    for (int toCol = 1; toCol <= Position.BOARD_SIZE; toCol++) {
-                        Position to = new Position(toRow, toCol);
-                        Move move = new Move(from, to);
-                        if (isLegalMoveIgnoringCheck(board, move, piece)) {
-                            moves.add(move);
-                        }
-                    }
-                }
+    public void generateLegalMoves(MoveList out) {
+        legalMoves.generate(board, activeColor, out);
+
+        int kingSquare = board.kingSquare(activeColor);
+        if (kingSquare >= 0) {
+            Piece king = board.pieceAt(kingSquare);
+            if (isCastlingMove(kingSquare, kingSquare - 2, king) && castlingBlocker(kingSquare, king) == null) {
+                out.add(PackedMove.encode(kingSquare, kingSquare - 2, PieceType.KING, null, PackedMove.CASTLE));
             }
         }
-        return moves;
     }
-    
+
+    /**
+     * Plays a move from {@link #generateLegalMoves} on the board and passes the
+     * turn, without validation, clock or status bookkeeping. Every call must be
+     * paired with {@link #unmakeMove()}.
+     */
+    public void makeMove(int from, int to) {
+        Piece piece = board.pieceAt(from);
+        if (isCastlingMove(from, to, piece)) {
+            castle(from, piece);
+        } else {
+            board.makeMove(from, to, movedPiece(piece, to));
+        }
+        activeColor = activeColor.opposite();
+    }
+
+    /**
+     * {@link #makeMove(int, int)} for a {@link PackedMove} from
+     * {@link #generateLegalMoves}; its flags settle castling and promotion
+     * without looking at the board.
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = board.pieceAt(from);
+        if (PackedMove.isCastle(move)) {
+            castle(from, piece);
+        } else if (PackedMove.isPromotion(move)) {
+            board.makeMove(from, to, Piece.of(PieceType.QUEEN, piece.color(), true));
+        } else {
+            board.makeMove(from, to, piece.withMoved());
+        }
+        activeColor = activeColor.opposite();
+    }
+
+    /**
+     * Reverts the last {@link #makeMove(int, int)} or {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        board.unmakeMove();
+        activeColor = activeColor.opposite();
+    }
+
     /**
      * Checks if a move is a castling attempt.
      */
-    private boolean isCastlingMove(Move move, Piece piece) {
+    private boolean isCastlingMove(int from, int to, Piece piece) {
         if (piece.type() != PieceType.KING || piece.hasMoved()) {
             return false;
         }
-        int colDelta = move.to().col() - move.from().col();
-        // Castling is only to the Lover's side (column A)
-        return Math.abs(colDelta) == 2 && move.from().row() == move.to().row() && colDelta < 0;
+        // Castling is only to the Lover's side (column A): two squares left on the same row
+        return to == from - 2 && from % Position.BOARD_SIZE >= 2;
     }
     
     /**
@@ -284,127 +477,116 @@ public class Game {
      * Castling can only be done towards the Lover's side, and the Lover must not have moved.
      */
     private MoveResult executeCastling(Move move, Piece king) {
-        int homeRow = king.color() == Color.WHITE ? 1 : Position.BOARD_SIZE;
-        
-        // The Lover is at column 1 (A)
-        Position loverPos = new Position(homeRow, 1);
-        // The Rook is at column 2 (B)
-        Position rookPos = new Position(homeRow, 2);
+        int kingFrom = move.from().index();
+        String blocker = castlingBlocker(kingFrom, king);
+        if (blocker != null) {
+            return MoveResult.fail(blocker);
+        }
+        castle(kingFrom, king);
+        return completeMove(move, true);
+    }
+
+    /**
+     * Returns why the castling move is not allowed, or {@code null} if it is.
+     */
+    private String castlingBlocker(int kingFrom, Piece king) {
+        int homeRank = homeRank(king.color());
+        int kingSquare = homeRank + kingFrom % Position.BOARD_SIZE; // King starts at F (col 6)
         
-        Optional<Piece> loverOpt = board.get(loverPos);
-        Optional<Piece> rookOpt = board.get(rookPos);
+        // The Lover is at column 1 (A), the Rook at column 2 (B)
+        Piece lover = board.pieceAt(homeRank);
+        Piece rook = board.pieceAt(homeRank + 1);
         
-        if (loverOpt.isEmpty() || loverOpt.get().type() != PieceType.LOVER 
-                || loverOpt.get().color() != king.color() || loverOpt.get().hasMoved()) {
-            return MoveResult.fail("Cannot castle: Lover has moved or is missing");
+        if (lover == null || lover.type() != PieceType.LOVER
+                || lover.color() != king.color() || lover.hasMoved()) {
+            return "Cannot castle: Lover has moved or is missing";
         }
         
-        if (rookOpt.isEmpty() || rookOpt.get().type() != PieceType.ROOK 
-                || rookOpt.get().color() != king.color() || rookOpt.get().hasMoved()) {
-            return MoveResult.fail("Cannot castle: Rook has moved or is missing");
+        if (rook == null || rook.type() != PieceType.ROOK
+                || rook.color() != king.color() || rook.hasMoved()) {
+            return "Cannot castle: Rook has moved or is missing";
         }
         
         // Check that king is not in check
         if (isInCheck(board, king.color())) {
-            return MoveResult.fail("Cannot castle while in check");
+            return "Cannot castle while in check";
         }
         
         // Check that squares between king and rook are empty
-        int kingCol = move.from().col(); // King starts at F (col 6)
-        for (int col = 3; col < kingCol; col++) {
-            Position pos = new Position(homeRow, col);
-            if (board.get(pos).isPresent()) {
-                return MoveResult.fail("Cannot castle: pieces in the way");
+        for (int square = homeRank + 2; square < kingSquare; square++) {
+            if (board.pieceAt(square) != null) {
+                return "Cannot castle: pieces in the way";
             }
         }
         
-        // Check that king doesn't pass through check
-        for (int col = kingCol - 1; col >= kingCol - 2; col--) {
-            Position intermediate = new Position(homeRow, col);
-            Board simulated = board.copy();
-            simulated.set(move.from(), null);
-            simulated.set(intermediate, king.withMoved());
-            if (isInCheck(simulated, king.color())) {
-                return MoveResult.fail("Cannot castle through check");
+        // Check that king doesn't pass through check; the king is moved there rather than
+        // asking isAttacked, since a slider behind it on the home row would otherwise stay hidden
+        for (int square = kingSquare - 1; square >= kingSquare - 2; square--) {
+            board.makeMove(kingFrom, square, king.withMoved());
+            boolean attacked = isInCheck(board, king.color());
+            board.unmakeMove();
+            if (attacked) {
+                return "Cannot castle through check";
             }
         }
+        return null;
+    }
+
+    /**
+     * Moves the king 2 squares towards A and jumps the rook over it.
+     */
+    private void castle(int kingFrom, Piece king) {
+        int homeRank = homeRank(king.color());
+        int kingCol = kingFrom % Position.BOARD_SIZE;
+        int rookFrom = homeRank + 1;
+        int kingDest = homeRank + kingCol - 2; // King to D (col 4)
+        int rookDest = homeRank + kingCol - 1; // Rook to E (col 5)
         
-        // Execute castling: King moves 2 squares towards A, Rook jumps over
-        Position kingDest = new Position(homeRow, kingCol - 2); // King to D (col 4)
-        Position rookDest = new Position(homeRow, kingCol - 1); // Rook to E (col 5)
-        
-        board.set(move.from(), null);
-        board.set(rookPos, null);
-        board.set(kingDest, king.withMoved());
-        board.set(rookDest, rookOpt.get().withMoved());
-        
-        // Clear draw offer after move
-        drawOffered = false;
-        drawOfferedBy = null;
-        
-        // Switch clock
-        if (clock != null) {
-            clock.switchClock();
-        }
-        
-        activeColor = activeColor.opposite();
-        
-        // Check for check/checkmate
-        boolean check = isInCheck(board, activeColor);
-        boolean hasLegalMoves = hasAnyLegalMove(activeColor);
-        
-        if (check && !hasLegalMoves) {
-            status = GameStatus.CHECKMATE;
-            winner = activeColor.opposite();
-            return MoveResult.ok("Castling. Checkmate! " + winner + " wins!", false);
-        } else if (!check && !hasLegalMoves) {
-            status = GameStatus.DRAW;
-            return MoveResult.ok("Castling. Stalemate! Game is a draw.", false);
-        } else if (check) {
-            status = GameStatus.CHECK;
-            return MoveResult.ok("Castling. Check!", true);
-        }
-        
-        status = GameStatus.ONGOING;
-        return MoveResult.ok("Castling completed", false);
+        board.makeCastling(kingFrom, kingDest, rookFrom, rookDest);
+    }
+
+    /**
+     * Square index of column A on the color's back rank.
+     */
+    private static int homeRank(Color color) {
+        return color == Color.WHITE ? 0 : (Position.BOARD_SIZE - 1) * Position.BOARD_SIZE;
     }
 
     private void applyMove(Board targetBoard, Move move, Piece piece) {
-        targetBoard.set(move.from(), null);
-        Piece moved = piece.withMoved();
-        Position destination = move.to();
-        if (piece.type() == PieceType.PAWN && reachesPromotionRank(destination, piece.color())) {
-            moved = new Piece(PieceType.QUEEN, piece.color(), true);
+        int to = move.to().index();
+        targetBoard.makeMove(move.from().index(), to, movedPiece(piece, to));
+    }
+
+    /**
+     * The piece as it stands after moving to {@code to}: marked as moved, and
+     * promoted to a queen when a pawn reaches the last rank.
+     */
+    private Piece movedPiece(Piece piece, int to) {
+        if (piece.type() == PieceType.PAWN && reachesPromotionRank(to / Position.BOARD_SIZE + 1, piece.color())) {
+            return Piece.of(PieceType.QUEEN, piece.color(), true);
         }
-        targetBoard.set(destination, moved);
+        return piece.withMoved();
     }
 
-    private boolean reachesPromotionRank(Position destination, Color color) {
-        return (color == Color.WHITE && destination.row() == Position.BOARD_SIZE)
-                || (color == Color.BLACK && destination.row() == 1);
+    private boolean reachesPromotionRank(int row, Color color) {
+        return (color == Color.WHITE && row == Position.BOARD_SIZE)
+                || (color == Color.BLACK && row == 1);
     }
 
     Move parseMove(String input) {
-        if (input == null || input.isBlank()) {
-            throw new IllegalArgumentException("Empty move");
-        }
-        String normalized = input.trim().toUpperCase();
-        normalized = normalized.replace("-", " ").replace("TO", " ");
-        String[] parts = normalized.split("\\s+");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException("Use notation like A2 A3 or A2-A3");
+        int parsed = MoveParser.parse(input == null ? "" : input);
+        if (MoveParser.isError(parsed)) {
+            throw new IllegalArgumentException(MoveParser.describe(parsed, input == null ? "" : input));
         }
-        Position from = Position.fromAlgebraic(parts[0]);
-        Position to = Position.fromAlgebraic(parts[1]);
-        return new Move(from, to);
+        return PackedMove.toMove(parsed);
     }
 
     boolean isLegalMoveIgnoringCheck(Board currentBoard, Move move, Piece piece) {
         if (move.from().equals(move.to())) {
             return false;
         }
-        Optional<Piece> dest = currentBoard.get(move.to());
-        if (dest.isPresent() && dest.get().color() == piece.color()) {
+        Piece dest = currentBoard.pieceAt(move.to().index());
+        if (dest != null && dest.color() == piece.color()) {
             return false;
         }
         int rowDelta = move.to().row() - move.from().row();
@@ -426,20 +608,20 @@ public class Game {
         int startRow = piece.color() == Color.WHITE ? 2 : Position.BOARD_SIZE - 1;
         // capture
         if (colDelta != 0 && Math.abs(colDelta) == 1 && rowDelta == forward) {
-            return currentBoard.get(move.to()).map(p -> p.color() != piece.color()).orElse(false);
+            Piece target = currentBoard.pieceAt(move.to().index());
+            return target != null && target.color() != piece.color();
         }
         // forward move(s)
         if (colDelta != 0) {
             return false;
         }
         if (rowDelta == forward) {
-            return currentBoard.get(move.to()).isEmpty();
+            return currentBoard.pieceAt(move.to().index()) == null;
         }
         if (rowDelta == 2 * forward && move.from().row() == startRow) {
-            Position intermediate = move.from().offset(forward, 0);
-            return intermediate != null
-                    && currentBoard.get(intermediate).isEmpty()
-                    && currentBoard.get(move.to()).isEmpty();
+            int intermediate = move.from().index() + forward * Position.BOARD_SIZE;
+            return currentBoard.pieceAt(intermediate) == null
+                    && currentBoard.pieceAt(move.to().index()) == null;
         }
         return false;
     }
@@ -494,54 +676,17 @@ public class Game {
         if (distance > maxDistance) {
             return false;
         }
-        Position current = move.from();
-        for (int i = 1; i < distance; i++) {
-            current = current.offset(stepRow, stepCol);
-            if (current == null) {
-                return false;
-            }
-            if (board.get(current).isPresent()) {
-                return false;
-            }
-        }
-        return true;
+        // from and to are on one line, so the squares between them are the ray up to distance - 1
+        int direction = MoveTables.direction(stepRow, stepCol);
+        return board.firstOccupied(move.from().index(), direction, distance - 1) < 0;
     }
 
+    /**
+     * Whether {@code color}'s king is attacked on the given board. A lookup in
+     * the board's incrementally maintained attack map.
+     */
     public boolean isInCheck(Board candidate, Color color) {
-        Position kingPos = findKing(candidate, color)
-                .orElseThrow(() -> new IllegalStateException("King missing for " + color));
-        Color opponent = color.opposite();
-        for (int row = 1; row <= Position.BOARD_SIZE; row++) {
-            for (int col = 1; col <= Position.BOARD_SIZE; col++) {
-                Position pos = new Position(row, col);
-                Optional<Piece> pieceOpt = candidate.get(pos);
-                if (pieceOpt.isEmpty()) {
-                    continue;
-                }
-                Piece attacker = pieceOpt.get();
-                if (attacker.color() != opponent || attacker.type() == PieceType.LOVER) {
-                    continue; // lover does not give check
-                }
-                Move potential = new Move(pos, kingPos);
-                if (isLegalMoveIgnoringCheck(candidate, potential, attacker)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private Optional<Position> findKing(Board b, Color color) {
-        for (int row = 1; row <= Position.BOARD_SIZE; row++) {
-            for (int col = 1; col <= Position.BOARD_SIZE; col++) {
-                Position pos = new Position(row, col);
-                Optional<Piece> piece = b.get(pos);
-                if (piece.isPresent() && piece.get().type() == PieceType.KING && piece.get().color() == color) {
-                    return Optional.of(pos);
-                }
-            }
-        }
-        return Optional.empty();
+        return candidate.isInCheck(color);
     }
 
     public String renderBoard() {
@@ -577,14 +722,13 @@ public class Game {
         for (int row = Position.BOARD_SIZE; row >= 1; row--) {
             sb.append(String.format("%2d ", row));
             for (int col = 1; col <= Position.BOARD_SIZE; col++) {
-                Position pos = new Position(row, col);
-                Optional<Piece> piece = board.get(pos);
-                if (piece.isEmpty()) {
+                Piece piece = board.pieceAt((row - 1) * Position.BOARD_SIZE + col - 1);
+                if (piece == null) {
                     sb.append(". ");
                     continue;
                 }
-                Map<PieceType, String> map = piece.get().color() == Color.WHITE ? whiteSymbols : blackSymbols;
-                sb.append(map.get(piece.get().type())).append(" ");
+                Map<PieceType, String> map = piece.color() == Color.WHITE ? whiteSymbols : blackSymbols;
+                sb.append(map.get(piece.type())).append(" ");
             }
             sb.append(System.lineSeparator());
         }
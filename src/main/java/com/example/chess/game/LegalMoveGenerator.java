@@ -0,0 +1,306 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.MoveTables;
+import com.example.chess.model.PackedMove;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+
+/**
+ * Strictly legal move generator (castling excluded): no move is played to find
+ * out whether it leaves the king in check.
+ * <p>
+ * Before generating, the first two pieces on each of the king's eight rays are
+ * looked up with {@link Board#firstOccupied} to find
+ * <ul>
+ *   <li>checkers, counted from the board's attack map; with two or more only
+ *       the king may move;</li>
+ *   <li>the evasion mask for a single check: the checker's square plus, for a
+ *       slider, the squares between it and the king, so any piece can block,
+ *       the Lover included;</li>
+ *   <li>pinned pieces and the line each may still move along;</li>
+ *   <li>the square behind the king on a checking slider's line, which stays
+ *       attacked once the king steps back along it.</li>
+ * </ul>
+ * King steps are then checked against the attack map, and every other piece's
+ * pseudo-legal moves from {@link MoveGenerator} are masked. The Lover never
+ * gives check, so it is never a checker or a pinner.
+ * <p>
+ * A king is never captured. As the Lover gives no check it may stand next to
+ * the enemy king, and its pseudo-legal moves then include taking it; such moves
+ * are dropped here, and {@link Game#playMove(com.example.chess.model.Move)}
+ * rejects them through {@link #isKingCapture}, so a game always keeps both kings.
+ * <p>
+ * Square sets are 100-bit masks split into a low and a high word. Instances
+ * hold that scratch state and are not thread-safe; they allocate nothing after
+ * construction.
+ */
+public final class LegalMoveGenerator {
+    private static final int LOW_BITS = Long.SIZE;
+    private static final long ALL_LOW = -1L;
+    private static final long ALL_HIGH = (1L << (Position.SQUARE_COUNT - LOW_BITS)) - 1;
+
+    private final int[] pinnedSquares = new int[MoveTables.DIRECTION_COUNT];
+    private final long[] pinLow = new long[MoveTables.DIRECTION_COUNT];
+    private final long[] pinHigh = new long[MoveTables.DIRECTION_COUNT];
+    private final MoveList scratch = new MoveList();
+    private int pinCount;
+    private int checkers;
+    private long evasionLow;
+    private long evasionHigh;
+    private long shadowLow;
+    private long shadowHigh;
+
+    /**
+     * Clears {@code out} and fills it with every legal move for {@code color},
+     * castling excluded. A side without a king, which only a board set up that
+     * way can have, has nothing to expose, so all its pseudo-legal moves stand
+     * but king captures.
+     */
+    public void generate(Board board, Color color, MoveList out) {
+        int king = board.kingSquare(color);
+        if (king < 0) {
+            MoveGenerator.generate(board, color, out);
+            dropKingCaptures(board, color, out);
+            return;
+        }
+        out.clear();
+        Color enemy = color.opposite();
+        analyse(board, king, color, enemy);
+        addKingMoves(board, king, color, enemy, out);
+        if (checkers <= 1) {
+            for (int from = board.nextOccupied(color, 0); from >= 0; from = board.nextOccupied(color, from + 1)) {
+                if (from == king) {
+                    continue;
+                }
+                int start = out.size();
+                MoveGenerator.generate(board, from, board.pieceAt(from), out);
+                restrict(from, start, out);
+            }
+        }
+        dropKingCaptures(board, color, out);
+    }
+
+    /**
+     * Whether a move to {@code to} would capture a king, which no legal move does.
+     */
+    public static boolean isKingCapture(Board board, int to) {
+        Piece target = board.pieceAt(to);
+        return target != null && target.type() == PieceType.KING;
+    }
+
+    /**
+     * Whether {@code color} has at least one legal move (castling excluded);
+     * stops at the first one found. Backs checkmate and stalemate detection.
+     */
+    public boolean hasLegalMove(Board board, Color color) {
+        int king = board.kingSquare(color);
+        if (king < 0) {
+            MoveGenerator.generate(board, color, scratch);
+            dropKingCaptures(board, color, scratch);
+            return !scratch.isEmpty();
+        }
+        scratch.clear();
+        Color enemy = color.opposite();
+        analyse(board, king, color, enemy);
+        addKingMoves(board, king, color, enemy, scratch);
+        dropKingCaptures(board, color, scratch);
+        if (!scratch.isEmpty() || checkers > 1) {
+            return !scratch.isEmpty();
+        }
+        for (int from = board.nextOccupied(color, 0); from >= 0; from = board.nextOccupied(color, from + 1)) {
+            if (from != king) {
+                MoveGenerator.generate(board, from, board.pieceAt(from), scratch);
+                restrict(from, 0, scratch);
+                dropKingCaptures(board, color, scratch);
+                if (!scratch.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void analyse(Board board, int king, Color color, Color enemy) {
+        checkers = board.attackCount(king, enemy);
+        pinCount = 0;
+        evasionLow = ALL_LOW;
+        evasionHigh = ALL_HIGH;
+        shadowLow = 0;
+        shadowHigh = 0;
+        boolean sliderCheck = false;
+
+        for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+            int[] ray = MoveTables.RAYS[king][dir];
+            int shield = -1;
+            int nearest = board.firstOccupied(king, dir, ray.length);
+            if (nearest >= 0 && board.pieceAt(nearest).color() == color) {
+                shield = nearest;
+                nearest = board.firstOccupied(shield, dir, ray.length);
+            }
+            if (nearest < 0) {
+                continue;
+            }
+            Piece piece = board.pieceAt(nearest);
+            if (piece.color() == color) {
+                continue;
+            }
+            int distance = distance(king, nearest);
+            if (MoveTables.slidesAlong(piece.type(), dir) && MoveTables.range(piece.type()) >= distance) {
+                if (shield < 0) {
+                    sliderCheck = true;
+                    evasionLow = lowMask(ray, distance);
+                    evasionHigh = highMask(ray, distance);
+                    int[] behind = MoveTables.RAYS[king][MoveTables.OPPOSITE[dir]];
+                    if (behind.length > 0 && MoveTables.range(piece.type()) > distance) {
+                        addShadow(behind[0]);
+                    }
+                } else {
+                    pinnedSquares[pinCount] = shield;
+                    pinLow[pinCount] = lowMask(ray, distance);
+                    pinHigh[pinCount] = highMask(ray, distance);
+                    pinCount++;
+                }
+            }
+        }
+
+        if (checkers == 1 && !sliderCheck) {
+            int checker = contactChecker(board, king, color, enemy);
+            evasionLow = checker < LOW_BITS ? 1L << checker : 0;
+            evasionHigh = checker < LOW_BITS ? 0 : 1L << (checker - LOW_BITS);
+        }
+    }
+
+    /**
+     * The knight, pawn or king giving check, once sliders are ruled out.
+     */
+    private static int contactChecker(Board board, int king, Color color, Color enemy) {
+        for (int square : MoveTables.KNIGHT_LEAPS[king]) {
+            if (isPiece(board.pieceAt(square), PieceType.KNIGHT, enemy)) {
+                return square;
+            }
+        }
+        // an enemy pawn attacks the king from the squares our own pawn would capture on
+        for (int square : MoveTables.PAWN_CAPTURES[color.ordinal()][king]) {
+            if (isPiece(board.pieceAt(square), PieceType.PAWN, enemy)) {
+                return square;
+            }
+        }
+        for (int square : MoveTables.KING_STEPS[king]) {
+            if (isPiece(board.pieceAt(square), PieceType.KING, enemy)) {
+                return square;
+            }
+        }
+        throw new IllegalStateException("Attack map reports a check with no checker");
+    }
+
+    private void addKingMoves(Board board, int king, Color color, Color enemy, MoveList out) {
+        for (int to : MoveTables.KING_STEPS[king]) {
+            Piece occupant = board.pieceAt(to);
+            if (occupant != null && occupant.color() == color) {
+                continue;
+            }
+            if (!board.isAttacked(to, enemy) && !contains(shadowLow, shadowHigh, to)) {
+                out.add(PackedMove.encode(king, to, PieceType.KING, occupant == null ? null : occupant.type(), 0));
+            }
+        }
+    }
+
+    /**
+     * Drops the moves from {@code start} on that leave the evasion mask or the
+     * piece's pin line.
+     */
+    private void restrict(int from, int start, MoveList out) {
+        long allowedLow = evasionLow;
+        long allowedHigh = evasionHigh;
+        for (int i = 0; i < pinCount; i++) {
+            if (pinnedSquares[i] == from) {
+                allowedLow &= pinLow[i];
+                allowedHigh &= pinHigh[i];
+                break;
+            }
+        }
+        if (allowedLow == ALL_LOW && allowedHigh == ALL_HIGH) {
+            return;
+        }
+        int kept = start;
+        for (int i = start; i < out.size(); i++) {
+            if (contains(allowedLow, allowedHigh, out.to(i))) {
+                out.set(kept++, out.move(i));
+            }
+        }
+        out.truncate(kept);
+    }
+
+    /**
+     * Drops the moves in {@code out} that capture the enemy king. Only a Lover
+     * next to it, or a piece attacking it on a board set up with the side not
+     * to move in check, can reach it; otherwise the list is left alone.
+     */
+    private static void dropKingCaptures(Board board, Color color, MoveList out) {
+        int enemyKing = board.kingSquare(color.opposite());
+        if (enemyKing < 0 || !board.isAttacked(enemyKing, color) && !loverNextTo(board, enemyKing, color)) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < out.size(); i++) {
+            if (out.to(i) != enemyKing) {
+                out.set(kept++, out.move(i));
+            }
+        }
+        out.truncate(kept);
+    }
+
+    private static boolean loverNextTo(Board board, int square, Color color) {
+        for (int step : MoveTables.KING_STEPS[square]) {
+            if (isPiece(board.pieceAt(step), PieceType.LOVER, color)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addShadow(int square) {
+        if (square < LOW_BITS) {
+            shadowLow |= 1L << square;
+        } else {
+            shadowHigh |= 1L << (square - LOW_BITS);
+        }
+    }
+
+    private static int distance(int a, int b) {
+        int rows = Math.abs(a / Position.BOARD_SIZE - b / Position.BOARD_SIZE);
+        int cols = Math.abs(a % Position.BOARD_SIZE - b % Position.BOARD_SIZE);
+        return Math.max(rows, cols);
+    }
+
+    private static boolean isPiece(Piece piece, PieceType type, Color color) {
+        return piece != null && piece.type() == type && piece.color() == color;
+    }
+
+    private static boolean contains(long low, long high, int square) {
+        return square < LOW_BITS ? (low & (1L << square)) != 0 : (high & (1L << (square - LOW_BITS))) != 0;
+    }
+
+    private static long lowMask(int[] ray, int length) {
+        long mask = 0;
+        for (int i = 0; i < length; i++) {
+            if (ray[i] < LOW_BITS) {
+                mask |= 1L << ray[i];
+            }
+        }
+        return mask;
+    }
+
+    private static long highMask(int[] ray, int length) {
+        long mask = 0;
+        for (int i = 0; i < length; i++) {
+            if (ray[i] >= LOW_BITS) {
+                mask |= 1L << (ray[i] - LOW_BITS);
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.MoveTables;
+import com.example.chess.model.PackedMove;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+
+/**
+ * Table-driven pseudo-legal move generator.
+ * <p>
+ * Produces exactly the moves {@link Game#isLegalMoveIgnoringCheck} accepts (castling
+ * excluded), but only visits reachable targets: step, leap and pawn targets come
+ * from {@link MoveTables}, sliders walk their rays up to the variant's distance caps.
+ * Moves are emitted as {@link PackedMove}s carrying the moved and captured piece
+ * types and the capture and promotion flags.
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Clears {@code out} and fills it with every pseudo-legal move for {@code color}.
+     */
+    public static void generate(Board board, Color color, MoveList out) {
+        out.clear();
+        for (int from = board.nextOccupied(color, 0); from >= 0; from = board.nextOccupied(color, from + 1)) {
+            generate(board, from, board.pieceAt(from), out);
+        }
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the piece on {@code from} to {@code out}.
+     */
+    public static void generate(Board board, int from, Piece piece, MoveList out) {
+        Color color = piece.color();
+        switch (piece.type()) {
+            case KING, LOVER -> addTargets(board, from, piece, MoveTables.KING_STEPS[from], out);
+            case KNIGHT -> addTargets(board, from, piece, MoveTables.KNIGHT_LEAPS[from], out);
+            case PAWN -> addPawnMoves(board, from, color, out);
+            case ROOK -> addSlides(board, from, piece, MoveTables.FIRST_ORTHOGONAL, MoveTables.FIRST_DIAGONAL,
+                    MoveTables.ROOK_RANGE, out);
+            case BISHOP -> addSlides(board, from, piece, MoveTables.FIRST_DIAGONAL, MoveTables.DIRECTION_COUNT,
+                    MoveTables.BISHOP_RANGE, out);
+            case QUEEN -> addSlides(board, from, piece, MoveTables.FIRST_ORTHOGONAL, MoveTables.DIRECTION_COUNT,
+                    MoveTables.QUEEN_RANGE, out);
+        }
+    }
+
+    private static void addTargets(Board board, int from, Piece piece, int[] targets, MoveList out) {
+        for (int to : targets) {
+            Piece occupant = board.pieceAt(to);
+            if (occupant == null) {
+                out.add(PackedMove.encode(from, to, piece.type(), null, 0));
+            } else if (occupant.color() != piece.color()) {
+                out.add(PackedMove.encode(from, to, piece.type(), occupant.type(), 0));
+            }
+        }
+    }
+
+    private static void addPawnMoves(Board board, int from, Color color, MoveList out) {
+        int c = color.ordinal();
+        int push = MoveTables.PAWN_PUSHES[c][from];
+        if (push >= 0 && board.pieceAt(push) == null) {
+            out.add(PackedMove.encode(from, push, PieceType.PAWN, null, promotion(color, push)));
+            int doublePush = MoveTables.PAWN_DOUBLE_PUSHES[c][from];
+            if (doublePush >= 0 && board.pieceAt(doublePush) == null) {
+                out.add(PackedMove.encode(from, doublePush, PieceType.PAWN, null, 0));
+            }
+        }
+        for (int to : MoveTables.PAWN_CAPTURES[c][from]) {
+            Piece occupant = board.pieceAt(to);
+            if (occupant != null && occupant.color() != color) {
+                out.add(PackedMove.encode(from, to, PieceType.PAWN, occupant.type(), promotion(color, to)));
+            }
+        }
+    }
+
+    private static int promotion(Color color, int to) {
+        return PackedMove.isLastRank(color, to) ? PackedMove.PROMOTION : 0;
+    }
+
+    private static void addSlides(Board board, int from, Piece piece, int firstDirection, int endDirection,
+            int range, MoveList out) {
+        int[][] rays = MoveTables.RAYS[from];
+        for (int dir = firstDirection; dir < endDirection; dir++) {
+            int[] ray = rays[dir];
+            int limit = Math.min(range, ray.length);
+            for (int i = 0; i < limit; i++) {
+                int to = ray[i];
+                Piece occupant = board.pieceAt(to);
+                if (occupant == null) {
+                    out.add(PackedMove.encode(from, to, piece.type(), null, 0));
+                    continue;
+                }
+                if (occupant.color() != piece.color()) {
+                    out.add(PackedMove.encode(from, to, piece.type(), occupant.type(), 0));
+                }
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of generated moves in {@link PackedMove} form, with an
+ * ordering score per move. Cleared and refilled by {@link MoveGenerator}
+ * instead of allocating a list per call.
+ */
+public final class MoveList {
+    private int[] moves;
+    private int[] scores;
+    private int size;
+
+    public MoveList() {
+        this(128);
+    }
+
+    public MoveList(int initialCapacity) {
+        this.moves = new int[initialCapacity];
+        this.scores = new int[initialCapacity];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a packed move with score 0.
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            int capacity = Math.max(8, size * 2); // doubling alone never leaves 0
+            moves = Arrays.copyOf(moves, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+        moves[size] = move;
+        scores[size] = 0;
+        size++;
+    }
+
+    /**
+     * Overwrites the move at index {@code i}, which must be below {@link #size()}.
+     */
+    public void set(int i, int move) {
+        moves[i] = move;
+    }
+
+    /**
+     * Drops every move from index {@code newSize} on.
+     */
+    public void truncate(int newSize) {
+        size = Math.min(size, newSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The packed move at index {@code i}.
+     */
+    public int move(int i) {
+        return moves[i];
+    }
+
+    public int from(int i) {
+        return PackedMove.from(moves[i]);
+    }
+
+    public int to(int i) {
+        return PackedMove.to(moves[i]);
+    }
+
+    public int score(int i) {
+        return scores[i];
+    }
+
+    public void setScore(int i, int score) {
+        scores[i] = score;
+    }
+
+    /**
+     * Selection sort step: swaps the highest-scored move from {@code i} on into
+     * position {@code i}. Cheaper than {@link #sort()} when a cutoff is likely
+     * after the first few moves.
+     */
+    public void pickBest(int i) {
+        int best = i;
+        for (int j = i + 1; j < size; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            swap(i, best);
+        }
+    }
+
+    /**
+     * Sorts by descending score; moves with equal scores keep their order.
+     */
+    public void sort() {
+        for (int i = 1; i < size; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    public Move toMove(int i) {
+        return PackedMove.toMove(moves[i]);
+    }
+
+    private void swap(int a, int b) {
+        int move = moves[a];
+        moves[a] = moves[b];
+        moves[b] = move;
+        int score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the leaves of the legal move tree, the node-count oracle every move
+ * generator change is checked against.
+ *
+ * <p>Works on a private copy of the game, so the caller's game is left untouched.
+ * Leaf statistics describe the last move of each line: captures, promotions,
+ * castles, moves giving check, and moves giving checkmate.
+ */
+public final class Perft {
+
+    /**
+     * Leaf counts for one perft run.
+     *
+     * @param depth      plies walked
+     * @param nodes      leaves at {@code depth}
+     * @param captures   leaves reached by a capture
+     * @param promotions leaves reached by a pawn promotion
+     * @param castles    leaves reached by castling
+     * @param checks     leaves where the side to move is in check
+     * @param mates      leaves where the side to move is checkmated
+     * @param elapsed    wall-clock time spent
+     */
+    public record Result(int depth, long nodes, long captures, long promotions, long castles, long checks,
+            long mates, Duration elapsed) {
+
+        public long nodesPerSecond() {
+            long nanos = Math.max(1, elapsed.toNanos());
+            // nodes * 1e9 overflows a long past about 9.2e9 nodes
+            return (long) ((double) nodes * 1e9 / nanos);
+        }
+    }
+
+    /**
+     * Leaves below one root move, as printed by perft-divide.
+     */
+    public record Division(Move move, long nodes) {
+    }
+
+    private final Game game;
+    private final Board board;
+    private MoveList[] buffers = new MoveList[0];
+    private long captures;
+    private long promotions;
+    private long castles;
+    private long checks;
+    private long mates;
+
+    public Perft(Game game) {
+        this.board = game.getBoard().copy();
+        this.game = new Game(board, game.getActiveColor());
+    }
+
+    public Perft(Board board, Color sideToMove) {
+        this(new Game(board, sideToMove));
+    }
+
+    /**
+     * Shorthand for {@code run(depth).nodes()}.
+     */
+    public long count(int depth) {
+        return run(depth).nodes();
+    }
+
+    public Result run(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth must not be negative");
+        }
+        ensureBuffers(depth);
+        captures = promotions = castles = checks = mates = 0;
+        long start = System.nanoTime();
+        long nodes = depth == 0 ? 1 : walk(depth, 0);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new Result(depth, nodes, captures, promotions, castles, checks, mates, elapsed);
+    }
+
+    /**
+     * Leaf count below each legal root move, in generation order.
+     */
+    public List<Division> divide(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1");
+        }
+        ensureBuffers(depth);
+        MoveList moves = buffers[0];
+        game.generateLegalMoves(moves);
+        List<Division> divisions = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            long nodes;
+            if (depth == 1) {
+                nodes = 1;
+            } else {
+                game.makeMove(moves.move(i));
+                nodes = walk(depth - 1, 1);
+                game.unmakeMove();
+            }
+            divisions.add(new Division(moves.toMove(i), nodes));
+        }
+        return divisions;
+    }
+
+    private long walk(int depth, int ply) {
+        MoveList moves = buffers[ply];
+        game.generateLegalMoves(moves);
+        if (depth == 1) {
+            for (int i = 0; i < moves.size(); i++) {
+                classifyLeaf(moves.move(i));
+            }
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.move(i));
+            nodes += walk(depth - 1, ply + 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private void classifyLeaf(int move) {
+        if (PackedMove.isCapture(move)) {
+            captures++;
+        }
+        if (PackedMove.isPromotion(move)) {
+            promotions++;
+        }
+        if (PackedMove.isCastle(move)) {
+            castles++;
+        }
+        game.makeMove(move);
+        Color defender = game.getActiveColor();
+        // a defender set up without a king is never in check, let alone mated
+        if (board.kingSquare(defender) >= 0 && game.isInCheck(board, defender)) {
+            checks++;
+            // castling is never legal in check, so the plain generator settles it
+            if (!game.hasAnyLegalMove(defender)) {
+                mates++;
+            }
+        }
+        game.unmakeMove();
+    }
+
+    private void ensureBuffers(int depth) {
+        if (buffers.length < depth) {
+            MoveList[] grown = new MoveList[depth];
+            System.arraycopy(buffers, 0, grown, 0, buffers.length);
+            for (int i = buffers.length; i < depth; i++) {
+                grown[i] = new MoveList(256);
+            }
+            buffers = grown;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.chess.game;
+
+/**
+ * Monotonic time in nanoseconds for {@link ChessClock}. Only differences
+ * between readings mean anything, as with {@link System#nanoTime()}.
+ */
+@FunctionalInterface
+public interface TimeSource {
+
+    long nanoTime();
+
+    /**
+     * Real elapsed time, from {@link System#nanoTime()}.
+     */
+    static TimeSource system() {
+        return System::nanoTime;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.chess.game;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link TimeSource} that only moves when told to, for simulating timed
+ * games faster than real time and replaying time-outs exactly. Give each
+ * simulated game, or each worker, its own source; {@link #advance} is safe to
+ * call from any thread, but a clock only sees consistent time when one thread
+ * drives it.
+ * <p>
+ * A {@link FlagScheduler} runs on real time and never fires for a clock on
+ * virtual time; call {@link Game#checkFlag()} after advancing instead.
+ */
+public final class VirtualTimeSource implements TimeSource {
+    private final AtomicLong now = new AtomicLong();
+
+    @Override
+    public long nanoTime() {
+        return now.get();
+    }
+
+    /**
+     * Moves time forward by {@code elapsed}.
+     *
+     * @return the new time in nanoseconds
+     */
+    public long advance(Duration elapsed) {
+        if (elapsed.isNegative()) {
+            throw new IllegalArgumentException("Time cannot go back: " + elapsed);
+        }
+        return now.addAndGet(elapsed.toNanos());
+    }
+}
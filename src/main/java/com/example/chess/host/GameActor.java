@@ -0,0 +1,107 @@
+package com.example.chess.host;
+
+import com.example.chess.game.Game;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Sole owner of one {@link Game}: every command goes through its mailbox and
+ * runs alone, in arrival order, so callers on any number of threads see the
+ * game change one command at a time without locking it.
+ * <p>
+ * The mailbox is drained by a task on the host's executor, started when the
+ * first command arrives and ended when the mailbox is empty, so an idle game
+ * holds no thread. A drain gives its thread back after {@value #BATCH} commands,
+ * which keeps a flooded game from starving the others when threads are scarce.
+ */
+public final class GameActor implements Executor {
+    private static final int BATCH = 32;
+
+    private final long id;
+    private final Game game;
+    private final Executor executor;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    GameActor(long id, Game game, Executor executor) {
+        this.id = id;
+        this.game = game;
+        this.executor = executor;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Queues {@code command} and returns its result once it has run. The
+     * command must not let the game escape; it is only safe inside the mailbox.
+     */
+    public <T> CompletableFuture<T> submit(Function<? super Game, ? extends T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.add(() -> {
+            try {
+                result.complete(command.apply(game));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule();
+        return result;
+    }
+
+    /**
+     * {@link #submit} and wait; meant for callers on virtual threads, where
+     * blocking is cheap. A runtime exception from the command is rethrown as is.
+     */
+    public <T> T call(Function<? super Game, ? extends T> command) {
+        try {
+            return this.<T>submit(command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queues {@code command} like any other; lets the game hand work to its own
+     * mailbox, as for flag falls.
+     */
+    @Override
+    public void execute(Runnable command) {
+        submit(game -> {
+            command.run();
+            return null;
+        });
+    }
+
+    private void schedule() {
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable command = mailbox.poll();
+                if (command == null) {
+                    break;
+                }
+                command.run();
+            }
+        } finally {
+            scheduled.set(false);
+            // a command queued after the last poll saw the flag still set
+            schedule();
+        }
+    }
+}
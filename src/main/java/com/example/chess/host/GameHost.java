@@ -0,0 +1,113 @@
+package com.example.chess.host;
+
+import com.example.chess.game.FlagScheduler;
+import com.example.chess.game.Game;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of hosted games, each behind its own {@link GameActor}.
+ * <p>
+ * By default mailboxes are drained on virtual threads, one short-lived thread
+ * per busy game, so the number of active games is bounded by memory rather
+ * than by a thread pool, and busy games spread over all carrier threads. There
+ * is no lock shared between games.
+ * <p>
+ * Timed games share one {@link FlagScheduler}, whose flag falls are queued in
+ * the game's mailbox like any other command.
+ */
+public final class GameHost implements AutoCloseable {
+    private final ExecutorService executor;
+    private final Map<Long, GameActor> actors = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final FlagScheduler flags = new FlagScheduler();
+
+    public GameHost() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Drains mailboxes on {@code executor}, which the host shuts down on {@link #close()}.
+     */
+    public GameHost(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Hosts a new game from the initial setup.
+     */
+    public GameActor create() {
+        return create(new Game());
+    }
+
+    /**
+     * Hosts a new game with {@code timePerPlayer} on each clock, White's
+     * running from now; a player who lets it run out loses on time.
+     */
+    public GameActor create(Duration timePerPlayer) {
+        Game game = new Game();
+        GameActor actor = new GameActor(nextId.incrementAndGet(), game, executor);
+        // not yet shared, so safe to set up outside the mailbox
+        game.enableClock(timePerPlayer, flags, actor);
+        actors.put(actor.id(), actor);
+        return actor;
+    }
+
+    /**
+     * Hosts {@code game}, which the caller must not touch afterwards.
+     */
+    public GameActor create(Game game) {
+        GameActor actor = new GameActor(nextId.incrementAndGet(), game, executor);
+        actors.put(actor.id(), actor);
+        return actor;
+    }
+
+    public Optional<GameActor> find(long id) {
+        return Optional.ofNullable(actors.get(id));
+    }
+
+    /**
+     * Stops hosting the game; commands already queued still run, and then its
+     * clock stops watching for a flag fall.
+     */
+    public boolean remove(long id) {
+        GameActor actor = actors.remove(id);
+        if (actor == null) {
+            return false;
+        }
+        // otherwise the scheduler keeps the game alive until its flag falls on a game no one hosts
+        actor.submit(game -> {
+            if (game.getClock() != null) {
+                game.getClock().unwatchFlag();
+            }
+            return null;
+        });
+        return true;
+    }
+
+    public int size() {
+        return actors.size();
+    }
+
+    /**
+     * Stops firing flag falls, lets queued commands finish (waiting up to five
+     * seconds) and stops the executor.
+     */
+    @Override
+    public void close() {
+        flags.close();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.chess.model;
+
+/**
+ * The original grid representation: a {@code Piece[10][10]} indexed by row and column.
+ */
+final class ArrayBoardStorage implements BoardStorage {
+    private final Piece[][] grid = new Piece[Position.BOARD_SIZE][Position.BOARD_SIZE];
+    // lowest king square per color, -1 if none; rescanned only when that king leaves
+    private final int[] kings = {-1, -1};
+
+    @Override
+    public Piece get(int square) {
+        return grid[square / Position.BOARD_SIZE][square % Position.BOARD_SIZE];
+    }
+
+    @Override
+    public void set(int square, Piece piece) {
+        Piece previous = get(square);
+        grid[square / Position.BOARD_SIZE][square % Position.BOARD_SIZE] = piece;
+        if (previous != null && previous.type() == PieceType.KING && kings[previous.color().ordinal()] == square) {
+            kings[previous.color().ordinal()] = scanKing(previous.color());
+        }
+        if (piece != null && piece.type() == PieceType.KING) {
+            int c = piece.color().ordinal();
+            if (kings[c] < 0 || square < kings[c]) {
+                kings[c] = square;
+            }
+        }
+    }
+
+    @Override
+    public int nextOccupied(Color color, int fromSquare) {
+        for (int square = fromSquare; square < Position.SQUARE_COUNT; square++) {
+            Piece piece = get(square);
+            if (piece != null && piece.color() == color) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int kingSquare(Color color) {
+        return kings[color.ordinal()];
+    }
+
+    private int scanKing(Color color) {
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Piece piece = get(square);
+            if (piece != null && piece.type() == PieceType.KING && piece.color() == color) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public BoardStorage copy() {
+        ArrayBoardStorage copy = new ArrayBoardStorage();
+        for (int r = 0; r < Position.BOARD_SIZE; r++) {
+            System.arraycopy(this.grid[r], 0, copy.grid[r], 0, Position.BOARD_SIZE);
+        }
+        copy.kings[0] = kings[0];
+        copy.kings[1] = kings[1];
+        return copy;
+    }
+
+    @Override
+    public BoardLayout layout() {
+        return BoardLayout.ARRAY;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.chess.model;
+
+import java.util.Arrays;
+
+/**
+ * Per-color attack counts for every square, kept up to date by {@link Board}
+ * on each square change instead of being recomputed.
+ * <p>
+ * A square's count is the number of pieces of that color that could capture
+ * an enemy piece standing on it. The Lover is left out because it never gives
+ * check. Pawns attack their two forward diagonals, not their push squares.
+ * <p>
+ * When a square fills or empties, every slider whose ray runs through it
+ * gains or loses the squares behind it, up to the next blocker or the end of
+ * its range. The map keeps its own occupancy and slider bitboards (split into a
+ * low and high word like {@link BitboardStorage}), so a direction with no slider
+ * behind the square costs two mask tests and is never walked.
+ */
+final class AttackMap {
+    private static final int TYPE_COUNT = PieceType.values().length;
+    private static final int LOW_BITS = Long.SIZE;
+    /**
+     * Slider range per square code and direction; 0 for empty squares and
+     * where the piece does not slide that way (non-sliders and the Lover everywhere).
+     */
+    private static final int[][] REACH = new int[1 + 2 * TYPE_COUNT][MoveTables.DIRECTION_COUNT];
+    /**
+     * {@link MoveTables#RAYS} as bit masks, low and high word interleaved at
+     * {@code 2 * (square * DIRECTION_COUNT + direction)}; flat to keep lookups to one load.
+     */
+    private static final long[] RAY_MASKS = new long[2 * Position.SQUARE_COUNT * MoveTables.DIRECTION_COUNT];
+    /**
+     * Whether walking along a direction increases the square index.
+     */
+    private static final boolean[] ASCENDING = new boolean[MoveTables.DIRECTION_COUNT];
+
+    static {
+        for (Color color : Color.values()) {
+            for (PieceType type : PieceType.values()) {
+                for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+                    REACH[code(color, type)][dir] = MoveTables.slidesAlong(type, dir) ? MoveTables.range(type) : 0;
+                }
+            }
+        }
+        for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+            int[] step = MoveTables.DIRECTIONS[dir];
+            ASCENDING[dir] = step[0] * Position.BOARD_SIZE + step[1] > 0;
+        }
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+                int slot = 2 * (square * MoveTables.DIRECTION_COUNT + dir);
+                for (int target : MoveTables.RAYS[square][dir]) {
+                    if (target < LOW_BITS) {
+                        RAY_MASKS[slot] |= 1L << target;
+                    } else {
+                        RAY_MASKS[slot + 1] |= 1L << (target - LOW_BITS);
+                    }
+                }
+            }
+        }
+    }
+
+    // [color * SQUARE_COUNT + square]
+    private final int[] counts;
+    // 0 for empty, otherwise code(color, type)
+    private final byte[] codes;
+    private long occupiedLow;
+    private long occupiedHigh;
+    // rooks and queens of both colors
+    private long orthogonalLow;
+    private long orthogonalHigh;
+    // bishops and queens of both colors
+    private long diagonalLow;
+    private long diagonalHigh;
+
+    AttackMap() {
+        this.counts = new int[2 * Position.SQUARE_COUNT];
+        this.codes = new byte[Position.SQUARE_COUNT];
+    }
+
+    private AttackMap(AttackMap source) {
+        this.counts = source.counts.clone();
+        this.codes = source.codes.clone();
+        this.occupiedLow = source.occupiedLow;
+        this.occupiedHigh = source.occupiedHigh;
+        this.orthogonalLow = source.orthogonalLow;
+        this.orthogonalHigh = source.orthogonalHigh;
+        this.diagonalLow = source.diagonalLow;
+        this.diagonalHigh = source.diagonalHigh;
+    }
+
+    int count(Color color, int square) {
+        return counts[color.ordinal() * Position.SQUARE_COUNT + square];
+    }
+
+    /**
+     * Accounts for {@code square} changing from {@code previous} to {@code piece}.
+     */
+    void update(int square, Piece previous, Piece piece) {
+        if (previous != null) {
+            apply(previous, square, -1);
+            toggle(previous, square);
+        }
+        codes[square] = piece == null ? 0 : (byte) code(piece.color(), piece.type());
+        if (piece != null) {
+            toggle(piece, square);
+        }
+        if ((previous == null) != (piece == null)) {
+            retrace(square, piece == null ? 1 : -1);
+        }
+        if (piece != null) {
+            apply(piece, square, 1);
+        }
+    }
+
+    /**
+     * Recomputes everything from {@code storage} at once; cheaper than a
+     * square-by-square {@link #update} when most of the board changes.
+     */
+    void rebuild(BoardStorage storage) {
+        Arrays.fill(counts, 0);
+        occupiedLow = occupiedHigh = 0;
+        orthogonalLow = orthogonalHigh = 0;
+        diagonalLow = diagonalHigh = 0;
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Piece piece = storage.get(square);
+            codes[square] = piece == null ? 0 : (byte) code(piece.color(), piece.type());
+            if (piece != null) {
+                toggle(piece, square);
+            }
+        }
+        // every blocker is in place, so each slider stops where it should
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Piece piece = storage.get(square);
+            if (piece != null) {
+                apply(piece, square, 1);
+            }
+        }
+    }
+
+    AttackMap copy() {
+        return new AttackMap(this);
+    }
+
+    private void toggle(Piece piece, int square) {
+        boolean low = square < LOW_BITS;
+        long bit = 1L << (low ? square : square - LOW_BITS);
+        boolean orthogonal = piece.type() == PieceType.ROOK || piece.type() == PieceType.QUEEN;
+        boolean diagonal = piece.type() == PieceType.BISHOP || piece.type() == PieceType.QUEEN;
+        if (low) {
+            occupiedLow ^= bit;
+            orthogonalLow ^= orthogonal ? bit : 0;
+            diagonalLow ^= diagonal ? bit : 0;
+        } else {
+            occupiedHigh ^= bit;
+            orthogonalHigh ^= orthogonal ? bit : 0;
+            diagonalHigh ^= diagonal ? bit : 0;
+        }
+    }
+
+    private static int code(Color color, PieceType type) {
+        return 1 + color.ordinal() * TYPE_COUNT + type.ordinal();
+    }
+
+    private void apply(Piece piece, int square, int delta) {
+        int base = piece.color().ordinal() * Position.SQUARE_COUNT;
+        switch (piece.type()) {
+            case LOVER -> {
+                // never gives check
+            }
+            case KING -> add(base, MoveTables.KING_STEPS[square], delta);
+            case KNIGHT -> add(base, MoveTables.KNIGHT_LEAPS[square], delta);
+            case PAWN -> add(base, MoveTables.PAWN_CAPTURES[piece.color().ordinal()][square], delta);
+            default -> {
+                int[] reach = REACH[code(piece.color(), piece.type())];
+                int[][] rays = MoveTables.RAYS[square];
+                for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+                    if (reach[dir] > 0) {
+                        slide(base, rays[dir], reach[dir], delta);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Extends (delta 1) or cuts (delta -1) the slider rays passing through
+     * {@code square}, which has just been emptied or filled.
+     */
+    private void retrace(int square, int delta) {
+        for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+            int back = MoveTables.OPPOSITE[dir];
+            boolean orthogonal = dir < MoveTables.FIRST_DIAGONAL;
+            long slidersLow = orthogonal ? orthogonalLow : diagonalLow;
+            long slidersHigh = orthogonal ? orthogonalHigh : diagonalHigh;
+            int slot = 2 * (square * MoveTables.DIRECTION_COUNT + back);
+            if ((slidersLow & RAY_MASKS[slot]) == 0 && (slidersHigh & RAY_MASKS[slot + 1]) == 0) {
+                continue;
+            }
+            int nearest = nearest(slot, back);
+            int code = codes[nearest];
+            int remaining = REACH[code][dir] - distance(square, nearest);
+            if (remaining > 0) {
+                int base = (code - 1) / TYPE_COUNT * Position.SQUARE_COUNT;
+                slide(base, MoveTables.RAYS[square][dir], remaining, delta);
+            }
+        }
+    }
+
+    /**
+     * First occupied square along the ray in {@code slot} of {@link #RAY_MASKS};
+     * the caller guarantees there is one.
+     */
+    private int nearest(int slot, int dir) {
+        long low = occupiedLow & RAY_MASKS[slot];
+        long high = occupiedHigh & RAY_MASKS[slot + 1];
+        if (ASCENDING[dir]) {
+            return low != 0 ? Long.numberOfTrailingZeros(low) : LOW_BITS + Long.numberOfTrailingZeros(high);
+        }
+        return high != 0 ? 2 * LOW_BITS - 1 - Long.numberOfLeadingZeros(high)
+                : LOW_BITS - 1 - Long.numberOfLeadingZeros(low);
+    }
+
+    private static int distance(int a, int b) {
+        int rows = Math.abs(a / Position.BOARD_SIZE - b / Position.BOARD_SIZE);
+        int cols = Math.abs(a % Position.BOARD_SIZE - b % Position.BOARD_SIZE);
+        return Math.max(rows, cols);
+    }
+
+    private void slide(int base, int[] ray, int range, int delta) {
+        int limit = Math.min(range, ray.length);
+        for (int i = 0; i < limit; i++) {
+            counts[base + ray[i]] += delta;
+            if (codes[ray[i]] != 0) {
+                break;
+            }
+        }
+    }
+
+    private void add(int base, int[] targets, int delta) {
+        for (int target : targets) {
+            counts[base + target] += delta;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.chess.model;
+
+/**
+ * Bitboard representation for the 10x10 board.
+ * <p>
+ * A set of squares needs 100 bits, so every set is split into a low word
+ * (squares 0..63) and a high word (squares 64..99). There is one set per
+ * (color, piece type) pair, including the Lover, plus one occupancy set per
+ * color. A parallel mailbox keeps the {@link Piece} records so {@link #get}
+ * stays a single array read and {@code hasMoved} survives round trips.
+ */
+final class BitboardStorage implements BoardStorage {
+    private static final int TYPE_COUNT = PieceType.values().length;
+    private static final int LOW_BITS = Long.SIZE;
+
+    private final long[] piecesLow = new long[2 * TYPE_COUNT];
+    private final long[] piecesHigh = new long[2 * TYPE_COUNT];
+    private final long[] occupancyLow = new long[2];
+    private final long[] occupancyHigh = new long[2];
+    private final Piece[] mailbox = new Piece[Position.SQUARE_COUNT];
+
+    @Override
+    public Piece get(int square) {
+        return mailbox[square];
+    }
+
+    @Override
+    public void set(int square, Piece piece) {
+        Piece previous = mailbox[square];
+        if (previous != null) {
+            toggle(previous, square);
+        }
+        mailbox[square] = piece;
+        if (piece != null) {
+            toggle(piece, square);
+        }
+    }
+
+    private void toggle(Piece piece, int square) {
+        int color = piece.color().ordinal();
+        int set = color * TYPE_COUNT + piece.type().ordinal();
+        if (square < LOW_BITS) {
+            long bit = 1L << square;
+            piecesLow[set] ^= bit;
+            occupancyLow[color] ^= bit;
+        } else {
+            long bit = 1L << (square - LOW_BITS);
+            piecesHigh[set] ^= bit;
+            occupancyHigh[color] ^= bit;
+        }
+    }
+
+    @Override
+    public int nextOccupied(Color color, int fromSquare) {
+        int c = color.ordinal();
+        if (fromSquare < LOW_BITS) {
+            long bits = occupancyLow[c] & (-1L << fromSquare);
+            if (bits != 0) {
+                return Long.numberOfTrailingZeros(bits);
+            }
+            fromSquare = LOW_BITS;
+        }
+        if (fromSquare < Position.SQUARE_COUNT) {
+            long bits = occupancyHigh[c] & (-1L << (fromSquare - LOW_BITS));
+            if (bits != 0) {
+                return LOW_BITS + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int kingSquare(Color color) {
+        int set = color.ordinal() * TYPE_COUNT + PieceType.KING.ordinal();
+        if (piecesLow[set] != 0) {
+            return Long.numberOfTrailingZeros(piecesLow[set]);
+        }
+        if (piecesHigh[set] != 0) {
+            return LOW_BITS + Long.numberOfTrailingZeros(piecesHigh[set]);
+        }
+        return -1;
+    }
+
+    @Override
+    public BoardStorage copy() {
+        BitboardStorage copy = new BitboardStorage();
+        System.arraycopy(piecesLow, 0, copy.piecesLow, 0, piecesLow.length);
+        System.arraycopy(piecesHigh, 0, copy.piecesHigh, 0, piecesHigh.length);
+        System.arraycopy(occupancyLow, 0, copy.occupancyLow, 0, occupancyLow.length);
+        System.arraycopy(occupancyHigh, 0, copy.occupancyHigh, 0, occupancyHigh.length);
+        System.arraycopy(mailbox, 0, copy.mailbox, 0, mailbox.length);
+        return copy;
+    }
+
+    @Override
+    public BoardLayout layout() {
+        return BoardLayout.BITBOARD;
+    }
+}
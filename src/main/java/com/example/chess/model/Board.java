@@ -5,26 +5,221 @@ import java.util.List;
 import java.util.Optional;
 
 public class Board {
-    private final Piece[][] grid = new Piece[Position.BOARD_SIZE][Position.BOARD_SIZE];
+    private final BoardStorage storage;
+    private final UndoStack undo = new UndoStack();
+    private final AttackMap attacks;
+    private long zobristKey;
+
+    public Board() {
+        this(BoardLayout.BITBOARD);
+    }
+
+    public Board(BoardLayout layout) {
+        this(layout.newStorage());
+    }
+
+    private Board(BoardStorage storage) {
+        this.storage = storage;
+        this.attacks = new AttackMap();
+    }
+
+    private Board(BoardStorage storage, AttackMap attacks, long zobristKey) {
+        this.storage = storage;
+        this.attacks = attacks;
+        this.zobristKey = zobristKey;
+    }
+
+    public BoardLayout layout() {
+        return storage.layout();
+    }
 
     public Optional<Piece> get(Position position) {
-        return Optional.ofNullable(grid[position.row() - 1][position.col() - 1]);
+        return Optional.ofNullable(storage.get(position.index()));
+    }
+
+    /**
+     * Returns the piece on the given square index, or {@code null} if it is empty.
+     */
+    public Piece pieceAt(int index) {
+        return storage.get(index);
     }
 
     public void set(Position position, Piece piece) {
-        grid[position.row() - 1][position.col() - 1] = piece;
+        put(position.index(), piece);
     }
 
-    public Board copy() {
-        Board copy = new Board();
-        for (int r = 0; r < Position.BOARD_SIZE; r++) {
-            System.arraycopy(this.grid[r], 0, copy.grid[r], 0, Position.BOARD_SIZE);
+    /**
+     * Places {@code piece} (or clears the square when {@code null}) on the given
+     * square index; the allocation-free counterpart of {@link #set(Position, Piece)}.
+     */
+    public void set(int index, Piece piece) {
+        put(index, piece);
+    }
+
+    /**
+     * Zobrist key of the piece placement, including the castling-relevant moved
+     * flags. Updated in O(1) by every mutation; combine with
+     * {@link Zobrist#sideToMove(Color)} for a full position key.
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    private void put(int square, Piece piece) {
+        Piece previous = storage.get(square);
+        zobristKey ^= Zobrist.piece(previous, square) ^ Zobrist.piece(piece, square);
+        storage.set(square, piece);
+        attacks.update(square, previous, piece);
+    }
+
+    /**
+     * Number of pieces of color {@code by} attacking the square, i.e. able to
+     * capture an enemy piece standing on it. The Lover is not counted because it
+     * never gives check. Maintained incrementally, so this is a table lookup.
+     */
+    public int attackCount(int square, Color by) {
+        return attacks.count(by, square);
+    }
+
+    public boolean isAttacked(int square, Color by) {
+        return attacks.count(by, square) > 0;
+    }
+
+    /**
+     * Whether the king of the given color is attacked.
+     *
+     * @throws IllegalStateException if that color has no king
+     */
+    public boolean isInCheck(Color color) {
+        int king = storage.kingSquare(color);
+        if (king < 0) {
+            throw new IllegalStateException("King missing for " + color);
+        }
+        return attacks.count(color.opposite(), king) > 0;
+    }
+
+    /**
+     * Moves the piece on {@code from} to {@code to} in place, replacing it with
+     * {@code placed} (the piece after the move, e.g. marked as moved or promoted).
+     * The previous contents of both squares are recorded so {@link #unmakeMove()}
+     * restores them exactly.
+     */
+    public void makeMove(int from, int to, Piece placed) {
+        Piece moving = storage.get(from);
+        if (moving == null) {
+            throw new IllegalStateException("No piece at square " + from);
         }
-        return copy;
+        Piece capturedPiece = storage.get(to);
+        int flags = placed.type() != moving.type() ? UndoStack.PROMOTION : 0;
+        undo.push(from, to, UndoStack.NONE, UndoStack.NONE, flags, moving, capturedPiece, null);
+        put(from, null);
+        put(to, placed);
+    }
+
+    /**
+     * Relocates king and rook for castling in place, marking both as moved.
+     */
+    public void makeCastling(int kingFrom, int kingTo, int rookFrom, int rookTo) {
+        Piece king = storage.get(kingFrom);
+        Piece rook = storage.get(rookFrom);
+        if (king == null || rook == null) {
+            throw new IllegalStateException("Castling needs a king and a rook");
+        }
+        undo.push(kingFrom, kingTo, rookFrom, rookTo, UndoStack.CASTLING, king, null, rook);
+        put(kingFrom, null);
+        put(rookFrom, null);
+        put(kingTo, king.withMoved());
+        put(rookTo, rook.withMoved());
+    }
+
+    /**
+     * Reverts the most recent {@link #makeMove} or {@link #makeCastling}.
+     *
+     * @throws IllegalStateException if there is nothing to undo
+     */
+    public void unmakeMove() {
+        undo.pop();
+        if ((undo.flags() & UndoStack.CASTLING) != 0) {
+            put(undo.to(), null);
+            put(undo.rookTo(), null);
+            put(undo.from(), undo.moved());
+            put(undo.rookFrom(), undo.rook());
+        } else {
+            put(undo.from(), undo.moved());
+            put(undo.to(), undo.captured());
+        }
+        undo.release();
+    }
+
+    /**
+     * Puts {@code piece} on the square without touching the key, attack map or
+     * undo history; for replacing a whole position, followed by {@link #reindex()}.
+     */
+    void place(int square, Piece piece) {
+        storage.set(square, piece);
+    }
+
+    /**
+     * Rebuilds the key and attack map from the squares in one pass and forgets
+     * every move that could be undone, after a series of {@link #place} calls.
+     */
+    void reindex() {
+        undo.clear();
+        attacks.rebuild(storage);
+        zobristKey = Zobrist.compute(this);
+    }
+
+    /**
+     * Number of moves that can currently be undone.
+     */
+    public int undoDepth() {
+        return undo.size();
+    }
+
+    /**
+     * Returns the index of the first square at or after {@code fromIndex} occupied
+     * by the given color, or -1 if there is none. Lets callers visit only occupied
+     * squares instead of scanning the whole board.
+     */
+    public int nextOccupied(Color color, int fromIndex) {
+        return storage.nextOccupied(color, fromIndex);
+    }
+
+    /**
+     * Square index of the king of the given color, or -1 if there is none.
+     */
+    public int kingSquare(Color color) {
+        return storage.kingSquare(color);
+    }
+
+    /**
+     * Returns the first occupied square at most {@code range} steps from
+     * {@code square} along {@link MoveTables#DIRECTIONS}{@code [direction]}, or -1
+     * if the ray is empty that far. The mailbox layout walks it with a fixed
+     * offset and no bounds checks.
+     */
+    public int firstOccupied(int square, int direction, int range) {
+        return storage.firstOccupied(square, direction, range);
+    }
+
+    public Optional<Position> findKing(Color color) {
+        int square = storage.kingSquare(color);
+        return square < 0 ? Optional.empty() : Optional.of(Position.fromIndex(square));
+    }
+
+    /**
+     * Copies the pieces; the copy starts with an empty undo history.
+     */
+    public Board copy() {
+        return new Board(storage.copy(), attacks.copy(), zobristKey);
     }
 
     public static Board initialSetup() {
-        Board board = new Board();
+        return initialSetup(BoardLayout.BITBOARD);
+    }
+
+    public static Board initialSetup(BoardLayout layout) {
+        Board board = new Board(layout);
         setupSide(board, Color.WHITE);
         setupSide(board, Color.BLACK);
         return board;
@@ -47,9 +242,8 @@ public class Board {
                 PieceType.ROOK
         );
         for (int col = 1; col <= Position.BOARD_SIZE; col++) {
-            board.set(new Position(homeRow, col), new Piece(backRank.get(col - 1), color, false));
-            board.set(new Position(pawnRow, col), new Piece(PieceType.PAWN, color, false));
+            board.set(Position.of(homeRow, col), Piece.of(backRank.get(col - 1), color, false));
+            board.set(Position.of(pawnRow, col), Piece.of(PieceType.PAWN, color, false));
         }
     }
 }
-
@@ -0,0 +1,30 @@
+package com.example.chess.model;
+
+/**
+ * Selects how a {@link Board} stores its pieces internally.
+ */
+public enum BoardLayout {
+    /**
+     * Plain 10x10 {@code Piece} grid; every occupancy query scans squares.
+     */
+    ARRAY,
+
+    /**
+     * One 100-square bitboard per color and piece type, split across two longs.
+     */
+    BITBOARD,
+
+    /**
+     * Packed byte per square in a 16x16 array padded with off-board sentinels;
+     * ray walks step by a fixed offset with no bounds checks.
+     */
+    MAILBOX;
+
+    BoardStorage newStorage() {
+        return switch (this) {
+            case ARRAY -> new ArrayBoardStorage();
+            case BITBOARD -> new BitboardStorage();
+            case MAILBOX -> new MailboxStorage();
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.chess.model;
+
+/**
+ * Internal piece storage behind {@link Board}. Squares are addressed by
+ * {@link Position#index()} (0..99, row-major from A1).
+ */
+interface BoardStorage {
+
+    Piece get(int square);
+
+    void set(int square, Piece piece);
+
+    /**
+     * Returns the first square at or after {@code fromSquare} holding a piece of
+     * the given color, or -1 if there is none.
+     */
+    int nextOccupied(Color color, int fromSquare);
+
+    /**
+     * Returns the square of the given color's king, or -1 if it is missing.
+     */
+    int kingSquare(Color color);
+
+    /**
+     * Returns the first occupied square at most {@code range} steps from
+     * {@code square} along {@link MoveTables#DIRECTIONS}{@code [direction]}, or -1
+     * if there is none before the range or the board edge runs out.
+     */
+    default int firstOccupied(int square, int direction, int range) {
+        int[] ray = MoveTables.RAYS[square][direction];
+        int limit = Math.min(range, ray.length);
+        for (int i = 0; i < limit; i++) {
+            if (get(ray[i]) != null) {
+                return ray[i];
+            }
+        }
+        return -1;
+    }
+
+    BoardStorage copy();
+
+    BoardLayout layout();
+}
@@ -0,0 +1,143 @@
+package com.example.chess.model;
+
+import java.util.Arrays;
+
+/**
+ * Padded one-dimensional mailbox: the 10x10 board sits in the middle of a
+ * 16x16 byte array whose border cells hold an off-board sentinel.
+ * <p>
+ * The border is three cells wide, so a step or leap of any piece of the
+ * variant (knights jump 3+1) from an on-board cell still lands inside the
+ * array. A ray walk therefore adds the direction's cell offset blindly until it
+ * reads a non-empty cell, and only then tells a blocker from the sentinel, with
+ * no per-step range check.
+ * <p>
+ * Each cell is one packed byte: 0 for empty, -1 for off-board, otherwise a code
+ * for type, color and moved flag that maps back to a shared {@link Piece}.
+ */
+final class MailboxStorage implements BoardStorage {
+    private static final int PADDING = 3;
+    private static final int WIDTH = Position.BOARD_SIZE + 2 * PADDING;
+    private static final byte EMPTY = 0;
+    private static final byte OFF_BOARD = -1;
+
+    private static final byte[] TEMPLATE = new byte[WIDTH * WIDTH];
+    private static final int[] CELL = new int[Position.SQUARE_COUNT];
+    private static final int[] SQUARE = new int[WIDTH * WIDTH];
+    /**
+     * Cell offset per {@link MoveTables#DIRECTIONS} entry.
+     */
+    private static final int[] STEP = new int[MoveTables.DIRECTION_COUNT];
+    /**
+     * Piece per code; entry 0 (empty) is {@code null}.
+     */
+    private static final Piece[] PIECES = new Piece[1 + PieceType.values().length * 4];
+
+    static {
+        Arrays.fill(TEMPLATE, OFF_BOARD);
+        Arrays.fill(SQUARE, -1);
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            int cell = (square / Position.BOARD_SIZE + PADDING) * WIDTH + square % Position.BOARD_SIZE + PADDING;
+            CELL[square] = cell;
+            SQUARE[cell] = square;
+            TEMPLATE[cell] = EMPTY;
+        }
+        for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+            STEP[dir] = MoveTables.DIRECTIONS[dir][0] * WIDTH + MoveTables.DIRECTIONS[dir][1];
+        }
+        for (PieceType type : PieceType.values()) {
+            for (Color color : Color.values()) {
+                PIECES[code(type, color, false)] = Piece.of(type, color, false);
+                PIECES[code(type, color, true)] = Piece.of(type, color, true);
+            }
+        }
+    }
+
+    private final byte[] cells = TEMPLATE.clone();
+    // lowest king square per color, -1 if none; rescanned only when that king leaves
+    private final int[] kings = {-1, -1};
+
+    private static int code(PieceType type, Color color, boolean hasMoved) {
+        return 1 + (type.ordinal() * 2 + color.ordinal()) * 2 + (hasMoved ? 1 : 0);
+    }
+
+    private static int colorOf(int code) {
+        return ((code - 1) >> 1) & 1;
+    }
+
+    @Override
+    public Piece get(int square) {
+        return PIECES[cells[CELL[square]]];
+    }
+
+    @Override
+    public void set(int square, Piece piece) {
+        int cell = CELL[square];
+        Piece previous = PIECES[cells[cell]];
+        cells[cell] = piece == null ? EMPTY : (byte) code(piece.type(), piece.color(), piece.hasMoved());
+        if (previous != null && previous.type() == PieceType.KING && kings[previous.color().ordinal()] == square) {
+            kings[previous.color().ordinal()] = scanKing(previous.color());
+        }
+        if (piece != null && piece.type() == PieceType.KING) {
+            int c = piece.color().ordinal();
+            if (kings[c] < 0 || square < kings[c]) {
+                kings[c] = square;
+            }
+        }
+    }
+
+    @Override
+    public int nextOccupied(Color color, int fromSquare) {
+        int c = color.ordinal();
+        for (int square = fromSquare; square < Position.SQUARE_COUNT; square++) {
+            int code = cells[CELL[square]];
+            if (code != EMPTY && colorOf(code) == c) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int kingSquare(Color color) {
+        return kings[color.ordinal()];
+    }
+
+    private int scanKing(Color color) {
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Piece piece = get(square);
+            if (piece != null && piece.type() == PieceType.KING && piece.color() == color) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int firstOccupied(int square, int direction, int range) {
+        int step = STEP[direction];
+        int cell = CELL[square];
+        for (int i = 0; i < range; i++) {
+            cell += step;
+            int code = cells[cell];
+            if (code != EMPTY) {
+                return code == OFF_BOARD ? -1 : SQUARE[cell];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public BoardStorage copy() {
+        MailboxStorage copy = new MailboxStorage();
+        System.arraycopy(cells, 0, copy.cells, 0, cells.length);
+        copy.kings[0] = kings[0];
+        copy.kings[1] = kings[1];
+        return copy;
+    }
+
+    @Override
+    public BoardLayout layout() {
+        return BoardLayout.MAILBOX;
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.chess.model;
+
+import java.util.Locale;
+
+/**
+ * Hand-written parser for move text such as {@code A2 A3}, {@code a2-a3},
+ * {@code A2 to A3} or {@code J9-J10}, over a {@link CharSequence} or ASCII
+ * bytes, for bulk ingestion where a parse must not allocate.
+ * <p>
+ * Two squares, file {@code A}-{@code J} in either case and rank {@code 1}-{@code 10},
+ * separated by any mix of whitespace, {@code -} and {@code to}; whitespace
+ * around the move is ignored. A result of zero or more is the move in
+ * {@link PackedMove#squares} form, {@code from << 7 | to}, ready for
+ * {@link PackedMove#from}, {@link PackedMove#to} and {@link PackedMove#toMove}.
+ * A negative result is an error: {@link #error} gives its kind and
+ * {@link #errorOffset} the index of the offending character, so bad input
+ * costs no exception either.
+ */
+public final class MoveParser {
+    /**
+     * Nothing but whitespace.
+     */
+    public static final int EMPTY = 1;
+    /**
+     * A file outside {@code A}-{@code J}, or no square where one was expected.
+     */
+    public static final int BAD_FILE = 2;
+    /**
+     * A missing rank, one outside 1-10, or one with a leading zero.
+     */
+    public static final int BAD_RANK = 3;
+    /**
+     * No whitespace, {@code -} or {@code to} between the squares.
+     */
+    public static final int BAD_SEPARATOR = 4;
+    /**
+     * Something other than whitespace after the second square.
+     */
+    public static final int TRAILING_TEXT = 5;
+
+    private static final int KIND_BITS = 3;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final int SQUARE_BITS = 7;
+    // rank digits read before giving up; enough to reject any long number without overflow
+    private static final int MAX_RANK_DIGITS = 3;
+
+    private MoveParser() {
+    }
+
+    public static int parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses {@code text} from {@code start} (inclusive) to {@code end} (exclusive);
+     * error offsets are indexes into {@code text}.
+     */
+    public static int parse(CharSequence text, int start, int end) {
+        return parseMove(text, start, end);
+    }
+
+    /**
+     * Parses {@code length} ASCII bytes from {@code offset}, such as a line in
+     * a read buffer; error offsets are indexes into {@code bytes}.
+     */
+    public static int parse(byte[] bytes, int offset, int length) {
+        return parseMove(bytes, offset, offset + length);
+    }
+
+    /**
+     * Parses a single square such as {@code E4} or {@code j10}, whitespace
+     * around it ignored.
+     *
+     * @return the square index, or a negative error
+     */
+    public static int parseSquare(CharSequence text) {
+        int end = text.length();
+        int i = skipWhitespace(text, 0, end);
+        if (i == end) {
+            return fail(EMPTY, i);
+        }
+        int square = square(text, i, end);
+        if (square < 0) {
+            return square;
+        }
+        i = skipWhitespace(text, i + squareLength(square), end);
+        return i == end ? square : fail(TRAILING_TEXT, i);
+    }
+
+    public static boolean isError(int result) {
+        return result < 0;
+    }
+
+    /**
+     * The kind of a negative result, one of the constants of this class.
+     */
+    public static int error(int result) {
+        return -result & KIND_MASK;
+    }
+
+    /**
+     * Index of the character a negative result points at.
+     */
+    public static int errorOffset(int result) {
+        return -result >>> KIND_BITS;
+    }
+
+    /**
+     * A message for a negative result's kind, without its offset; allocates,
+     * so meant for reporting.
+     */
+    public static String describe(int result) {
+        return switch (error(result)) {
+            case EMPTY -> "Empty move";
+            case BAD_FILE -> "Expected a square with file A-J";
+            case BAD_RANK -> "Rank must be 1-10";
+            case BAD_SEPARATOR -> "Use notation like A2 A3 or A2-A3";
+            case TRAILING_TEXT -> "Unexpected text after the move";
+            default -> "Not a parse error: " + result;
+        };
+    }
+
+    /**
+     * The message a player sees for a negative result of parsing {@code text}:
+     * {@code Invalid notation: X} naming the bad square, or how moves are
+     * written when the squares themselves are fine or missing.
+     */
+    public static String describe(int result, CharSequence text) {
+        int kind = error(result);
+        if (kind == EMPTY) {
+            return "Empty move";
+        }
+        // a bad rank points past its file, and trailing text only spoils a square it touches
+        int offset = kind == BAD_RANK ? errorOffset(result) - 1 : errorOffset(result);
+        boolean inWord = offset < text.length() && !isDelimiter(text.charAt(offset))
+                && (kind != TRAILING_TEXT || offset > 0 && !isDelimiter(text.charAt(offset - 1)));
+        if (kind == BAD_SEPARATOR || !inWord) {
+            return "Use notation like A2 A3 or A2-A3";
+        }
+        int from = offset;
+        while (from > 0 && !isDelimiter(text.charAt(from - 1))) {
+            from--;
+        }
+        int to = offset;
+        while (to < text.length() && !isDelimiter(text.charAt(to))) {
+            to++;
+        }
+        return "Invalid notation: " + text.subSequence(from, to).toString().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isDelimiter(int c) {
+        return c == '-' || isWhitespace(c);
+    }
+
+    // The scanners come in a CharSequence and a byte[] form with the same
+    // logic, so that each reads its source directly and nothing is wrapped.
+
+    private static int parseMove(CharSequence source, int start, int end) {
+        int i = skipWhitespace(source, start, end);
+        if (i == end) {
+            return fail(EMPTY, i);
+        }
+        int from = square(source, i, end);
+        if (from < 0) {
+            return from;
+        }
+        i += squareLength(from);
+        int separator = i;
+        while (i < end) {
+            int c = source.charAt(i);
+            if (c == '-' || isWhitespace(c)) {
+                i++;
+            } else if ((c == 't' || c == 'T') && i + 1 < end && (source.charAt(i + 1) | 0x20) == 'o') {
+                i += 2;
+            } else {
+                break;
+            }
+        }
+        int gap = checkSeparator(separator, i, end);
+        if (gap < 0) {
+            return gap;
+        }
+        int to = square(source, i, end);
+        if (to < 0) {
+            return to;
+        }
+        i = skipWhitespace(source, i + squareLength(to), end);
+        return i == end ? from << SQUARE_BITS | to : fail(TRAILING_TEXT, i);
+    }
+
+    private static int parseMove(byte[] source, int start, int end) {
+        int i = skipWhitespace(source, start, end);
+        if (i == end) {
+            return fail(EMPTY, i);
+        }
+        int from = square(source, i, end);
+        if (from < 0) {
+            return from;
+        }
+        i += squareLength(from);
+        int separator = i;
+        while (i < end) {
+            int c = source[i] & 0xFF;
+            if (c == '-' || isWhitespace(c)) {
+                i++;
+            } else if ((c == 't' || c == 'T') && i + 1 < end && (source[i + 1] | 0x20) == 'o') {
+                i += 2;
+            } else {
+                break;
+            }
+        }
+        int gap = checkSeparator(separator, i, end);
+        if (gap < 0) {
+            return gap;
+        }
+        int to = square(source, i, end);
+        if (to < 0) {
+            return to;
+        }
+        i = skipWhitespace(source, i + squareLength(to), end);
+        return i == end ? from << SQUARE_BITS | to : fail(TRAILING_TEXT, i);
+    }
+
+    /**
+     * Zero if a separator ran from {@code start} to {@code i} and a second
+     * square may follow, otherwise the error.
+     */
+    private static int checkSeparator(int start, int i, int end) {
+        if (i == start) {
+            return fail(i == end ? BAD_FILE : BAD_SEPARATOR, i);
+        }
+        return i == end ? fail(BAD_FILE, i) : 0;
+    }
+
+    /**
+     * The square starting at {@code i}, or a negative error.
+     */
+    private static int square(CharSequence source, int i, int end) {
+        int file = (source.charAt(i) | 0x20) - 'a';
+        if (file < 0 || file >= Position.BOARD_SIZE) {
+            return fail(BAD_FILE, i);
+        }
+        int rank = 0;
+        int digits = 0;
+        int j = i + 1;
+        while (j < end && digits < MAX_RANK_DIGITS) {
+            int digit = source.charAt(j) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            rank = rank * 10 + digit;
+            digits++;
+            j++;
+        }
+        boolean moreDigits = j < end && source.charAt(j) >= '0' && source.charAt(j) <= '9';
+        return square(file, rank, digits, digits > 0 && source.charAt(i + 1) == '0', moreDigits, i);
+    }
+
+    private static int square(byte[] source, int i, int end) {
+        int file = (source[i] | 0x20) - 'a';
+        if (file < 0 || file >= Position.BOARD_SIZE) {
+            return fail(BAD_FILE, i);
+        }
+        int rank = 0;
+        int digits = 0;
+        int j = i + 1;
+        while (j < end && digits < MAX_RANK_DIGITS) {
+            int digit = source[j] - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            rank = rank * 10 + digit;
+            digits++;
+            j++;
+        }
+        boolean moreDigits = j < end && source[j] >= '0' && source[j] <= '9';
+        return square(file, rank, digits, digits > 0 && source[i + 1] == '0', moreDigits, i);
+    }
+
+    private static int square(int file, int rank, int digits, boolean leadingZero, boolean moreDigits, int i) {
+        if (digits == 0 || leadingZero || rank > Position.BOARD_SIZE || moreDigits) {
+            return fail(BAD_RANK, i + 1);
+        }
+        return (rank - 1) * Position.BOARD_SIZE + file;
+    }
+
+    /**
+     * Characters in the text of {@code square}: file plus one or two rank digits.
+     */
+    private static int squareLength(int square) {
+        return square >= (Position.BOARD_SIZE - 1) * Position.BOARD_SIZE ? 3 : 2;
+    }
+
+    private static int skipWhitespace(CharSequence source, int i, int end) {
+        while (i < end && isWhitespace(source.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(byte[] source, int i, int end) {
+        while (i < end && isWhitespace(source[i] & 0xFF)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
+    }
+
+    private static int fail(int kind, int offset) {
+        return -(offset << KIND_BITS | kind);
+    }
+}
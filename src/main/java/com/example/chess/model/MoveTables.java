@@ -0,0 +1,154 @@
+package com.example.chess.model;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed per-square movement tables for the 10x10 variant.
+ * <p>
+ * All squares are {@link Position#index()} values. Step and leap tables list every
+ * on-board target; ray tables list the squares in one direction up to the board
+ * edge, nearest first, so sliders only need to apply their distance cap and stop
+ * at the first blocker.
+ */
+public final class MoveTables {
+    /**
+     * Ray directions as (row, column) steps: four orthogonal, then four diagonal.
+     */
+    public static final int[][] DIRECTIONS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+    public static final int FIRST_ORTHOGONAL = 0;
+    public static final int FIRST_DIAGONAL = 4;
+    public static final int DIRECTION_COUNT = DIRECTIONS.length;
+    /**
+     * Index of the reverse of each direction.
+     */
+    public static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+
+    public static final int BISHOP_RANGE = 6;
+    public static final int QUEEN_RANGE = 10;
+    public static final int ROOK_RANGE = Position.BOARD_SIZE;
+
+    private static final int[][] KING_DELTAS = {
+            {1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}
+    };
+    private static final int[][] KNIGHT_DELTAS = {
+            {3, 1}, {3, -1}, {-3, 1}, {-3, -1}, {1, 3}, {1, -3}, {-1, 3}, {-1, -3}
+    };
+
+    /**
+     * King and Lover single steps.
+     */
+    public static final int[][] KING_STEPS = new int[Position.SQUARE_COUNT][];
+    /**
+     * Knight 3+1 leaps.
+     */
+    public static final int[][] KNIGHT_LEAPS = new int[Position.SQUARE_COUNT][];
+    /**
+     * Single pawn push per color ordinal and square, or -1 on the last rank.
+     */
+    public static final int[][] PAWN_PUSHES = new int[2][Position.SQUARE_COUNT];
+    /**
+     * Double pawn push from the start rank per color ordinal and square, or -1.
+     */
+    public static final int[][] PAWN_DOUBLE_PUSHES = new int[2][Position.SQUARE_COUNT];
+    /**
+     * Diagonal pawn capture targets per color ordinal and square.
+     */
+    public static final int[][][] PAWN_CAPTURES = new int[2][Position.SQUARE_COUNT][];
+    /**
+     * Squares along each direction per square, indexed {@code [square][direction]}.
+     */
+    public static final int[][][] RAYS = new int[Position.SQUARE_COUNT][DIRECTION_COUNT][];
+
+    static {
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            int row = square / Position.BOARD_SIZE;
+            int col = square % Position.BOARD_SIZE;
+            KING_STEPS[square] = targets(row, col, KING_DELTAS);
+            KNIGHT_LEAPS[square] = targets(row, col, KNIGHT_DELTAS);
+            for (Color color : Color.values()) {
+                int c = color.ordinal();
+                int forward = color == Color.WHITE ? 1 : -1;
+                int startRow = color == Color.WHITE ? 1 : Position.BOARD_SIZE - 2;
+                PAWN_PUSHES[c][square] = target(row + forward, col);
+                PAWN_DOUBLE_PUSHES[c][square] = row == startRow ? target(row + 2 * forward, col) : -1;
+                PAWN_CAPTURES[c][square] = targets(row, col, new int[][]{{forward, -1}, {forward, 1}});
+            }
+            for (int dir = 0; dir < DIRECTION_COUNT; dir++) {
+                RAYS[square][dir] = ray(row, col, DIRECTIONS[dir][0], DIRECTIONS[dir][1]);
+            }
+        }
+    }
+
+    private MoveTables() {
+    }
+
+    /**
+     * Maximum number of squares a slider may travel, or 0 for non-sliding pieces.
+     */
+    public static int range(PieceType type) {
+        return switch (type) {
+            case QUEEN -> QUEEN_RANGE;
+            case ROOK -> ROOK_RANGE;
+            case BISHOP -> BISHOP_RANGE;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Whether a slider of the given type moves along the given direction.
+     */
+    public static boolean slidesAlong(PieceType type, int direction) {
+        return switch (type) {
+            case QUEEN -> true;
+            case ROOK -> direction < FIRST_DIAGONAL;
+            case BISHOP -> direction >= FIRST_DIAGONAL;
+            default -> false;
+        };
+    }
+
+    /**
+     * Index into {@link #DIRECTIONS} of the unit step ({@code -1..1} each), or -1
+     * for the null step.
+     */
+    public static int direction(int rowStep, int colStep) {
+        for (int dir = 0; dir < DIRECTION_COUNT; dir++) {
+            if (DIRECTIONS[dir][0] == rowStep && DIRECTIONS[dir][1] == colStep) {
+                return dir;
+            }
+        }
+        return -1;
+    }
+
+    private static int target(int row, int col) {
+        if (row < 0 || row >= Position.BOARD_SIZE || col < 0 || col >= Position.BOARD_SIZE) {
+            return -1;
+        }
+        return row * Position.BOARD_SIZE + col;
+    }
+
+    private static int[] targets(int row, int col, int[][] deltas) {
+        int[] buffer = new int[deltas.length];
+        int count = 0;
+        for (int[] delta : deltas) {
+            int target = target(row + delta[0], col + delta[1]);
+            if (target >= 0) {
+                buffer[count++] = target;
+            }
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    private static int[] ray(int row, int col, int rowStep, int colStep) {
+        int[] buffer = new int[Position.BOARD_SIZE];
+        int count = 0;
+        int target = target(row + rowStep, col + colStep);
+        while (target >= 0) {
+            buffer[count++] = target;
+            target = target(row + rowStep * (count + 1), col + colStep * (count + 1));
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+}
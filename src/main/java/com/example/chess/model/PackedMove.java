@@ -0,0 +1,125 @@
+package com.example.chess.model;
+
+/**
+ * Moves packed into a single {@code int}, so move lists are primitive arrays.
+ * <p>
+ * Layout (low to high bits): to square (7), from square (7), capture, castle and
+ * promotion flags (1 each), moved piece type (3), captured piece type plus one
+ * (3, 0 for none). The low 14 bits, {@code from << 7 | to}, are the same as
+ * {@code TranspositionTable} move encoding, see {@link #squares}. Since no move
+ * starts and ends on the same square, {@link #NONE} (0) is never a real move.
+ * <p>
+ * {@link #of(Board, Move)} and {@link #toMove} convert at the public boundary,
+ * where {@link Move} records are still used.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 14;
+    public static final int CASTLE = 1 << 15;
+    public static final int PROMOTION = 1 << 16;
+
+    private static final int SQUARE_BITS = 7;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    private static final int SQUARES_MASK = (1 << 2 * SQUARE_BITS) - 1;
+    private static final int MOVED_SHIFT = 17;
+    private static final int CAPTURED_SHIFT = 20;
+    private static final int TYPE_MASK = 0x7;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a move of {@code moved} from {@code from} to {@code to}, taking
+     * {@code captured} ({@code null} if the target is empty). Nothing is
+     * derived from the squares: {@code flags} carries {@link #CASTLE} and
+     * {@link #PROMOTION}, which the caller sets when a pawn reaches its last rank.
+     */
+    public static int encode(int from, int to, PieceType moved, PieceType captured, int flags) {
+        int move = from << SQUARE_BITS | to | flags | moved.ordinal() << MOVED_SHIFT;
+        if (captured != null) {
+            move |= CAPTURE | (captured.ordinal() + 1) << CAPTURED_SHIFT;
+        }
+        return move;
+    }
+
+    /**
+     * Packs a move for the piece on {@code from} in {@code board}, before it is played.
+     */
+    public static int encode(Board board, int from, int to) {
+        Piece piece = board.pieceAt(from);
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece at square " + from);
+        }
+        Piece target = board.pieceAt(to);
+        int flags = 0;
+        if (piece.type() == PieceType.PAWN && isLastRank(piece.color(), to)) {
+            flags |= PROMOTION;
+        }
+        if (piece.type() == PieceType.KING && !piece.hasMoved() && from - to == 2
+                && from / Position.BOARD_SIZE == to / Position.BOARD_SIZE) {
+            flags |= CASTLE;
+        }
+        return encode(from, to, piece.type(), target == null ? null : target.type(), flags);
+    }
+
+    /**
+     * Converts a {@link Move} on {@code board}, before it is played.
+     */
+    public static int of(Board board, Move move) {
+        return encode(board, move.from().index(), move.to().index());
+    }
+
+    public static Move toMove(int move) {
+        return new Move(Position.fromIndex(from(move)), Position.fromIndex(to(move)));
+    }
+
+    public static int from(int move) {
+        return move >>> SQUARE_BITS & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * The from and to squares alone, as {@code from << 7 | to}: what identifies
+     * a move in a given position.
+     */
+    public static int squares(int move) {
+        return move & SQUARES_MASK;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    public static PieceType moved(int move) {
+        return TYPES[move >>> MOVED_SHIFT & TYPE_MASK];
+    }
+
+    /**
+     * Type of the captured piece, or {@code null} for a non-capture.
+     */
+    public static PieceType captured(int move) {
+        int code = move >>> CAPTURED_SHIFT & TYPE_MASK;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    /**
+     * Whether a pawn of the given color promotes on {@code square}.
+     */
+    public static boolean isLastRank(Color color, int square) {
+        int row = square / Position.BOARD_SIZE;
+        return color == Color.WHITE ? row == Position.BOARD_SIZE - 1 : row == 0;
+    }
+}
@@ -1,9 +1,34 @@
 package com.example.chess.model;
 
+/**
+ * A piece with its moved flag. The 28 possible values are shared instances
+ * returned by {@link #of} and {@link #withMoved}, so moving pieces never
+ * allocates; equality stays by value.
+ */
 public record Piece(PieceType type, Color color, boolean hasMoved) {
+    private static final Piece[] VALUES = new Piece[PieceType.values().length * 4];
+
+    static {
+        for (PieceType type : PieceType.values()) {
+            for (Color color : Color.values()) {
+                VALUES[slot(type, color, false)] = new Piece(type, color, false);
+                VALUES[slot(type, color, true)] = new Piece(type, color, true);
+            }
+        }
+    }
+
+    /**
+     * Returns the shared instance for the given type, color and moved flag.
+     */
+    public static Piece of(PieceType type, Color color, boolean hasMoved) {
+        return VALUES[slot(type, color, hasMoved)];
+    }
 
     public Piece withMoved() {
-        return hasMoved ? this : new Piece(type, color, true);
+        return hasMoved ? this : of(type, color, true);
     }
-}
 
+    private static int slot(PieceType type, Color color, boolean hasMoved) {
+        return (type.ordinal() * 2 + color.ordinal()) * 2 + (hasMoved ? 1 : 0);
+    }
+}
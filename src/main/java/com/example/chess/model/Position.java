@@ -1,10 +1,24 @@
 package com.example.chess.model;
 
-import java.util.Locale;
 import java.util.Objects;
 
+/**
+ * A square on the board. Every square has one shared instance, returned by
+ * {@link #of}, {@link #fromIndex}, {@link #fromAlgebraic} and {@link #offset}, so
+ * looking positions up never allocates. The constructor stays public and equality
+ * is by value, so positions built with {@code new} still compare equal to them.
+ */
 public record Position(int row, int col) {
     public static final int BOARD_SIZE = 10;
+    public static final int SQUARE_COUNT = BOARD_SIZE * BOARD_SIZE;
+
+    private static final Position[] SQUARES = new Position[SQUARE_COUNT];
+
+    static {
+        for (int index = 0; index < SQUARE_COUNT; index++) {
+            SQUARES[index] = new Position(index / BOARD_SIZE + 1, index % BOARD_SIZE + 1);
+        }
+    }
 
     public Position {
         if (row < 1 || row > BOARD_SIZE || col < 1 || col > BOARD_SIZE) {
@@ -12,21 +26,40 @@ public record Position(int row, int col) {
         }
     }
 
+    /**
+     * Returns the shared instance for the given row and column, both 1-based.
+     */
+    public static Position of(int row, int col) {
+        if (row < 1 || row > BOARD_SIZE || col < 1 || col > BOARD_SIZE) {
+            throw new IllegalArgumentException("Position out of bounds: " + row + "," + col);
+        }
+        return SQUARES[(row - 1) * BOARD_SIZE + (col - 1)];
+    }
+
     public static Position fromAlgebraic(String notation) {
         Objects.requireNonNull(notation, "notation");
-        var trimmed = notation.trim().toUpperCase(Locale.ROOT);
-        if (trimmed.length() < 2 || trimmed.length() > 3) {
+        int square = MoveParser.parseSquare(notation);
+        if (MoveParser.isError(square)) {
             throw new IllegalArgumentException("Invalid notation: " + notation);
         }
-        char fileChar = trimmed.charAt(0);
-        int col = fileChar - 'A' + 1;
-        int row;
-        try {
-            row = Integer.parseInt(trimmed.substring(1));
-        } catch (NumberFormatException ex) {
-            throw new IllegalArgumentException("Invalid notation: " + notation, ex);
+        return SQUARES[square];
+    }
+
+    /**
+     * Returns the position for a square index: 0 is A1, 9 is J1, 99 is J10.
+     */
+    public static Position fromIndex(int index) {
+        if (index < 0 || index >= SQUARE_COUNT) {
+            throw new IllegalArgumentException("Square index out of bounds: " + index);
         }
-        return new Position(row, col);
+        return SQUARES[index];
+    }
+
+    /**
+     * Returns the row-major square index of this position (see {@link #fromIndex}).
+     */
+    public int index() {
+        return (row - 1) * BOARD_SIZE + (col - 1);
     }
 
     public String toAlgebraic() {
@@ -40,7 +73,7 @@ public record Position(int row, int col) {
         if (newRow < 1 || newRow > BOARD_SIZE || newCol < 1 || newCol > BOARD_SIZE) {
             return null;
         }
-        return new Position(newRow, newCol);
+        return SQUARES[(newRow - 1) * BOARD_SIZE + (newCol - 1)];
     }
 }
 
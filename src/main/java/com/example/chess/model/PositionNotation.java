@@ -0,0 +1,245 @@
+package com.example.chess.model;
+
+/**
+ * FEN-style text form of a 10x10 position, for example the initial setup:
+ * <pre>
+ * lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w ABFIJabfij
+ * </pre>
+ * Three fields separated by single spaces:
+ * <ol>
+ * <li>Placement, rank 10 first and file A first within a rank, ranks separated
+ * by {@code /}. {@code K Q R B N P L} (L for the Lover) are White's pieces,
+ * lower case Black's, and a number from 1 to 10 counts empty squares.</li>
+ * <li>Side to move, {@code w} or {@code b}.</li>
+ * <li>Unmoved castling pieces, in the manner of Shredder-FEN: the file of every
+ * king, Lover and rook still on its home rank that has not moved, upper case
+ * for White, lower case for Black, or {@code -} for none. Other kings, Lovers
+ * and rooks have moved.</li>
+ * </ol>
+ * Moved flags of other pieces are not part of the notation; as in
+ * {@link PositionSnapshot}, pawns off their start rank come back moved and
+ * everything else unmoved.
+ * <p>
+ * Parsing reads the {@link CharSequence} in place and fills a caller's board,
+ * so a parser reused for many positions allocates nothing unless the text is
+ * invalid. One instance is not thread-safe; keep one per thread.
+ */
+public final class PositionNotation {
+    public static final String INITIAL = "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w ABFIJabfij";
+
+    private static final char[] LETTERS = new char[PieceType.values().length];
+
+    static {
+        LETTERS[PieceType.KING.ordinal()] = 'K';
+        LETTERS[PieceType.QUEEN.ordinal()] = 'Q';
+        LETTERS[PieceType.ROOK.ordinal()] = 'R';
+        LETTERS[PieceType.BISHOP.ordinal()] = 'B';
+        LETTERS[PieceType.KNIGHT.ordinal()] = 'N';
+        LETTERS[PieceType.PAWN.ordinal()] = 'P';
+        LETTERS[PieceType.LOVER.ordinal()] = 'L';
+    }
+
+    private final Piece[] squares = new Piece[Position.SQUARE_COUNT];
+
+    /**
+     * Parses {@code text} into {@code board}, replacing every square and
+     * dropping the board's undo history. Leading and trailing whitespace is
+     * ignored.
+     *
+     * @return the side to move
+     * @throws IllegalArgumentException if the text is not a valid position; the
+     *                                  board is then left as it was
+     */
+    public Color parse(CharSequence text, Board board) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int i = 0;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        i = parsePlacement(text, i, end);
+        i = expectSpace(text, i, end);
+        if (i == end) {
+            throw error("Missing side to move", text, i);
+        }
+        Color side = switch (text.charAt(i)) {
+            case 'w' -> Color.WHITE;
+            case 'b' -> Color.BLACK;
+            default -> throw error("Side to move must be w or b", text, i);
+        };
+        i = expectSpace(text, i + 1, end);
+        parseCastling(text, i, end);
+
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            board.place(square, squares[square]);
+        }
+        board.reindex();
+        return side;
+    }
+
+    /**
+     * Appends the notation of {@code board} with {@code sideToMove} to {@code out}.
+     */
+    public static void append(Board board, Color sideToMove, StringBuilder out) {
+        for (int rank = Position.BOARD_SIZE - 1; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < Position.BOARD_SIZE; file++) {
+                Piece piece = board.pieceAt(rank * Position.BOARD_SIZE + file);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append(empty);
+                    empty = 0;
+                }
+                char letter = LETTERS[piece.type().ordinal()];
+                out.append(piece.color() == Color.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                out.append(empty);
+            }
+            if (rank > 0) {
+                out.append('/');
+            }
+        }
+        out.append(' ').append(sideToMove == Color.WHITE ? 'w' : 'b').append(' ');
+        int length = out.length();
+        appendUnmoved(board, Color.WHITE, out);
+        appendUnmoved(board, Color.BLACK, out);
+        if (out.length() == length) {
+            out.append('-');
+        }
+    }
+
+    public static String format(Board board, Color sideToMove) {
+        StringBuilder out = new StringBuilder(96);
+        append(board, sideToMove, out);
+        return out.toString();
+    }
+
+    /**
+     * Fills {@link #squares}, castling pieces marked as moved until the third
+     * field says otherwise, and returns the index after the placement.
+     */
+    private int parsePlacement(CharSequence text, int i, int end) {
+        for (int rank = Position.BOARD_SIZE - 1; rank >= 0; rank--) {
+            int file = 0;
+            while (file < Position.BOARD_SIZE) {
+                if (i == end) {
+                    throw error("Rank " + (rank + 1) + " is short", text, i);
+                }
+                char c = text.charAt(i);
+                if (c >= '1' && c <= '9') {
+                    int empty = c - '0';
+                    i++;
+                    if (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                        empty = empty * 10 + text.charAt(i) - '0';
+                        i++;
+                    }
+                    if (file + empty > Position.BOARD_SIZE) {
+                        throw error("Rank " + (rank + 1) + " has more than 10 squares", text, i - 1);
+                    }
+                    for (int k = 0; k < empty; k++) {
+                        squares[rank * Position.BOARD_SIZE + file++] = null;
+                    }
+                    continue;
+                }
+                int square = rank * Position.BOARD_SIZE + file;
+                squares[square] = piece(c, square, text, i);
+                file++;
+                i++;
+            }
+            if (rank > 0) {
+                if (i == end || text.charAt(i) != '/') {
+                    throw error("Expected / after rank " + (rank + 1), text, i);
+                }
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static Piece piece(char c, int square, CharSequence text, int i) {
+        Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+        PieceType type = switch (Character.toUpperCase(c)) {
+            case 'K' -> PieceType.KING;
+            case 'Q' -> PieceType.QUEEN;
+            case 'R' -> PieceType.ROOK;
+            case 'B' -> PieceType.BISHOP;
+            case 'N' -> PieceType.KNIGHT;
+            case 'P' -> PieceType.PAWN;
+            case 'L' -> PieceType.LOVER;
+            default -> throw error("Unknown piece '" + c + "'", text, i);
+        };
+        boolean moved = switch (type) {
+            case KING, LOVER, ROOK -> true;
+            case PAWN -> square / Position.BOARD_SIZE != startRank(color);
+            default -> false;
+        };
+        return Piece.of(type, color, moved);
+    }
+
+    /**
+     * Marks the castling pieces named by the third field as unmoved.
+     */
+    private void parseCastling(CharSequence text, int i, int end) {
+        if (i == end) {
+            throw error("Missing castling field", text, i);
+        }
+        if (text.charAt(i) == '-' && i + 1 == end) {
+            return;
+        }
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            Color color = c >= 'A' && c <= 'J' ? Color.WHITE : c >= 'a' && c <= 'j' ? Color.BLACK : null;
+            if (color == null) {
+                throw error("Castling field must list files A-J or a-j, or be -", text, i);
+            }
+            int file = color == Color.WHITE ? c - 'A' : c - 'a';
+            int square = homeRank(color) * Position.BOARD_SIZE + file;
+            Piece piece = squares[square];
+            if (piece == null || piece.color() != color || !piece.hasMoved() || !isCastlingPiece(piece.type())) {
+                throw error("No castling piece on " + Position.fromIndex(square).toAlgebraic()
+                        + " or it is listed twice", text, i);
+            }
+            squares[square] = Piece.of(piece.type(), color, false);
+        }
+    }
+
+    private static void appendUnmoved(Board board, Color color, StringBuilder out) {
+        int home = homeRank(color) * Position.BOARD_SIZE;
+        char first = color == Color.WHITE ? 'A' : 'a';
+        for (int file = 0; file < Position.BOARD_SIZE; file++) {
+            Piece piece = board.pieceAt(home + file);
+            if (piece != null && piece.color() == color && !piece.hasMoved() && isCastlingPiece(piece.type())) {
+                out.append((char) (first + file));
+            }
+        }
+    }
+
+    private static int expectSpace(CharSequence text, int i, int end) {
+        if (i == end || text.charAt(i) != ' ') {
+            throw error("Expected a space", text, i);
+        }
+        return i + 1;
+    }
+
+    private static boolean isCastlingPiece(PieceType type) {
+        return type == PieceType.KING || type == PieceType.LOVER || type == PieceType.ROOK;
+    }
+
+    private static int homeRank(Color color) {
+        return color == Color.WHITE ? 0 : Position.BOARD_SIZE - 1;
+    }
+
+    private static int startRank(Color color) {
+        return color == Color.WHITE ? 1 : Position.BOARD_SIZE - 2;
+    }
+
+    private static IllegalArgumentException error(String message, CharSequence text, int index) {
+        return new IllegalArgumentException(message + " at index " + index + ": " + text);
+    }
+}
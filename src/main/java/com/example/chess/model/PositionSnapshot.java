@@ -0,0 +1,147 @@
+package com.example.chess.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size binary form of a position, for caches, the network and stored
+ * keys: {@value #BYTES} bytes whatever is on the board.
+ * <p>
+ * Layout: 50 bytes of 4-bit square codes, two squares per byte with the lower
+ * square in the low nibble (0 empty, otherwise {@code 1 + color * 7 + type}),
+ * then a 112-bit little-endian flag field. Bit 0 is set when Black is to move;
+ * after it comes one {@code hasMoved} bit per piece for which the flag matters,
+ * in square order: kings, Lovers and rooks, which decide castling, and pawns on
+ * their start rank. Even a board full of such pieces needs only 101 bits.
+ * <p>
+ * Other pieces come back from {@link #read} unmoved, except pawns off their
+ * start rank, which come back moved. Neither direction allocates; reading
+ * fills the squares first and rebuilds the board's key and attack map once.
+ */
+public final class PositionSnapshot {
+    public static final int BYTES = 64;
+
+    private static final int SQUARE_BYTES = Position.SQUARE_COUNT / 2;
+    private static final int TYPE_COUNT = PieceType.values().length;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private PositionSnapshot() {
+    }
+
+    /**
+     * Writes {@code board} with {@code sideToMove} at the buffer's position and
+     * advances it by {@value #BYTES}.
+     */
+    public static void write(Board board, Color sideToMove, ByteBuffer out) {
+        int base = out.position();
+        long low = sideToMove == Color.BLACK ? 1 : 0;
+        long high = 0;
+        int flag = 1;
+        for (int i = 0; i < SQUARE_BYTES; i++) {
+            int pair = 0;
+            for (int half = 0; half < 2; half++) {
+                int square = 2 * i + half;
+                Piece piece = board.pieceAt(square);
+                if (piece == null) {
+                    continue;
+                }
+                pair |= (1 + piece.color().ordinal() * TYPE_COUNT + piece.type().ordinal()) << 4 * half;
+                if (keepsMovedFlag(piece.type(), piece.color(), square)) {
+                    if (piece.hasMoved()) {
+                        if (flag < Long.SIZE) {
+                            low |= 1L << flag;
+                        } else {
+                            high |= 1L << (flag & Long.SIZE - 1);
+                        }
+                    }
+                    flag++;
+                }
+            }
+            out.put(base + i, (byte) pair);
+        }
+        writeFlags(out, base + SQUARE_BYTES, low, high);
+        out.position(base + BYTES);
+    }
+
+    /**
+     * Reads a snapshot at the buffer's position into {@code board}, advancing
+     * the buffer by {@value #BYTES}. Every square is overwritten and the board's
+     * undo history is dropped; a snapshot with a bad square code leaves the
+     * board as it was.
+     *
+     * @return the side to move
+     * @throws IllegalArgumentException if a square code is not a piece
+     */
+    public static Color read(ByteBuffer in, Board board) {
+        int base = in.position();
+        long low = readFlags(in, base + SQUARE_BYTES, Long.BYTES);
+        long high = readFlags(in, base + SQUARE_BYTES + Long.BYTES, BYTES - SQUARE_BYTES - Long.BYTES);
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            int code = code(in, base, square);
+            if (code > 2 * TYPE_COUNT) {
+                throw new IllegalArgumentException("Bad piece code " + code + " on square " + square);
+            }
+        }
+        int flag = 1;
+        for (int i = 0; i < SQUARE_BYTES; i++) {
+            int pair = Byte.toUnsignedInt(in.get(base + i));
+            for (int half = 0; half < 2; half++) {
+                int square = 2 * i + half;
+                int code = pair >>> 4 * half & 0xF;
+                if (code == 0) {
+                    board.place(square, null);
+                    continue;
+                }
+                Color color = code > TYPE_COUNT ? Color.BLACK : Color.WHITE;
+                PieceType type = TYPES[(code - 1) % TYPE_COUNT];
+                boolean moved;
+                if (keepsMovedFlag(type, color, square)) {
+                    long word = flag < Long.SIZE ? low : high;
+                    moved = (word >>> (flag & Long.SIZE - 1) & 1) != 0;
+                    flag++;
+                } else {
+                    moved = type == PieceType.PAWN;
+                }
+                board.place(square, Piece.of(type, color, moved));
+            }
+        }
+        board.reindex();
+        in.position(base + BYTES);
+        return (low & 1) != 0 ? Color.BLACK : Color.WHITE;
+    }
+
+    private static int code(ByteBuffer in, int base, int square) {
+        return Byte.toUnsignedInt(in.get(base + square / 2)) >>> 4 * (square % 2) & 0xF;
+    }
+
+    /**
+     * Whether a piece's {@code hasMoved} flag is part of the snapshot.
+     */
+    private static boolean keepsMovedFlag(PieceType type, Color color, int square) {
+        return switch (type) {
+            case KING, LOVER, ROOK -> true;
+            case PAWN -> square / Position.BOARD_SIZE == (color == Color.WHITE ? 1 : Position.BOARD_SIZE - 2);
+            default -> false;
+        };
+    }
+
+    /**
+     * The 112 flag bits, low word first, little-endian whatever the buffer's
+     * byte order.
+     */
+    private static void writeFlags(ByteBuffer out, int offset, long low, long high) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            out.put(offset + i, (byte) (low >>> 8 * i));
+        }
+        for (int i = 0; i < BYTES - SQUARE_BYTES - Long.BYTES; i++) {
+            out.put(offset + Long.BYTES + i, (byte) (high >>> 8 * i));
+        }
+    }
+
+    private static long readFlags(ByteBuffer in, int offset, int bytes) {
+        long flags = 0;
+        for (int i = 0; i < bytes; i++) {
+            flags |= (long) Byte.toUnsignedInt(in.get(offset + i)) << 8 * i;
+        }
+        return flags;
+    }
+}
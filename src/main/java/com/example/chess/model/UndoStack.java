@@ -0,0 +1,110 @@
+package com.example.chess.model;
+
+import java.util.Arrays;
+
+/**
+ * Compact undo records for {@link Board#makeMove} and {@link Board#makeCastling}.
+ * <p>
+ * Each record packs the four squares and its flags into one int and keeps the
+ * original pieces (which carry the prior {@code hasMoved} flags) in parallel
+ * arrays, so pushing a record never allocates once the stack has grown.
+ */
+final class UndoStack {
+    static final int NONE = 0x7F;
+    static final int PROMOTION = 1;
+    static final int CASTLING = 2;
+
+    private static final int SQUARE_BITS = 7;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    private int[] squares = new int[64];
+    private Piece[] moved = new Piece[64];
+    private Piece[] captured = new Piece[64];
+    private Piece[] rooks = new Piece[64];
+    private int size;
+
+    void push(int from, int to, int rookFrom, int rookTo, int flags, Piece movedPiece, Piece capturedPiece,
+            Piece rookPiece) {
+        if (size == squares.length) {
+            int capacity = size * 2;
+            squares = Arrays.copyOf(squares, capacity);
+            moved = Arrays.copyOf(moved, capacity);
+            captured = Arrays.copyOf(captured, capacity);
+            rooks = Arrays.copyOf(rooks, capacity);
+        }
+        squares[size] = from
+                | to << SQUARE_BITS
+                | rookFrom << 2 * SQUARE_BITS
+                | rookTo << 3 * SQUARE_BITS
+                | flags << 4 * SQUARE_BITS;
+        moved[size] = movedPiece;
+        captured[size] = capturedPiece;
+        rooks[size] = rookPiece;
+        size++;
+    }
+
+    /**
+     * Drops the top record; its fields stay readable through the accessors until the next push.
+     */
+    void pop() {
+        if (size == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int from() {
+        return squares[size] & SQUARE_MASK;
+    }
+
+    int to() {
+        return squares[size] >>> SQUARE_BITS & SQUARE_MASK;
+    }
+
+    int rookFrom() {
+        return squares[size] >>> 2 * SQUARE_BITS & SQUARE_MASK;
+    }
+
+    int rookTo() {
+        return squares[size] >>> 3 * SQUARE_BITS & SQUARE_MASK;
+    }
+
+    int flags() {
+        return squares[size] >>> 4 * SQUARE_BITS;
+    }
+
+    Piece moved() {
+        return moved[size];
+    }
+
+    Piece captured() {
+        return captured[size];
+    }
+
+    Piece rook() {
+        return rooks[size];
+    }
+
+    /**
+     * Drops every record.
+     */
+    void clear() {
+        Arrays.fill(moved, 0, size, null);
+        Arrays.fill(captured, 0, size, null);
+        Arrays.fill(rooks, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Clears piece references of the popped record so the stack does not pin captured pieces.
+     */
+    void release() {
+        moved[size] = null;
+        captured[size] = null;
+        rooks[size] = null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.chess.model;
+
+/**
+ * 64-bit Zobrist keys for 10x10 positions.
+ * <p>
+ * Keys come from a SplitMix64 sequence with a fixed seed, so every JVM derives
+ * the same table and position keys can be shared across processes and stored.
+ * Kings, rooks and Lovers that have not moved hash differently from moved ones
+ * because castling depends on it; for other pieces {@code hasMoved} is ignored.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x4D6F64756C343530L;
+    private static final int TYPE_COUNT = PieceType.values().length;
+
+    private static final long[] PIECE_KEYS = new long[2 * TYPE_COUNT * Position.SQUARE_COUNT];
+    private static final long[] UNMOVED_KEYS = new long[2 * TYPE_COUNT * Position.SQUARE_COUNT];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long state = SEED;
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            PIECE_KEYS[i] = mix(state);
+        }
+        for (int i = 0; i < UNMOVED_KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            UNMOVED_KEYS[i] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Key contribution of {@code piece} standing on {@code square}; 0 for an empty square.
+     */
+    public static long piece(Piece piece, int square) {
+        if (piece == null) {
+            return 0L;
+        }
+        int index = (piece.color().ordinal() * TYPE_COUNT + piece.type().ordinal()) * Position.SQUARE_COUNT + square;
+        long key = PIECE_KEYS[index];
+        if (!piece.hasMoved() && isCastlingPiece(piece.type())) {
+            key ^= UNMOVED_KEYS[index];
+        }
+        return key;
+    }
+
+    /**
+     * Key contribution of the side to move; White to move contributes 0.
+     */
+    public static long sideToMove(Color color) {
+        return color == Color.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    /**
+     * Computes the placement key of a board from scratch. {@link Board#zobristKey()}
+     * maintains the same value incrementally.
+     */
+    public static long compute(Board board) {
+        long key = 0L;
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            key ^= piece(board.pieceAt(square), square);
+        }
+        return key;
+    }
+
+    private static boolean isCastlingPiece(PieceType type) {
+        return type == PieceType.KING || type == PieceType.ROOK || type == PieceType.LOVER;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveResult;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.MoveParser;
+import com.example.chess.model.PackedMove;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Replays every game of a text game file against the current rules, in
+ * parallel, for re-checking whole archives after a rule change.
+ * <p>
+ * A game file holds one game per line, its moves from the initial setup
+ * separated by commas, each in any form {@link MoveParser} reads:
+ * <pre>
+ * E2 E4, E9 E7, F1-C4
+ * </pre>
+ * Blank lines and lines starting with {@code #} are skipped, and a trailing
+ * {@code \r} is ignored. {@link #appendGame} writes the format.
+ * <p>
+ * The file is split into chunks of a few MiB on a fork/join pool; a chunk
+ * owns the lines that start in it and reads them through its own mapped
+ * window, so a file of any size is never loaded as a whole. Each chunk plays
+ * its games on one {@link Game}, reset between games, and copies lines into
+ * one growing buffer. Every move goes through {@link Game#playMove(Move)}, so
+ * a verdict is exactly what a player typing the moves would have seen.
+ */
+public final class ArchiveValidator {
+    static final int DEFAULT_CHUNK_BYTES = 1 << 22;
+    // longest line read as a game; anything longer is rejected rather than buffered
+    static final int MAX_LINE_BYTES = 1 << 24;
+
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    public ArchiveValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ArchiveValidator(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_BYTES);
+    }
+
+    ArchiveValidator(ForkJoinPool pool, int chunkBytes) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Validates every game in {@code file}, counting them without reporting each.
+     */
+    public ValidationSummary validate(Path file) throws IOException {
+        return validate(List.of(file), verdict -> { });
+    }
+
+    /**
+     * Validates every game in {@code files}, passing each verdict to
+     * {@code verdicts} as soon as it is known. Verdicts arrive from the pool's
+     * threads, several at once and in no particular order, so
+     * {@code verdicts} must be thread-safe; {@link GameVerdict#offset()}
+     * tells where each game is.
+     */
+    public ValidationSummary validate(List<Path> files, Consumer<? super GameVerdict> verdicts) throws IOException {
+        Objects.requireNonNull(verdicts, "verdicts");
+        FileChannel[] channels = new FileChannel[files.size()];
+        try {
+            Chunk[] roots = new Chunk[files.size()];
+            for (int i = 0; i < channels.length; i++) {
+                channels[i] = FileChannel.open(files.get(i), StandardOpenOption.READ);
+                roots[i] = new Chunk(files.get(i), channels[i], channels[i].size(), 0, channels[i].size(), chunkBytes,
+                        verdicts);
+            }
+            Tally total = pool.invoke(new RecursiveTask<>() {
+                @Override
+                protected Tally compute() {
+                    invokeAll(roots);
+                    Tally tally = new Tally();
+                    for (Chunk root : roots) {
+                        tally.add(root.join());
+                    }
+                    return tally;
+                }
+            });
+            return total.summary();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends {@code moves} as one line of a game file, newline included. A
+     * game without moves makes a blank line, which validation skips.
+     */
+    public static void appendGame(List<Move> moves, StringBuilder out) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            Move move = moves.get(i);
+            out.append(move.from().toAlgebraic()).append(' ').append(move.to().toAlgebraic());
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Bytes {@code [start, end)} of a file: splits in halves down to
+     * {@code chunkBytes}, then validates the lines starting in the range.
+     * Serializable only because {@link RecursiveTask} is; chunks never leave the pool.
+     */
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private final long start;
+        private final long end;
+        private final int chunkBytes;
+        private final Consumer<? super GameVerdict> verdicts;
+
+        Chunk(Path file, FileChannel channel, long size, long start, long end, int chunkBytes,
+              Consumer<? super GameVerdict> verdicts) {
+            this.file = file;
+            this.channel = channel;
+            this.size = size;
+            this.start = start;
+            this.end = end;
+            this.chunkBytes = chunkBytes;
+            this.verdicts = verdicts;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (end - start > chunkBytes) {
+                long middle = start + (end - start) / 2;
+                Chunk left = new Chunk(file, channel, size, start, middle, chunkBytes, verdicts);
+                left.fork();
+                Tally tally = new Chunk(file, channel, size, middle, end, chunkBytes, verdicts).compute();
+                return tally.add(left.join());
+            }
+            try {
+                // room for the byte before the chunk and a line running past its end
+                return new LineValidator(file, channel, size, chunkBytes + (1 << 16)).validate(start, end, verdicts);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads lines through a read-only mapped window that slides along the
+     * file, and replays each on one reused game.
+     */
+    private static final class LineValidator {
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private final int windowBytes;
+        private final Game game = new Game();
+        private final Tally tally = new Tally();
+        private ByteBuffer window;
+        private long windowStart;
+        private byte[] line = new byte[256];
+
+        LineValidator(Path file, FileChannel channel, long size, int windowBytes) {
+            this.file = file;
+            this.channel = channel;
+            this.size = size;
+            this.windowBytes = windowBytes;
+        }
+
+        /**
+         * Validates the lines starting in {@code [start, end)}; the one running
+         * into the range from before belongs to the previous chunk, and the
+         * last may run past {@code end}.
+         */
+        Tally validate(long start, long end, Consumer<? super GameVerdict> verdicts) throws IOException {
+            long position = start;
+            if (start > 0 && byteAt(start - 1) != '\n') {
+                while (position < size && byteAt(position) != '\n') {
+                    position++;
+                }
+                position++;
+            }
+            while (position < end && position < size) {
+                long lineStart = position;
+                int length = 0;
+                boolean tooLong = false;
+                for (; position < size; position++) {
+                    byte b = byteAt(position);
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (length == MAX_LINE_BYTES) {
+                        tooLong = true;
+                    } else {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, Math.min(2 * length, MAX_LINE_BYTES));
+                        }
+                        line[length++] = b;
+                    }
+                }
+                position++;
+                GameVerdict verdict = tooLong
+                        ? new GameVerdict(file, lineStart, 0, 1, "Line longer than " + MAX_LINE_BYTES + " bytes",
+                        GameStatus.ONGOING, null)
+                        : validateGame(lineStart, length);
+                if (verdict != null) {
+                    tally.count(verdict);
+                    verdicts.accept(verdict);
+                }
+            }
+            return tally;
+        }
+
+        /**
+         * Replays the game in {@code line[0, length)}, or returns null for a
+         * blank or comment line.
+         */
+        private GameVerdict validateGame(long offset, int length) {
+            int first = 0;
+            while (first < length && isWhitespace(line[first])) {
+                first++;
+            }
+            if (first == length || line[first] == '#') {
+                return null;
+            }
+            game.reset();
+            int plies = 0;
+            for (int i = 0; i <= length; plies++) {
+                int comma = i;
+                while (comma < length && line[comma] != ',') {
+                    comma++;
+                }
+                int parsed = MoveParser.parse(line, i, comma - i);
+                if (MoveParser.isError(parsed)) {
+                    return rejected(offset, plies,
+                            MoveParser.describe(parsed) + " (at " + MoveParser.errorOffset(parsed) + ")");
+                }
+                MoveResult result = game.playMove(PackedMove.toMove(parsed));
+                if (!result.success()) {
+                    return rejected(offset, plies, result.message());
+                }
+                i = comma + 1;
+            }
+            return new GameVerdict(file, offset, plies, 0, null, game.getStatus(), game.getWinner());
+        }
+
+        private GameVerdict rejected(long offset, int plies, String reason) {
+            return new GameVerdict(file, offset, plies, plies + 1, reason, game.getStatus(), game.getWinner());
+        }
+
+        private byte byteAt(long offset) throws IOException {
+            if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowBytes, size - offset));
+                windowStart = offset;
+            }
+            return window.get((int) (offset - windowStart));
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+
+    /**
+     * Running totals of one chunk, added up as the chunks join.
+     */
+    private static final class Tally {
+        private long games;
+        private long plies;
+        private long rejected;
+        private long whiteWins;
+        private long blackWins;
+        private final long[] statuses = new long[STATUSES.length];
+
+        void count(GameVerdict verdict) {
+            games++;
+            plies += verdict.plies();
+            if (!verdict.valid()) {
+                rejected++;
+            }
+            if (verdict.winner() == Color.WHITE) {
+                whiteWins++;
+            } else if (verdict.winner() == Color.BLACK) {
+                blackWins++;
+            }
+            statuses[verdict.status().ordinal()]++;
+        }
+
+        Tally add(Tally other) {
+            games += other.games;
+            plies += other.plies;
+            rejected += other.rejected;
+            whiteWins += other.whiteWins;
+            blackWins += other.blackWins;
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] += other.statuses[i];
+            }
+            return this;
+        }
+
+        ValidationSummary summary() {
+            Map<GameStatus, Long> byStatus = new EnumMap<>(GameStatus.class);
+            for (GameStatus status : STATUSES) {
+                byStatus.put(status, statuses[status.ordinal()]);
+            }
+            return new ValidationSummary(games, plies, rejected, whiteWins, blackWins, byStatus);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.ChessClock;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveResult;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A finished game as kept in a {@link GameArchiveWriter game archive}: the
+ * moves from the initial setup and how the game ended. {@code clockMode} is
+ * {@code null} for an untimed game, in which case both times are zero.
+ */
+public record ArchivedGame(GameStatus status, Color winner, ChessClock.Mode clockMode,
+                           Duration timePerPlayer, Duration bonus, List<Move> moves) {
+
+    public ArchivedGame {
+        Objects.requireNonNull(status, "status");
+        Objects.requireNonNull(timePerPlayer, "timePerPlayer");
+        Objects.requireNonNull(bonus, "bonus");
+        moves = List.copyOf(moves);
+    }
+
+    /**
+     * Snapshot of {@code game}, which must have started from the initial setup.
+     */
+    public static ArchivedGame of(Game game) {
+        ChessClock clock = game.getClock();
+        if (clock == null) {
+            return new ArchivedGame(game.getStatus(), game.getWinner(), null, Duration.ZERO, Duration.ZERO,
+                    game.getMoveHistory());
+        }
+        return new ArchivedGame(game.getStatus(), game.getWinner(), clock.getMode(), clock.getTimePerPlayer(),
+                clock.getBonus(), game.getMoveHistory());
+    }
+
+    /**
+     * The result in the usual notation: {@code 1-0}, {@code 0-1},
+     * {@code 1/2-1/2}, or {@code *} while the game is not over.
+     */
+    public String result() {
+        if (winner != null) {
+            return winner == Color.WHITE ? "1-0" : "0-1";
+        }
+        return status == GameStatus.DRAW ? "1/2-1/2" : "*";
+    }
+
+    /**
+     * Plays the moves on a new untimed game through {@link Game#playMove(Move)}.
+     * Endings that are not on the board, such as resignation or time, are not
+     * applied; compare them with {@link #status()}.
+     *
+     * @throws IllegalStateException if a move is rejected
+     */
+    public Game replay() {
+        Game game = new Game();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            MoveResult result = game.playMove(moves.get(ply));
+            if (!result.success()) {
+                throw new IllegalStateException("Move " + (ply + 1) + " rejected: " + result.message());
+            }
+        }
+        return game;
+    }
+}
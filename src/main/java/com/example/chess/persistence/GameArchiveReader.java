@@ -0,0 +1,143 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.ChessClock;
+import com.example.chess.game.GameStatus;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reads the games of an archive written by {@link GameArchiveWriter}, one at
+ * a time, through a read-only memory-mapped window that slides along the
+ * file, so an archive of any size is never loaded as a whole. Not thread-safe.
+ */
+public final class GameArchiveReader implements Closeable {
+    static final int DEFAULT_WINDOW_BYTES = 1 << 26;
+
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final ChessClock.Mode[] MODES = ChessClock.Mode.values();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private final int windowBytes;
+    private final MoveIndexCodec codec = new MoveIndexCodec();
+    private ByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    private GameArchiveReader(Path file, FileChannel channel, int windowBytes) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+        ensure(0, GameArchiveWriter.FILE_HEADER_BYTES);
+        if (window.remaining() < GameArchiveWriter.FILE_HEADER_BYTES
+                || window.getInt() != GameArchiveWriter.MAGIC) {
+            throw new IOException("Not a game archive: " + file);
+        }
+        byte version = window.get();
+        if (version != GameArchiveWriter.VERSION) {
+            throw new IOException("Unsupported game archive version " + version + ": " + file);
+        }
+        position = GameArchiveWriter.FILE_HEADER_BYTES;
+    }
+
+    public static GameArchiveReader open(Path file) throws IOException {
+        return open(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    static GameArchiveReader open(Path file, int windowBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new GameArchiveReader(file, channel, windowBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The next game, its moves decoded and checked against the rules.
+     *
+     * @return null at the end of the archive
+     * @throws EOFException if the archive ends inside a game
+     * @throws IOException  if a game cannot be decoded
+     */
+    public ArchivedGame read() throws IOException {
+        if (position == size) {
+            return null;
+        }
+        long start = position;
+        try {
+            ensure(start, GameArchiveWriter.MAX_GAME_HEADER_BYTES);
+            int header = Byte.toUnsignedInt(window.get());
+            int status = header >>> 4;
+            int winner = header >>> 2 & 0x3;
+            int clock = header & 0x3;
+            if (status >= STATUSES.length || winner == 3) {
+                throw new IOException("Corrupt game header at offset " + start + ": " + file);
+            }
+            ChessClock.Mode mode = clock == 0 ? null : MODES[clock - 1];
+            Duration timePerPlayer = Duration.ZERO;
+            Duration bonus = Duration.ZERO;
+            if (mode != null) {
+                timePerPlayer = Duration.ofMillis(MoveIndexCodec.getVarLong(window));
+                if (mode != ChessClock.Mode.SUDDEN_DEATH) {
+                    bonus = Duration.ofMillis(MoveIndexCodec.getVarLong(window));
+                }
+            }
+            long moveBytes = MoveIndexCodec.getVarLong(window);
+            long movesStart = windowStart + window.position();
+            if (moveBytes < 0 || moveBytes > size - movesStart) {
+                throw new EOFException("Game at offset " + start + " is cut off: " + file);
+            }
+            ensure(movesStart, (int) moveBytes);
+            List<Move> moves = codec.decode(window, (int) moveBytes);
+            position = movesStart + moveBytes;
+            Color winnerColor = winner == 0 ? null : winner == 1 ? Color.WHITE : Color.BLACK;
+            return new ArchivedGame(STATUSES[status], winnerColor, mode, timePerPlayer, bonus, moves);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Game at offset " + start + " is cut off: " + file);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt game at offset " + start + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bytes read so far, file header included.
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Positions the window at {@code offset}, mapping a new one from there if
+     * fewer than {@code bytes} of it are mapped; near the end of the file the
+     * window holds what there is.
+     */
+    private void ensure(long offset, int bytes) throws IOException {
+        long mapped = window == null ? -1 : windowStart + window.limit();
+        if (window == null || offset < windowStart || offset + bytes > mapped && mapped < size) {
+            long length = Math.min(Math.max(windowBytes, bytes), size - offset);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            windowStart = offset;
+        }
+        window.position((int) (offset - windowStart));
+    }
+}
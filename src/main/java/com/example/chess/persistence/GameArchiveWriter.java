@@ -0,0 +1,128 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.ChessClock;
+import com.example.chess.model.Color;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams {@link ArchivedGame}s into a compact archive file, to be read back
+ * with {@link GameArchiveReader}.
+ * <p>
+ * The file starts with the 4-byte {@link #MAGIC} and a version byte; games
+ * follow back to back, each as
+ * <pre>
+ * header (1) | [time per player in ms] | [bonus in ms] | move bytes | moves
+ * </pre>
+ * where the header packs the {@code GameStatus} ordinal (3 bits), the winner
+ * (2 bits: none, White, Black) and the clock (2 bits: untimed, or the mode's
+ * ordinal plus one), and the bracketed fields are unsigned varints present
+ * only for a timed game and a clock with a bonus. Moves are indexes into the
+ * ordered legal moves of each position, one byte each in practice, so a game
+ * costs a few bytes more than its number of plies; see {@link MoveIndexCodec}.
+ * The move byte count lets a reader skip a game without decoding it.
+ * <p>
+ * Games are buffered and written in large blocks; {@link #close()} writes the
+ * rest. Not thread-safe.
+ */
+public final class GameArchiveWriter implements Closeable {
+    /**
+     * "C10A", for 10x10 chess archive.
+     */
+    public static final int MAGIC = 0x43313041;
+    public static final byte VERSION = 1;
+
+    static final int FILE_HEADER_BYTES = 5;
+    /**
+     * Header byte and three varints at their longest.
+     */
+    static final int MAX_GAME_HEADER_BYTES = 1 + 3 * 10;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final MoveIndexCodec codec = new MoveIndexCodec();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private ByteBuffer moves = ByteBuffer.allocate(1024);
+    private long games;
+
+    private GameArchiveWriter(FileChannel channel) {
+        this.channel = channel;
+        buffer.putInt(MAGIC).put(VERSION);
+    }
+
+    /**
+     * Creates {@code file}, replacing any previous content.
+     */
+    public static GameArchiveWriter create(Path file) throws IOException {
+        return new GameArchiveWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Appends {@code game}.
+     *
+     * @throws IllegalArgumentException if one of its moves is not legal where
+     *                                  it is played
+     */
+    public void write(ArchivedGame game) throws IOException {
+        int maxMoveBytes = MoveIndexCodec.maxBytes(game.moves().size());
+        if (moves.capacity() < maxMoveBytes) {
+            moves = ByteBuffer.allocate(Math.max(maxMoveBytes, moves.capacity() * 2));
+        }
+        moves.clear();
+        codec.encode(game.moves(), moves);
+        moves.flip();
+
+        int needed = MAX_GAME_HEADER_BYTES + moves.remaining();
+        if (buffer.remaining() < needed) {
+            flush();
+            if (buffer.capacity() < needed) {
+                buffer = ByteBuffer.allocateDirect(needed);
+            }
+        }
+        ChessClock.Mode mode = game.clockMode();
+        int header = game.status().ordinal() << 4
+                | (game.winner() == null ? 0 : game.winner() == Color.WHITE ? 1 : 2) << 2
+                | (mode == null ? 0 : mode.ordinal() + 1);
+        buffer.put((byte) header);
+        if (mode != null) {
+            MoveIndexCodec.putVarLong(buffer, game.timePerPlayer().toMillis());
+            if (mode != ChessClock.Mode.SUDDEN_DEATH) {
+                MoveIndexCodec.putVarLong(buffer, game.bonus().toMillis());
+            }
+        }
+        MoveIndexCodec.putVarLong(buffer, moves.remaining());
+        buffer.put(moves);
+        games++;
+    }
+
+    /**
+     * Games written so far.
+     */
+    public long count() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.ChessClock;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveResult;
+import com.example.chess.game.VirtualTimeSource;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Plays commands on games and records the ones that change them in a
+ * {@link Journal}, so that {@link #recover()} can rebuild every game after a
+ * crash by replaying the same commands.
+ * <p>
+ * Only what a command actually did is recorded: a rejected move leaves no
+ * trace, a move refused because the mover's time ran out records the time-out.
+ * Call each game's methods from the thread that owns the game, as with the game
+ * itself; any number of games may be journaled concurrently. Records are in the
+ * OS page cache as soon as a method returns; {@link #sync()} waits until they
+ * are on disk.
+ */
+public final class GameJournal implements Closeable {
+    private final Journal journal;
+
+    public GameJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public static GameJournal open(Path directory) throws IOException {
+        return new GameJournal(Journal.open(directory));
+    }
+
+    /**
+     * Starts and records a new untimed game.
+     */
+    public Game create(long gameId) {
+        journal.append(JournalRecord.create(gameId, null));
+        return new Game();
+    }
+
+    /**
+     * Starts and records a new game with {@code timePerPlayer} on each clock.
+     */
+    public Game create(long gameId, Duration timePerPlayer) {
+        journal.append(JournalRecord.create(gameId, timePerPlayer));
+        Game game = new Game();
+        game.enableClock(timePerPlayer);
+        return game;
+    }
+
+    public MoveResult playMove(long gameId, Game game, Move move) {
+        GameStatus before = game.getStatus();
+        MoveResult result = game.playMove(move);
+        if (result.success()) {
+            ChessClock clock = game.getClock();
+            journal.append(JournalRecord.move(gameId, move.from().index(), move.to().index(),
+                    remaining(clock, Color.WHITE), remaining(clock, Color.BLACK)));
+        } else if (before != GameStatus.TIME_UP && game.getStatus() == GameStatus.TIME_UP) {
+            record(JournalRecord.TIME_UP, gameId, game, game.getActiveColor());
+        }
+        return result;
+    }
+
+    public MoveResult offerDraw(long gameId, Game game) {
+        return recordIfDone(JournalRecord.OFFER_DRAW, gameId, game, Game::offerDraw);
+    }
+
+    public MoveResult acceptDraw(long gameId, Game game) {
+        return recordIfDone(JournalRecord.ACCEPT_DRAW, gameId, game, Game::acceptDraw);
+    }
+
+    public MoveResult declineDraw(long gameId, Game game) {
+        return recordIfDone(JournalRecord.DECLINE_DRAW, gameId, game, Game::declineDraw);
+    }
+
+    public MoveResult resign(long gameId, Game game) {
+        return recordIfDone(JournalRecord.RESIGN, gameId, game, Game::resign);
+    }
+
+    /**
+     * {@link Game#checkFlag()}, recording the time-out if there was one; for
+     * flag falls that happen without a move.
+     */
+    public boolean checkFlag(long gameId, Game game) {
+        Color mover = game.getActiveColor();
+        boolean timeUp = game.checkFlag();
+        if (timeUp) {
+            record(JournalRecord.TIME_UP, gameId, game, mover);
+        }
+        return timeUp;
+    }
+
+    /**
+     * Records the current clock times of a timed game, so a long think is not
+     * forgotten on recovery.
+     */
+    public void snapshotClock(long gameId, Game game) {
+        if (game.getClock() != null) {
+            record(JournalRecord.CLOCK, gameId, game, null);
+        }
+    }
+
+    /**
+     * Waits until everything recorded so far is on disk; concurrent callers
+     * share one fsync.
+     *
+     * @throws IOException if the journal could not be forced to disk
+     */
+    public void sync() throws IOException, InterruptedException {
+        journal.awaitDurable(journal.size());
+    }
+
+    /**
+     * Rebuilds every journaled game by replaying its commands through the
+     * game's own methods, in creation order. Clocks come back with the times of
+     * each game's last record, running for the side to move from now; replay
+     * itself runs on frozen time, so no game times out that did not before.
+     */
+    public Map<Long, Game> recover() throws IOException {
+        Map<Long, Game> games = new LinkedHashMap<>();
+        Map<Long, Duration> timeControls = new HashMap<>();
+        Map<Long, JournalRecord> lastClocks = new HashMap<>();
+        VirtualTimeSource frozen = new VirtualTimeSource();
+        journal.replay(record -> {
+            long id = record.gameId();
+            if (record.type() == JournalRecord.CREATE) {
+                Game game = new Game();
+                if (record.a() > 0) {
+                    game.enableClock(Duration.ofNanos(record.a()), frozen);
+                    timeControls.put(id, Duration.ofNanos(record.a()));
+                }
+                games.put(id, game);
+                return;
+            }
+            Game game = games.get(id);
+            if (game == null) {
+                return;
+            }
+            if (record.hasClock()) {
+                lastClocks.put(id, record);
+            }
+            apply(record, game);
+        });
+        for (Map.Entry<Long, Duration> timed : timeControls.entrySet()) {
+            Game game = games.get(timed.getKey());
+            JournalRecord last = lastClocks.get(timed.getKey());
+            Color active = game.getActiveColor();
+            game.enableClock(timed.getValue());
+            ChessClock clock = game.getClock();
+            clock.start(active);
+            if (last != null) {
+                clock.restore(last.whiteRemaining(), last.blackRemaining());
+            }
+            if (game.isGameOver() || game.isDrawOffered()) {
+                clock.pause();
+            }
+        }
+        return games;
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private static void apply(JournalRecord record, Game game) {
+        switch (record.type()) {
+            case JournalRecord.MOVE -> game.playMove(
+                    new Move(Position.fromIndex(record.from()), Position.fromIndex(record.to())));
+            case JournalRecord.OFFER_DRAW -> game.offerDraw();
+            case JournalRecord.ACCEPT_DRAW -> game.acceptDraw();
+            case JournalRecord.DECLINE_DRAW -> game.declineDraw();
+            case JournalRecord.RESIGN -> game.resign();
+            case JournalRecord.TIME_UP -> {
+                // run the mover's clock out on frozen time, then let the game notice
+                ChessClock clock = game.getClock();
+                if (clock != null) {
+                    clock.restore(record.color() == Color.WHITE ? Duration.ZERO : record.whiteRemaining(),
+                            record.color() == Color.BLACK ? Duration.ZERO : record.blackRemaining());
+                    game.checkFlag();
+                }
+            }
+            default -> {
+                // CLOCK snapshots only matter for the final clock times
+            }
+        }
+    }
+
+    private MoveResult recordIfDone(byte type, long gameId, Game game, Function<Game, MoveResult> command) {
+        Color actor = game.getActiveColor();
+        MoveResult result = command.apply(game);
+        if (result.success()) {
+            record(type, gameId, game, actor);
+        }
+        return result;
+    }
+
+    private void record(byte type, long gameId, Game game, Color color) {
+        ChessClock clock = game.getClock();
+        journal.append(JournalRecord.action(type, gameId, color,
+                remaining(clock, Color.WHITE), remaining(clock, Color.BLACK)));
+    }
+
+    private static Duration remaining(ChessClock clock, Color color) {
+        return clock == null ? null : clock.getRemaining(color);
+    }
+}
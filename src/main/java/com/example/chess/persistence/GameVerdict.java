@@ -0,0 +1,22 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.GameStatus;
+import com.example.chess.model.Color;
+
+import java.nio.file.Path;
+
+/**
+ * What {@link ArchiveValidator} made of one game record: how many moves were
+ * accepted, the first rejected ply and why, and where the game stood after
+ * the last accepted move. {@code rejectedPly} counts from 1 and is 0, with a
+ * {@code null} reason, when every move was accepted.
+ *
+ * @param offset byte offset of the record's line in {@code file}
+ */
+public record GameVerdict(Path file, long offset, int plies, int rejectedPly, String reason,
+                          GameStatus status, Color winner) {
+
+    public boolean valid() {
+        return rejectedPly == 0;
+    }
+}
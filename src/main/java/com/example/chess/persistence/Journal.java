@@ -0,0 +1,318 @@
+package com.example.chess.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of {@link JournalRecord}s in memory-mapped segment files.
+ * <p>
+ * Each segment is a file of {@code segmentRecords} fixed-size records named
+ * after the number of records before it, so sequence numbers start at 1 and
+ * segment {@code n} opens with record {@code n + 1}; a full segment is forced
+ * to disk and the next one mapped. An append is a 32-byte copy into the mapping
+ * and is visible to the OS at once, so a JVM crash loses nothing; to survive a
+ * machine crash, wait for {@link #awaitDurable}. One flusher thread forces the
+ * mapping on demand and every waiter that arrives while a force is running is
+ * covered by the next one, so concurrent games share the cost of each fsync.
+ * <p>
+ * Opening a directory scans it up to the first empty or torn record, which is
+ * where appending resumes; whatever follows a torn record is discarded. An
+ * existing journal keeps the segment size its files were written with, and
+ * one whose files disagree on it is refused rather than trimmed.
+ */
+public final class Journal implements Closeable {
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private int segmentRecords;
+    private final List<Path> segments = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+    // all guarded by lock
+    private MappedByteBuffer current;
+    private long currentFirst;
+    private long written;
+    private long requested;
+    private long durable;
+    private IOException failure;
+    private boolean closed;
+
+    private Journal(Path directory, int segmentRecords) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        recoverTail();
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static Journal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it with segments of
+     * {@code segmentRecords} records if it holds none yet; an existing journal
+     * keeps its own segment size.
+     *
+     * @throws IOException if the existing segments are not all the same size
+     */
+    public static Journal open(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords < 1) {
+            throw new IllegalArgumentException("Segment must hold at least one record: " + segmentRecords);
+        }
+        Files.createDirectories(directory);
+        return new Journal(directory, segmentRecords);
+    }
+
+    /**
+     * Appends {@code record}.
+     *
+     * @return its sequence number, to pass to {@link #awaitDurable}
+     */
+    public long append(JournalRecord record) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (written - currentFirst == segmentRecords) {
+                roll();
+            }
+            record.write(current, (int) (written - currentFirst) * JournalRecord.BYTES);
+            return ++written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records appended so far; the sequence number of the last one.
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records each segment file holds.
+     */
+    int segmentRecords() {
+        return segmentRecords;
+    }
+
+    /**
+     * Blocks until every record up to {@code sequence} has been forced to disk.
+     *
+     * @throws IOException if forcing failed, now or for an earlier caller
+     */
+    public void awaitDurable(long sequence) throws IOException, InterruptedException {
+        lock.lock();
+        try {
+            if (requested < sequence) {
+                requested = Math.min(sequence, written);
+                flushRequested.signal();
+            }
+            while (durable < sequence && durable < written && !closed) {
+                if (failure != null) {
+                    throw new IOException("Journal could not be forced to disk", failure);
+                }
+                flushed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands every record, oldest first, to {@code consumer}. Must not run
+     * concurrently with appends.
+     */
+    public void replay(Consumer<JournalRecord> consumer) throws IOException {
+        for (int i = 0; i < segments.size(); i++) {
+            long first = firstSequence(segments.get(i));
+            long count = Math.min(segmentRecords, written - first);
+            MappedByteBuffer buffer = i == segments.size() - 1 ? current : map(segments.get(i));
+            for (int r = 0; r < count; r++) {
+                consumer.accept(JournalRecord.read(buffer, r * JournalRecord.BYTES));
+            }
+        }
+    }
+
+    /**
+     * Forces what has been written and stops the flusher.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            current.force();
+            durable = written;
+            closed = true;
+            flushRequested.signal();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer buffer;
+            long target;
+            lock.lock();
+            try {
+                while (!closed && requested <= durable) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                buffer = current;
+                target = written;
+            } finally {
+                lock.unlock();
+            }
+            // outside the lock, so appends go on while the disk works
+            try {
+                buffer.force();
+            } catch (UncheckedIOException e) {
+                lock.lock();
+                try {
+                    // nothing is durable past this point, so every waiter hears of it
+                    failure = e.getCause();
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                durable = Math.max(durable, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Called with the lock held when the current segment is full.
+     */
+    private void roll() {
+        current.force();
+        durable = Math.max(durable, written);
+        try {
+            openSegment(written);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment(long first) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", first, SUFFIX));
+        segments.add(path);
+        currentFirst = first;
+        current = map(path);
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * JournalRecord.BYTES);
+        }
+    }
+
+    /**
+     * Finds where valid records end, zeroes the rest of that segment and
+     * deletes any later one, so stale records never reappear behind new ones.
+     */
+    private void recoverTail() throws IOException {
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        if (existing.isEmpty()) {
+            openSegment(0);
+            return;
+        }
+        segmentRecords = existingSegmentRecords(existing);
+        for (int i = 0; i < existing.size(); i++) {
+            Path path = existing.get(i);
+            long first = firstSequence(path);
+            segments.add(path);
+            currentFirst = first;
+            current = map(path);
+            int valid = 0;
+            while (valid < segmentRecords && JournalRecord.read(current, valid * JournalRecord.BYTES) != null) {
+                valid++;
+            }
+            written = first + valid;
+            if (valid < segmentRecords || i == existing.size() - 1) {
+                for (int offset = valid * JournalRecord.BYTES; offset < segmentRecords * JournalRecord.BYTES;
+                        offset += Long.BYTES) {
+                    // only dirty the pages that hold something
+                    if (current.getLong(offset) != 0) {
+                        current.putLong(offset, 0);
+                    }
+                }
+                current.force();
+                for (Path later : existing.subList(i + 1, existing.size())) {
+                    Files.delete(later);
+                }
+                break;
+            }
+        }
+        durable = written;
+        requested = written;
+    }
+
+    /**
+     * The segment size the existing files were written with, checked against
+     * every file's length and name so that a journal is never read, and its
+     * tail never trimmed, with the wrong one.
+     */
+    private static int existingSegmentRecords(List<Path> existing) throws IOException {
+        long bytes = Files.size(existing.get(0));
+        if (bytes == 0 || bytes % JournalRecord.BYTES != 0 || bytes / JournalRecord.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Not a journal segment (" + bytes + " bytes): " + existing.get(0));
+        }
+        int records = (int) (bytes / JournalRecord.BYTES);
+        for (int i = 0; i < existing.size(); i++) {
+            Path path = existing.get(i);
+            if (Files.size(path) != bytes || firstSequence(path) != firstSequence(existing.get(0)) + (long) i * records) {
+                throw new IOException("Journal segments of " + records + " records do not line up at " + path);
+            }
+        }
+        return records;
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
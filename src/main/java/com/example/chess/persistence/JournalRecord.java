@@ -0,0 +1,111 @@
+package com.example.chess.persistence;
+
+import com.example.chess.model.Color;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.zip.CRC32C;
+
+/**
+ * One entry of the {@link Journal}, stored as a fixed {@value #BYTES}-byte record:
+ * <pre>
+ * type (1) | from (1) | to (1) | color (1) | CRC32C (4) | game id (8) | a (8) | b (8)
+ * </pre>
+ * For {@link #CREATE}, {@code a} is the time per player in nanoseconds (0 for
+ * an untimed game). For every other type of a timed game, {@code a} and
+ * {@code b} snapshot White's and Black's remaining time in nanoseconds right
+ * after the action; untimed games leave them at -1. The checksum covers the
+ * other 28 bytes, so a record torn by a crash is recognised and dropped.
+ */
+public record JournalRecord(byte type, long gameId, int from, int to, Color color, long a, long b) {
+    public static final int BYTES = 32;
+
+    public static final byte CREATE = 1;
+    public static final byte MOVE = 2;
+    public static final byte OFFER_DRAW = 3;
+    public static final byte ACCEPT_DRAW = 4;
+    public static final byte DECLINE_DRAW = 5;
+    public static final byte RESIGN = 6;
+    /**
+     * The side to move, {@code color}, lost on time.
+     */
+    public static final byte TIME_UP = 7;
+    /**
+     * A clock snapshot on its own, with no game action.
+     */
+    public static final byte CLOCK = 8;
+
+    private static final Color[] COLORS = Color.values();
+
+    public static JournalRecord create(long gameId, Duration timePerPlayer) {
+        return new JournalRecord(CREATE, gameId, 0, 0, null, timePerPlayer == null ? 0 : timePerPlayer.toNanos(), 0);
+    }
+
+    /**
+     * An action without move squares; {@code white} and {@code black} are the
+     * clock snapshot, or {@code null} for an untimed game.
+     */
+    public static JournalRecord action(byte type, long gameId, Color color, Duration white, Duration black) {
+        return new JournalRecord(type, gameId, 0, 0, color, nanos(white), nanos(black));
+    }
+
+    public static JournalRecord move(long gameId, int from, int to, Duration white, Duration black) {
+        return new JournalRecord(MOVE, gameId, from, to, null, nanos(white), nanos(black));
+    }
+
+    /**
+     * Whether the record carries a clock snapshot.
+     */
+    public boolean hasClock() {
+        return type != CREATE && a >= 0;
+    }
+
+    public Duration whiteRemaining() {
+        return Duration.ofNanos(a);
+    }
+
+    public Duration blackRemaining() {
+        return Duration.ofNanos(b);
+    }
+
+    /**
+     * Writes the record at {@code offset} without moving the buffer's position.
+     */
+    void write(ByteBuffer buffer, int offset) {
+        buffer.put(offset, type)
+                .put(offset + 1, (byte) from)
+                .put(offset + 2, (byte) to)
+                .put(offset + 3, color == null ? -1 : (byte) color.ordinal())
+                .putLong(offset + 8, gameId)
+                .putLong(offset + 16, a)
+                .putLong(offset + 24, b);
+        buffer.putInt(offset + 4, checksum(buffer, offset));
+    }
+
+    /**
+     * Reads the record at {@code offset}.
+     *
+     * @return null where nothing was written or the record is torn
+     */
+    static JournalRecord read(ByteBuffer buffer, int offset) {
+        byte type = buffer.get(offset);
+        if (type == 0 || buffer.getInt(offset + 4) != checksum(buffer, offset)) {
+            return null;
+        }
+        byte color = buffer.get(offset + 3);
+        return new JournalRecord(type, buffer.getLong(offset + 8),
+                Byte.toUnsignedInt(buffer.get(offset + 1)), Byte.toUnsignedInt(buffer.get(offset + 2)),
+                color < 0 ? null : COLORS[color], buffer.getLong(offset + 16), buffer.getLong(offset + 24));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, 4));
+        crc.update(buffer.slice(offset + 8, BYTES - 8));
+        return (int) crc.getValue();
+    }
+
+    private static long nanos(Duration remaining) {
+        return remaining == null ? -1 : remaining.toNanos();
+    }
+}
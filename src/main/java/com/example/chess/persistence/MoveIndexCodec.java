@@ -0,0 +1,144 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.MoveList;
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes each move as its index among the legal moves of the position,
+ * sorted by from and then to square, so the order does not depend on the
+ * move generator or board layout. An index takes one byte, or two in a
+ * position with more than 256 legal moves, which both sides can tell from the
+ * position alone. Keeps one scratch game and move list; not thread-safe.
+ */
+final class MoveIndexCodec {
+    private static final int INDEX_BITS = 16;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+    private final Game game = new Game();
+    private final MoveList legal = new MoveList();
+    private int[] sorted = new int[256];
+
+    /**
+     * The most bytes {@link #encode} can write for {@code plies} moves.
+     */
+    static int maxBytes(int plies) {
+        return 2 * plies;
+    }
+
+    /**
+     * Writes the index of every move in turn, playing them from the initial setup.
+     *
+     * @throws IllegalArgumentException if a move is not legal where it is played
+     */
+    void encode(List<Move> moves, ByteBuffer out) {
+        game.reset();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            Move move = moves.get(ply);
+            int count = sortLegalMoves();
+            int squares = move.from().index() << 7 | move.to().index();
+            int index = find(count, squares);
+            if (index < 0) {
+                throw new IllegalArgumentException("Move " + (ply + 1) + " is not legal: " + move);
+            }
+            if (count > 256) {
+                out.putShort((short) index);
+            } else {
+                out.put((byte) index);
+            }
+            game.makeMove(legal.move(sorted[index] & INDEX_MASK));
+        }
+    }
+
+    /**
+     * Reads {@code length} bytes of move indexes from {@code in}.
+     *
+     * @throws IllegalArgumentException if an index is out of range or a move
+     *                                  is cut off
+     */
+    List<Move> decode(ByteBuffer in, int length) {
+        game.reset();
+        List<Move> moves = new ArrayList<>(length);
+        int end = in.position() + length;
+        while (in.position() < end) {
+            int count = sortLegalMoves();
+            int index;
+            if (count > 256) {
+                if (end - in.position() < 2) {
+                    throw new IllegalArgumentException("Move " + (moves.size() + 1) + " is cut off");
+                }
+                index = Short.toUnsignedInt(in.getShort());
+            } else {
+                index = Byte.toUnsignedInt(in.get());
+            }
+            if (index >= count) {
+                throw new IllegalArgumentException("Move " + (moves.size() + 1) + " has index " + index
+                        + " of " + count + " legal moves");
+            }
+            int move = legal.move(sorted[index] & INDEX_MASK);
+            moves.add(PackedMove.toMove(move));
+            game.makeMove(move);
+        }
+        return moves;
+    }
+
+    /**
+     * Fills {@link #sorted} with {@code squares << 16 | list index} for every
+     * legal move, in ascending order.
+     */
+    private int sortLegalMoves() {
+        game.generateLegalMoves(legal);
+        int count = legal.size();
+        if (sorted.length < count) {
+            sorted = new int[Math.max(count, sorted.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            sorted[i] = PackedMove.squares(legal.move(i)) << INDEX_BITS | i;
+        }
+        Arrays.sort(sorted, 0, count);
+        return count;
+    }
+
+    private int find(int count, int squares) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int candidate = sorted[middle] >>> INDEX_BITS;
+            if (candidate < squares) {
+                low = middle + 1;
+            } else if (candidate > squares) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Variable-length number is too long");
+    }
+}
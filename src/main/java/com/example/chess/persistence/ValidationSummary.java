@@ -0,0 +1,26 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.GameStatus;
+
+import java.util.Map;
+
+/**
+ * Totals over every game {@link ArchiveValidator} checked. {@code plies}
+ * counts accepted moves only, and {@code statuses} holds the status each game
+ * ended in, rejected games included, with every status present.
+ */
+public record ValidationSummary(long games, long plies, long rejected, long whiteWins, long blackWins,
+                                Map<GameStatus, Long> statuses) {
+
+    public ValidationSummary {
+        statuses = Map.copyOf(statuses);
+    }
+
+    public long valid() {
+        return games - rejected;
+    }
+
+    public long draws() {
+        return statuses.get(GameStatus.DRAW);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.chess.server;
+
+import com.example.chess.game.MoveResult;
+import com.example.chess.model.Move;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking client for {@link GameServer}: one connection, one request in flight
+ * at a time. Safe to share between threads, which then take turns; open one
+ * client per thread to run requests in parallel.
+ */
+public final class GameClient implements Closeable {
+
+    /**
+     * Outcome of a command: the game's own {@link MoveResult} and the state
+     * right after it, whether or not the command succeeded.
+     */
+    public record Reply(MoveResult result, GameState state) {
+    }
+
+    private final SocketChannel channel;
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Protocol.LENGTH_BYTES);
+    private int nextRequestId;
+
+    private GameClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public static GameClient connect(InetSocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        return new GameClient(channel);
+    }
+
+    /**
+     * Starts a new game on the server and returns its initial state.
+     */
+    public GameState createGame() throws IOException {
+        return call(Protocol.request(Protocol.CREATE, 0, 0), Protocol.CREATE).state();
+    }
+
+    public Reply playMove(long gameId, Move move) throws IOException {
+        ByteBuffer request = Protocol.request(Protocol.PLAY, 0, gameId);
+        request.put((byte) move.from().index()).put((byte) move.to().index());
+        return call(request, Protocol.PLAY);
+    }
+
+    public Reply offerDraw(long gameId) throws IOException {
+        return call(Protocol.request(Protocol.OFFER_DRAW, 0, gameId), Protocol.OFFER_DRAW);
+    }
+
+    public Reply acceptDraw(long gameId) throws IOException {
+        return call(Protocol.request(Protocol.ACCEPT_DRAW, 0, gameId), Protocol.ACCEPT_DRAW);
+    }
+
+    public Reply declineDraw(long gameId) throws IOException {
+        return call(Protocol.request(Protocol.DECLINE_DRAW, 0, gameId), Protocol.DECLINE_DRAW);
+    }
+
+    public Reply resign(long gameId) throws IOException {
+        return call(Protocol.request(Protocol.RESIGN, 0, gameId), Protocol.RESIGN);
+    }
+
+    public GameState state(long gameId) throws IOException {
+        return call(Protocol.request(Protocol.STATE, 0, gameId), Protocol.STATE).state();
+    }
+
+    /**
+     * Has the server stop hosting a game that is no longer wanted; one that is
+     * over goes by itself. Returns its last state.
+     */
+    public GameState closeGame(long gameId) throws IOException {
+        return call(Protocol.request(Protocol.CLOSE, 0, gameId), Protocol.CLOSE).state();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Sends {@code request} (request id still 0, position at its end) and waits
+     * for the matching response.
+     *
+     * @throws IllegalArgumentException if the game id is unknown to the server
+     * @throws IllegalStateException    if the server rejected the request as malformed
+     */
+    private synchronized Reply call(ByteBuffer request, byte op) throws IOException {
+        int requestId = ++nextRequestId;
+        request.putInt(Protocol.LENGTH_BYTES + 1, requestId).flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+
+        lengthBuffer.clear();
+        readFully(lengthBuffer);
+        int length = lengthBuffer.getInt(0);
+        if (length < 1 || length > Protocol.MAX_FRAME) {
+            throw new IOException("Bad response length " + length);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload);
+        payload.flip();
+        byte responseOp = payload.get();
+        int responseId = payload.getInt();
+        if (responseOp != op || responseId != requestId) {
+            throw new IOException("Response " + responseId + " does not match request " + requestId);
+        }
+        Protocol.Response response = Protocol.readResponse(payload.get(), payload);
+        return switch (response.code()) {
+            case Protocol.OK, Protocol.REJECTED -> new Reply(response.result(), response.state());
+            case Protocol.UNKNOWN_GAME -> throw new IllegalArgumentException(response.result().message());
+            default -> throw new IllegalStateException(response.result().message());
+        };
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.chess.server;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveResult;
+import com.example.chess.host.GameActor;
+import com.example.chess.host.GameHost;
+import com.example.chess.model.Move;
+import com.example.chess.model.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Hosts any number of concurrent {@link Game}s behind the binary {@link Protocol}.
+ * <p>
+ * One selector thread accepts connections, reads request frames and writes
+ * responses; it never touches a game. Each request is queued on its game's
+ * {@link GameActor} in a {@link GameHost}, which runs it, one command per game
+ * at a time, on a virtual thread by default, so a slow game only delays its own
+ * commands. The command hands the encoded response back to the connection and
+ * wakes the selector to send it.
+ * <p>
+ * Any connection may address any game by id. A game stops being hosted once
+ * a response has reported it over, or earlier on {@link Protocol#CLOSE}, so a
+ * long-running server only holds the games still being played. Its final
+ * state is kept, so the opponent on another connection can still read how it
+ * ended, until a {@link Protocol#CLOSE} or until {@value #MAX_FINISHED} later
+ * games have finished. A connection
+ * with {@value #MAX_UNANSWERED} requests not yet answered is not read from
+ * until some of the answers have been written, so a client that sends without
+ * reading only fills its own socket buffers.
+ */
+public final class GameServer implements Closeable {
+    static final int MAX_UNANSWERED = 256;
+    static final int MAX_FINISHED = 4096;
+
+    private final ServerSocketChannel acceptor;
+    private final Selector selector;
+    private final GameHost host;
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    // oldest first; written by game commands, read by the selector thread
+    private final Map<Long, Finished> finished = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Finished> eldest) {
+            return size() > MAX_FINISHED;
+        }
+    });
+    private final Thread selectorThread;
+    private volatile boolean running = true;
+
+    private GameServer(InetSocketAddress address, GameHost host) throws IOException {
+        this.selector = Selector.open();
+        this.acceptor = ServerSocketChannel.open();
+        acceptor.bind(address);
+        acceptor.configureBlocking(false);
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        this.host = host;
+        this.selectorThread = new Thread(this::selectLoop, "game-server-selector");
+    }
+
+    /**
+     * Binds to {@code address} (port 0 picks a free port) and starts serving
+     * games hosted on virtual threads.
+     */
+    public static GameServer start(InetSocketAddress address) throws IOException {
+        return start(address, new GameHost());
+    }
+
+    /**
+     * Serves the games of {@code host}, which the server closes with itself.
+     */
+    public static GameServer start(InetSocketAddress address, GameHost host) throws IOException {
+        GameServer server = new GameServer(address, host);
+        server.selectorThread.start();
+        return server;
+    }
+
+    /**
+     * The bound address, with the actual port when started on port 0.
+     */
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) acceptor.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int gameCount() {
+        return host.size();
+    }
+
+    /**
+     * Stops accepting, drops every connection and waits briefly for running commands.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        host.close();
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                flushPendingWrites();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    handle(key);
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // shutting down anyway
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                SocketChannel channel = acceptor.accept();
+                if (channel != null) {
+                    channel.configureBlocking(false);
+                    SelectionKey clientKey = channel.register(selector, SelectionKey.OP_READ);
+                    clientKey.attach(new Connection(channel, clientKey));
+                }
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (key.isReadable() && !connection.read()) {
+                closeQuietly(key);
+                return;
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException e) {
+            closeQuietly(key);
+        }
+    }
+
+    private void flushPendingWrites() {
+        for (Connection connection = pendingWrites.poll(); connection != null; connection = pendingWrites.poll()) {
+            if (connection.key.isValid()) {
+                try {
+                    connection.write();
+                } catch (IOException e) {
+                    closeQuietly(connection.key);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // the peer is gone either way
+        }
+    }
+
+    /**
+     * Called on the selector thread with one request payload.
+     */
+    private void dispatch(Connection connection, ByteBuffer payload) {
+        if (payload.remaining() < 1 + Integer.BYTES) {
+            connection.send(Protocol.error((byte) 0, 0, Protocol.BAD_REQUEST, "Truncated request"));
+            return;
+        }
+        byte op = payload.get();
+        int requestId = payload.getInt();
+        if (op == Protocol.CREATE) {
+            run(connection, host.create(), op, requestId, game -> MoveResult.ok("Game created", false));
+            return;
+        }
+        if (op < Protocol.PLAY || op > Protocol.CLOSE || payload.remaining() < Long.BYTES) {
+            connection.send(Protocol.error(op, requestId, Protocol.BAD_REQUEST, "Malformed request"));
+            return;
+        }
+        long gameId = payload.getLong();
+        Optional<GameActor> found = host.find(gameId);
+        if (found.isEmpty()) {
+            answerFinished(connection, op, requestId, gameId);
+            return;
+        }
+        GameActor actor = found.get();
+        switch (op) {
+            case Protocol.PLAY -> {
+                if (payload.remaining() < 2) {
+                    connection.send(Protocol.error(op, requestId, Protocol.BAD_REQUEST, "Missing move"));
+                    return;
+                }
+                int from = payload.get();
+                int to = payload.get();
+                if (from < 0 || from >= Position.SQUARE_COUNT || to < 0 || to >= Position.SQUARE_COUNT) {
+                    connection.send(Protocol.error(op, requestId, Protocol.BAD_REQUEST, "Square out of range"));
+                    return;
+                }
+                Move move = new Move(Position.fromIndex(from), Position.fromIndex(to));
+                run(connection, actor, op, requestId, game -> game.playMove(move));
+            }
+            case Protocol.OFFER_DRAW -> run(connection, actor, op, requestId, Game::offerDraw);
+            case Protocol.ACCEPT_DRAW -> run(connection, actor, op, requestId, Game::acceptDraw);
+            case Protocol.DECLINE_DRAW -> run(connection, actor, op, requestId, Game::declineDraw);
+            case Protocol.RESIGN -> run(connection, actor, op, requestId, Game::resign);
+            case Protocol.CLOSE -> run(connection, actor, op, requestId, game -> {
+                host.remove(actor.id());
+                return MoveResult.ok("Game closed", false);
+            });
+            default -> run(connection, actor, op, requestId, game -> MoveResult.ok(game.getStatus().name(), false));
+        }
+    }
+
+    private void run(Connection connection, GameActor actor, byte op, int requestId,
+            Function<Game, MoveResult> command) {
+        actor.submit(game -> {
+            MoveResult result;
+            try {
+                result = command.apply(game);
+            } catch (RuntimeException e) {
+                // the client counts on an answer to every request
+                connection.send(Protocol.error(op, requestId, Protocol.FAILED, "Command failed"));
+                throw e;
+            }
+            connection.send(Protocol.response(op, requestId, actor.id(), result, game));
+            if (game.isGameOver() && op != Protocol.CLOSE) {
+                // nothing more can happen to the game; recorded first so a lookup
+                // that misses the host finds it here
+                finished.put(actor.id(), new Finished(game.getStatus(), Protocol.state(actor.id(), game)));
+                host.remove(actor.id());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Answers a request for a game that is not hosted from its final state,
+     * as the game itself would once over, or as unknown.
+     */
+    private void answerFinished(Connection connection, byte op, int requestId, long gameId) {
+        Finished game = op == Protocol.CLOSE ? finished.remove(gameId) : finished.get(gameId);
+        if (game == null) {
+            connection.send(Protocol.error(op, requestId, Protocol.UNKNOWN_GAME, "Unknown game " + gameId));
+            return;
+        }
+        MoveResult result = switch (op) {
+            case Protocol.STATE -> MoveResult.ok(game.status().name(), false);
+            case Protocol.CLOSE -> MoveResult.ok("Game closed", false);
+            default -> MoveResult.fail("Game is over: " + game.status());
+        };
+        connection.send(Protocol.response(op, requestId, result, game.state()));
+    }
+
+    /**
+     * A game no longer hosted: its final status and {@link Protocol#state} encoding.
+     */
+    private record Finished(GameStatus status, byte[] state) {
+    }
+
+    /**
+     * Per-connection buffers. Reads happen on the selector thread; responses
+     * are queued from game commands and written by the selector thread.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        private ByteBuffer inbound = ByteBuffer.allocate(256);
+        // both only touched on the selector thread
+        private int unanswered;
+        private boolean writeBlocked;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        /**
+         * Reads what is available and dispatches every complete frame.
+         *
+         * @return false if the peer closed or broke the protocol
+         */
+        boolean read() throws IOException {
+            if (channel.read(inbound) < 0) {
+                return false;
+            }
+            return dispatchFrames();
+        }
+
+        /**
+         * Dispatches the complete frames in {@link #inbound} until
+         * {@link #MAX_UNANSWERED} requests await their answers.
+         *
+         * @return false if the peer broke the protocol
+         */
+        private boolean dispatchFrames() {
+            inbound.flip();
+            while (unanswered < MAX_UNANSWERED && inbound.remaining() >= Protocol.LENGTH_BYTES) {
+                int length = inbound.getInt(inbound.position());
+                if (length < 1 || length > Protocol.MAX_FRAME) {
+                    return false;
+                }
+                if (inbound.remaining() < Protocol.LENGTH_BYTES + length) {
+                    break;
+                }
+                inbound.position(inbound.position() + Protocol.LENGTH_BYTES);
+                ByteBuffer payload = inbound.slice(inbound.position(), length);
+                inbound.position(inbound.position() + length);
+                unanswered++;
+                dispatch(this, payload);
+            }
+            inbound.compact();
+            if (!inbound.hasRemaining() && inbound.capacity() < Protocol.LENGTH_BYTES + Protocol.MAX_FRAME) {
+                ByteBuffer grown = ByteBuffer.allocate(Protocol.LENGTH_BYTES + Protocol.MAX_FRAME);
+                inbound = grown.put(inbound.flip());
+            }
+            updateInterest();
+            return true;
+        }
+
+        void send(ByteBuffer frame) {
+            outbound.add(frame);
+            pendingWrites.add(this);
+            selector.wakeup();
+        }
+
+        /**
+         * Writes queued frames until the socket buffer fills, then waits for
+         * OP_WRITE, and picks up the requests held back while too many were
+         * unanswered.
+         */
+        void write() throws IOException {
+            writeBlocked = false;
+            for (ByteBuffer frame = outbound.peek(); frame != null; frame = outbound.peek()) {
+                channel.write(frame);
+                if (frame.hasRemaining()) {
+                    writeBlocked = true;
+                    break;
+                }
+                outbound.poll();
+                unanswered--;
+            }
+            if (inbound.position() >= Protocol.LENGTH_BYTES && unanswered < MAX_UNANSWERED) {
+                if (!dispatchFrames()) {
+                    throw new IOException("Bad frame length");
+                }
+            } else {
+                updateInterest();
+            }
+        }
+
+        /**
+         * Reads only while fewer than {@link #MAX_UNANSWERED} requests await
+         * answers, and waits for OP_WRITE while a frame is half written.
+         */
+        private void updateInterest() {
+            key.interestOps((unanswered < MAX_UNANSWERED ? SelectionKey.OP_READ : 0)
+                    | (writeBlocked ? SelectionKey.OP_WRITE : 0));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.chess.server;
+
+import com.example.chess.game.GameStatus;
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+
+/**
+ * Snapshot of a hosted game as sent by {@link GameServer}.
+ *
+ * @param gameId        server-assigned id
+ * @param status        status after the command
+ * @param activeColor   side to move
+ * @param winner        winner once decided, otherwise {@code null}
+ * @param drawOfferedBy side with a pending draw offer, otherwise {@code null}
+ * @param board         the client's own copy of the pieces, moved flags included
+ */
+public record GameState(long gameId, GameStatus status, Color activeColor, Color winner, Color drawOfferedBy,
+        Board board) {
+}
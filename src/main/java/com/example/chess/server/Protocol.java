@@ -0,0 +1,190 @@
+package com.example.chess.server;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveResult;
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by {@link GameServer} and {@link GameClient}.
+ * <p>
+ * Every message is a frame: a 4-byte big-endian payload length, then the
+ * payload. Requests are
+ * <pre>
+ * op (1) | request id (4) | game id (8, all but CREATE) | from (1) | to (1)   (PLAY only)
+ * </pre>
+ * and every response is
+ * <pre>
+ * op (1) | request id (4) | code (1) | message length (2) | message (UTF-8) | check (1) | [state]
+ * </pre>
+ * where the state follows for {@link #OK} and {@link #REJECTED} codes:
+ * <pre>
+ * game id (8) | status (1) | side to move (1) | winner (1) | draw offered by (1) | squares (100)
+ * </pre>
+ * Colors are ordinals, -1 for none. Squares are in {@link Position#index()}
+ * order, 0 for empty, otherwise {@code 1 + (type * 2 + color) * 2 + moved}.
+ */
+final class Protocol {
+    static final byte CREATE = 1;
+    static final byte PLAY = 2;
+    static final byte OFFER_DRAW = 3;
+    static final byte ACCEPT_DRAW = 4;
+    static final byte DECLINE_DRAW = 5;
+    static final byte RESIGN = 6;
+    static final byte STATE = 7;
+    /**
+     * Stops hosting the game, answering with its last state.
+     */
+    static final byte CLOSE = 8;
+
+    /**
+     * Command carried out; also used for state reads and game creation.
+     */
+    static final byte OK = 0;
+    /**
+     * Command refused by the rules (illegal move, game over, ...); the state is still sent.
+     */
+    static final byte REJECTED = 1;
+    static final byte UNKNOWN_GAME = 2;
+    static final byte BAD_REQUEST = 3;
+    /**
+     * The command threw on the server; the game is left as the failure found it.
+     */
+    static final byte FAILED = 4;
+
+    static final int LENGTH_BYTES = Integer.BYTES;
+    /**
+     * Largest accepted payload; a peer announcing more is disconnected.
+     */
+    static final int MAX_FRAME = 4096;
+
+    private static final int STATE_BYTES = Long.BYTES + 4 + Position.SQUARE_COUNT;
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final Color[] COLORS = Color.values();
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    /**
+     * A decoded response; {@code state} is {@code null} unless the code is
+     * {@link #OK} or {@link #REJECTED}.
+     */
+    record Response(byte code, MoveResult result, GameState state) {
+    }
+
+    private Protocol() {
+    }
+
+    static ByteBuffer request(byte op, int requestId, long gameId) {
+        int length = 1 + Integer.BYTES + (op == CREATE ? 0 : Long.BYTES) + (op == PLAY ? 2 : 0);
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + length);
+        frame.putInt(length).put(op).putInt(requestId);
+        if (op != CREATE) {
+            frame.putLong(gameId);
+        }
+        return frame;
+    }
+
+    /**
+     * A response frame for {@code game}, which must only be read by the thread
+     * that owns it.
+     */
+    static ByteBuffer response(byte op, int requestId, long gameId, MoveResult result, Game game) {
+        byte code = result.success() ? OK : REJECTED;
+        ByteBuffer frame = header(op, requestId, code, result.message(), result.check(), STATE_BYTES);
+        return putState(frame, gameId, game).flip();
+    }
+
+    /**
+     * The encoded state of {@code game}, kept to answer for it after it is
+     * no longer hosted; same threading rule as {@link #response(byte, int, long, MoveResult, Game)}.
+     */
+    static byte[] state(long gameId, Game game) {
+        return putState(ByteBuffer.allocate(STATE_BYTES), gameId, game).array();
+    }
+
+    /**
+     * A response frame carrying a state from {@link #state(long, Game)}.
+     */
+    static ByteBuffer response(byte op, int requestId, MoveResult result, byte[] state) {
+        byte code = result.success() ? OK : REJECTED;
+        return header(op, requestId, code, result.message(), result.check(), STATE_BYTES).put(state).flip();
+    }
+
+    private static ByteBuffer putState(ByteBuffer frame, long gameId, Game game) {
+        frame.putLong(gameId)
+                .put((byte) game.getStatus().ordinal())
+                .put((byte) game.getActiveColor().ordinal())
+                .put(colorCode(game.getWinner()))
+                .put(colorCode(game.getDrawOfferedBy()));
+        Board board = game.getBoard();
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            frame.put(pieceCode(board.pieceAt(square)));
+        }
+        return frame;
+    }
+
+    static ByteBuffer error(byte op, int requestId, byte code, String message) {
+        return header(op, requestId, code, message, false, 0).flip();
+    }
+
+    private static ByteBuffer header(byte op, int requestId, byte code, String message, boolean check, int extra) {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Integer.BYTES + 1 + Short.BYTES + text.length + 1 + extra;
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + length);
+        return frame.putInt(length).put(op).putInt(requestId).put(code)
+                .putShort((short) text.length).put(text).put((byte) (check ? 1 : 0));
+    }
+
+    /**
+     * Reads the message and, for {@link #OK} and {@link #REJECTED}, the state
+     * of a response payload positioned after its code.
+     */
+    static Response readResponse(byte code, ByteBuffer payload) {
+        byte[] text = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(text);
+        boolean check = payload.get() != 0;
+        MoveResult result = new MoveResult(code == OK, new String(text, StandardCharsets.UTF_8), check);
+        if (code != OK && code != REJECTED) {
+            return new Response(code, result, null);
+        }
+        long gameId = payload.getLong();
+        GameStatus status = STATUSES[payload.get()];
+        Color active = COLORS[payload.get()];
+        Color winner = color(payload.get());
+        Color drawOfferedBy = color(payload.get());
+        Board board = new Board();
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            board.set(square, piece(payload.get()));
+        }
+        return new Response(code, result, new GameState(gameId, status, active, winner, drawOfferedBy, board));
+    }
+
+    static byte pieceCode(Piece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        return (byte) (1 + (piece.type().ordinal() * 2 + piece.color().ordinal()) * 2 + (piece.hasMoved() ? 1 : 0));
+    }
+
+    static Piece piece(int code) {
+        if (code == 0) {
+            return null;
+        }
+        int value = code - 1;
+        return Piece.of(TYPES[value >> 2], COLORS[(value >> 1) & 1], (value & 1) != 0);
+    }
+
+    private static byte colorCode(Color color) {
+        return color == null ? -1 : (byte) color.ordinal();
+    }
+
+    private static Color color(byte code) {
+        return code < 0 ? null : COLORS[code];
+    }
+}
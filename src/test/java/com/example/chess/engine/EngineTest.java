@@ -0,0 +1,173 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EngineTest {
+
+    @Test
+    void findsMateInOne() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("A9"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B8"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        Game game = new Game(board, Color.WHITE);
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        assertThat(result.bestMove()).isEqualTo(move("B8", "B10"));
+        assertThat(result.score()).isEqualTo(Engine.MATE_SCORE - 1);
+        assertThat(result.isMateScore()).isTrue();
+        assertThat(game.playMove(result.bestMove()).message()).containsIgnoringCase("checkmate");
+    }
+
+    @Test
+    void capturesUndefendedQueen() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("C1"), new Piece(PieceType.KNIGHT, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("D4"), new Piece(PieceType.QUEEN, Color.BLACK, false));
+        Game game = new Game(board, Color.WHITE);
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(2));
+
+        assertThat(result.bestMove()).isEqualTo(move("C1", "D4"));
+    }
+
+    @Test
+    void loverIsNotTreatedAsGivingCheck() {
+        // Black's only piece next to the white king is a Lover: no check, so White
+        // is stalemated only if it has no moves at all - here the king can step away.
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B2"), new Piece(PieceType.LOVER, Color.BLACK, true));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        Game game = new Game(board, Color.WHITE);
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(2));
+
+        assertThat(result.bestMove()).isEqualTo(move("A1", "B2"));
+    }
+
+    @Test
+    void searchLeavesCallerGameUntouched() {
+        Game game = new Game();
+        long key = game.getPositionKey();
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        assertThat(game.getPositionKey()).isEqualTo(key);
+        assertThat(game.getActiveColor()).isEqualTo(Color.WHITE);
+        assertThat(result.depth()).isEqualTo(3);
+        assertThat(result.principalVariation()).isNotEmpty();
+        assertThat(result.principalVariation().get(0)).isEqualTo(result.bestMove());
+        assertThat(game.playMove(result.bestMove()).success()).isTrue();
+    }
+
+    @Test
+    void checkmatedSideHasNoBestMove() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("A9"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B10"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        Game game = new Game(board, Color.BLACK);
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(2));
+
+        assertThat(result.bestMove()).isNull();
+        assertThat(result.score()).isEqualTo(-Engine.MATE_SCORE);
+    }
+
+    @Test
+    void loverNextToTheKingIsSearchedWithoutCapturingIt() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("F1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("E2"), new Piece(PieceType.LOVER, Color.BLACK, false));
+        Game game = new Game(board, Color.BLACK);
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(2));
+
+        assertThat(result.bestMove()).isNotNull();
+        assertThat(result.bestMove().to()).isNotEqualTo(Position.fromAlgebraic("F1"));
+        assertThat(game.playMove(result.bestMove()).success()).isTrue();
+    }
+
+    @Test
+    void sideWithoutAKingIsScoredAsMated() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J9"), new Piece(PieceType.PAWN, Color.BLACK, false));
+
+        SearchResult black = new Engine().search(new Game(board.copy(), Color.BLACK), SearchLimits.depth(2));
+        SearchResult white = new Engine().search(new Game(board, Color.WHITE), SearchLimits.depth(2));
+
+        assertThat(black.bestMove()).isNull();
+        assertThat(black.score()).isEqualTo(-Engine.MATE_SCORE);
+        assertThat(white.bestMove()).isNotNull();
+        assertThat(white.score()).isEqualTo(Engine.MATE_SCORE - 1);
+    }
+
+    @Test
+    void nodeLimitStopsSearchWithAPlayableMove() {
+        Game game = new Game();
+
+        SearchResult result = new Engine().search(game, SearchLimits.nodes(5_000));
+
+        assertThat(result.nodes()).isLessThan(5_000L + 1024);
+        assertThat(result.bestMove()).isNotNull();
+        assertThat(game.playMove(result.bestMove()).success()).isTrue();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.ONGOING);
+    }
+
+    @Test
+    void parallelSearchReturnsLegalMoveAndCountsHelperNodes() {
+        Game game = new Game();
+        try (Engine engine = new Engine(new TranspositionTable(8), 4)) {
+            SearchResult result = engine.search(game, SearchLimits.depth(4));
+
+            assertThat(engine.threads()).isEqualTo(4);
+            assertThat(result.depth()).isEqualTo(4);
+            assertThat(game.playMove(result.bestMove()).success()).isTrue();
+        }
+    }
+
+    @Test
+    void parallelSearchFindsMateInOne() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("A9"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B8"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        Game game = new Game(board, Color.WHITE);
+
+        try (Engine engine = new Engine(new TranspositionTable(1), 3)) {
+            assertThat(engine.search(game, SearchLimits.depth(3)).bestMove()).isEqualTo(move("B8", "B10"));
+        }
+    }
+
+    @Test
+    void nodesPerSecondSurvivesLongSearches() {
+        SearchResult result = new SearchResult(null, 0, List.of(), 30, 20_000_000_000L, Duration.ofSeconds(10));
+        assertThat(result.nodesPerSecond()).isEqualTo(2_000_000_000L);
+    }
+
+    private static Move move(String from, String to) {
+        return new Move(Position.fromAlgebraic(from), Position.fromAlgebraic(to));
+    }
+}
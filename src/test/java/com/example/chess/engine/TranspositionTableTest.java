@@ -0,0 +1,136 @@
+package com.example.chess.engine;
+
+import com.example.chess.game.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranspositionTableTest {
+
+    @Test
+    void storedEntryCanBeProbed() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = new Game().getPositionKey();
+        int move = TranspositionTable.encodeMove(52, 72);
+
+        table.store(key, 7, TranspositionTable.BOUND_LOWER, -1234, move);
+        long data = table.probe(key);
+
+        assertThat(data).isNotEqualTo(0L);
+        assertThat(TranspositionTable.depth(data)).isEqualTo(7);
+        assertThat(TranspositionTable.bound(data)).isEqualTo(TranspositionTable.BOUND_LOWER);
+        assertThat(TranspositionTable.score(data)).isEqualTo(-1234);
+        assertThat(TranspositionTable.moveFrom(TranspositionTable.move(data))).isEqualTo(52);
+        assertThat(TranspositionTable.moveTo(TranspositionTable.move(data))).isEqualTo(72);
+    }
+
+    @Test
+    void unknownKeyMisses() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        assertThat(table.probe(0x1234L)).isEqualTo(0L);
+        assertThat(table.stats().probes()).isEqualTo(1);
+        assertThat(table.stats().hits()).isEqualTo(0);
+    }
+
+    @Test
+    void shallowResultDoesNotReplaceDeepEntryOfSamePosition() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, 10, TranspositionTable.BOUND_EXACT, 50, 0);
+
+        table.store(42L, 3, TranspositionTable.BOUND_UPPER, -10, 0);
+
+        assertThat(TranspositionTable.depth(table.probe(42L))).isEqualTo(10);
+    }
+
+    @Test
+    void storeWithoutMoveKeepsPreviousBestMove() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = TranspositionTable.encodeMove(12, 32);
+        table.store(42L, 2, TranspositionTable.BOUND_LOWER, 5, move);
+
+        table.store(42L, 4, TranspositionTable.BOUND_UPPER, 1, 0);
+
+        assertThat(TranspositionTable.move(table.probe(42L))).isEqualTo(move);
+    }
+
+    @Test
+    void fullBucketEvictsShallowestStaleEntryAndCountsCollision() {
+        TranspositionTable table = new TranspositionTable(1);
+        long stride = (long) table.capacity() / 4;
+        // Keys congruent modulo the bucket count (low 32 bits) share a bucket.
+        long[] keys = {1L, 1L + stride, 1L + 2 * stride, 1L + 3 * stride, 1L + 4 * stride};
+        table.store(keys[0], 9, TranspositionTable.BOUND_EXACT, 0, 0);
+        table.store(keys[1], 1, TranspositionTable.BOUND_EXACT, 0, 0);
+        table.store(keys[2], 9, TranspositionTable.BOUND_EXACT, 0, 0);
+        table.store(keys[3], 9, TranspositionTable.BOUND_EXACT, 0, 0);
+
+        table.store(keys[4], 5, TranspositionTable.BOUND_EXACT, 0, 0);
+
+        assertThat(table.probe(keys[1])).isEqualTo(0L);
+        assertThat(table.probe(keys[4])).isNotEqualTo(0L);
+        assertThat(table.stats().collisions()).isEqualTo(1);
+    }
+
+    @Test
+    void olderGenerationsAreEvictedFirst() {
+        TranspositionTable table = new TranspositionTable(1);
+        long stride = (long) table.capacity() / 4;
+        table.store(1L, 20, TranspositionTable.BOUND_EXACT, 0, 0);
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        for (int i = 1; i <= 4; i++) {
+            table.store(1L + i * stride, 5, TranspositionTable.BOUND_EXACT, 0, 0);
+        }
+
+        assertThat(table.probe(1L)).isEqualTo(0L);
+    }
+
+    @Test
+    void hitRateReflectsProbes() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(7L, 1, TranspositionTable.BOUND_EXACT, 0, 0);
+        table.probe(7L);
+        table.probe(8L);
+
+        assertThat(table.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void concurrentWritersNeverProduceCorruptHits() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupt = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong(50_000) * 0x9E3779B97F4A7C15L;
+                    long data = table.probe(key);
+                    if (data != 0 && TranspositionTable.score(data) != expectedScore(key)) {
+                        corrupt.incrementAndGet();
+                    }
+                    table.store(key, random.nextInt(20), TranspositionTable.BOUND_EXACT, expectedScore(key), 0);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(corrupt.get()).isEqualTo(0);
+        assertThat(table.stats().hits()).isGreaterThan(0L);
+    }
+
+    private static int expectedScore(long key) {
+        return (short) (key >>> 48);
+    }
+}
@@ -5,16 +5,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ChessClockTest {
 
+    private final VirtualTimeSource time = new VirtualTimeSource();
     private ChessClock clock;
 
     @BeforeEach
     void setUp() {
-        clock = new ChessClock(Duration.ofMinutes(5));
+        clock = new ChessClock(Duration.ofMinutes(5), time);
     }
 
     @Test
@@ -103,4 +110,161 @@ class ChessClockTest {
         String output = clock.toString();
         assertThat(output).contains("WHITE");
     }
+
+    @Test
+    void runningClockCountsDown() {
+        clock.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(20));
+
+        assertThat(clock.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(280));
+        assertThat(clock.getRemaining(Color.BLACK)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void timeIsUpExactlyWhenItRunsOut() {
+        clock.start(Color.WHITE);
+
+        time.advance(Duration.ofMinutes(5).minusNanos(1));
+        assertThat(clock.isTimeUp(Color.WHITE)).isFalse();
+        assertThat(clock.getRemaining(Color.WHITE)).isEqualTo(Duration.ofMillis(1));
+
+        time.advance(Duration.ofNanos(1));
+        assertThat(clock.isTimeUp(Color.WHITE)).isTrue();
+        assertThat(clock.formatTime(Color.WHITE)).isEqualTo("00:00");
+    }
+
+    @Test
+    void pausedTimeIsNotCharged() {
+        clock.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(10));
+        clock.pause();
+        time.advance(Duration.ofMinutes(10));
+        clock.resume();
+        time.advance(Duration.ofSeconds(5));
+
+        assertThat(clock.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(285));
+    }
+
+    @Test
+    void readsDoNotChangeTheClock() {
+        clock.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(3));
+
+        Duration first = clock.getRemaining(Color.WHITE);
+        clock.isTimeUp(Color.WHITE);
+        clock.formatTime(Color.WHITE);
+        clock.toString();
+
+        assertThat(clock.getRemaining(Color.WHITE)).isEqualTo(first);
+        assertThat(first).isEqualTo(Duration.ofSeconds(297));
+    }
+
+    @Test
+    void fischerIncrementIsCreditedToTheMover() {
+        ChessClock fischer = new ChessClock(Duration.ofMinutes(1), ChessClock.Mode.FISCHER,
+                Duration.ofSeconds(2), time);
+        fischer.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(5));
+
+        fischer.switchClock();
+
+        assertThat(fischer.getMode()).isEqualTo(ChessClock.Mode.FISCHER);
+        assertThat(fischer.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(57));
+        assertThat(fischer.getRemaining(Color.BLACK)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void switchBackRemovesTheMoversIncrement() {
+        ChessClock fischer = new ChessClock(Duration.ofMinutes(1), ChessClock.Mode.FISCHER,
+                Duration.ofSeconds(2), time);
+        fischer.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(5));
+        fischer.switchClock();
+        time.advance(Duration.ofSeconds(3));
+
+        fischer.switchBack();
+
+        assertThat(fischer.getRunningClock()).isEqualTo(Color.WHITE);
+        assertThat(fischer.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(55));
+        assertThat(fischer.getRemaining(Color.BLACK)).isEqualTo(Duration.ofSeconds(57));
+    }
+
+    @Test
+    void flaggedPlayerGetsNoIncrement() {
+        ChessClock fischer = new ChessClock(Duration.ZERO, ChessClock.Mode.FISCHER, Duration.ofSeconds(2), time);
+        fischer.start(Color.WHITE);
+
+        fischer.switchClock();
+
+        assertThat(fischer.isTimeUp(Color.WHITE)).isTrue();
+    }
+
+    @Test
+    void delayHoldsTheClockAtTheStartOfEachTurn() {
+        ChessClock delayed = new ChessClock(Duration.ofMinutes(1), ChessClock.Mode.DELAY,
+                Duration.ofSeconds(10), time);
+        delayed.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(8));
+
+        assertThat(delayed.getRemaining(Color.WHITE)).isEqualTo(Duration.ofMinutes(1));
+
+        time.advance(Duration.ofSeconds(5));
+        delayed.switchClock();
+        time.advance(Duration.ofSeconds(4));
+
+        assertThat(delayed.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(57));
+        assertThat(delayed.getRemaining(Color.BLACK)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void delayLeftOverSurvivesAPause() {
+        ChessClock delayed = new ChessClock(Duration.ofMinutes(1), ChessClock.Mode.DELAY,
+                Duration.ofSeconds(10), time);
+        delayed.start(Color.WHITE);
+        time.advance(Duration.ofSeconds(6));
+        delayed.pause();
+        time.advance(Duration.ofMinutes(1));
+        delayed.resume();
+        time.advance(Duration.ofSeconds(6));
+
+        assertThat(delayed.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(58));
+    }
+
+    @Test
+    void readersOnOtherThreadsNeverSeeTimeGoBack() throws Exception {
+        // a switch timed just before a read may land just after it, hence the slack
+        Duration slack = Duration.ofMillis(50);
+        clock = new ChessClock(Duration.ofMinutes(5));
+        clock.start(Color.WHITE);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                results.add(readers.submit(() -> {
+                    Duration lastWhite = clock.getRemaining(Color.WHITE);
+                    Duration lastBlack = clock.getRemaining(Color.BLACK);
+                    boolean monotonic = true;
+                    while (!done.get()) {
+                        Duration white = clock.getRemaining(Color.WHITE);
+                        Duration black = clock.getRemaining(Color.BLACK);
+                        monotonic &= white.compareTo(lastWhite.plus(slack)) <= 0
+                                && black.compareTo(lastBlack.plus(slack)) <= 0;
+                        lastWhite = white;
+                        lastBlack = black;
+                    }
+                    return monotonic;
+                }));
+            }
+            for (int i = 0; i < 20_000; i++) {
+                clock.switchClock();
+            }
+            done.set(true);
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
 }
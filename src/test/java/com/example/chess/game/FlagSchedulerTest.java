@@ -0,0 +1,139 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Color;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlagSchedulerTest {
+
+    private FlagScheduler scheduler = new FlagScheduler();
+
+    @AfterEach
+    void stop() {
+        scheduler.close();
+    }
+
+    @Test
+    void firesNoEarlierThanItsDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long[] firedAt = new long[1];
+        long start = System.nanoTime();
+
+        scheduler.schedule(Duration.ofMillis(20), () -> {
+            firedAt[0] = System.nanoTime();
+            fired.countDown();
+        });
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt[0] - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException {
+        AtomicBoolean cancelledRan = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+
+        FlagScheduler.Timeout timeout = scheduler.schedule(Duration.ofMillis(20), () -> cancelledRan.set(true));
+        scheduler.schedule(Duration.ofMillis(60), later::countDown);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(later.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelledRan.get()).isFalse();
+        assertThat(timeout.isCancelled()).isTrue();
+    }
+
+    @Test
+    void manyTimeoutsAcrossSeveralWheelsFireOnceAndNeverEarly() throws InterruptedException {
+        scheduler.close();
+        // 10 µs ticks put 1.5 s beyond the second wheel, so timeouts cascade twice
+        scheduler = new FlagScheduler(Duration.ofNanos(10_000));
+        int count = 100_000;
+        AtomicInteger early = new AtomicInteger();
+        AtomicInteger firedCancelled = new AtomicInteger();
+        CountDownLatch remaining = new CountDownLatch(count / 2);
+
+        for (int i = 0; i < count; i++) {
+            long delay = ThreadLocalRandom.current().nextLong(TimeUnit.MILLISECONDS.toNanos(1500));
+            long due = System.nanoTime() + delay;
+            boolean cancel = i % 2 == 1;
+            FlagScheduler.Timeout timeout = scheduler.schedule(Duration.ofNanos(delay), () -> {
+                if (cancel) {
+                    firedCancelled.incrementAndGet();
+                }
+                if (System.nanoTime() < due) {
+                    early.incrementAndGet();
+                }
+                remaining.countDown();
+            });
+            if (cancel) {
+                timeout.cancel();
+            }
+        }
+
+        assertThat(remaining.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(early.get()).isZero();
+        assertThat(firedCancelled.get()).isZero();
+    }
+
+    @Test
+    void idlePlayerLosesOnTime() throws InterruptedException {
+        CountDownLatch flagFell = new CountDownLatch(1);
+        Game game = new Game();
+
+        game.enableClock(Duration.ofMillis(50), scheduler, owner(game, flagFell));
+
+        assertThat(flagFell.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.TIME_UP);
+        assertThat(game.getWinner()).isEqualTo(Color.BLACK);
+        assertThat(game.playMove("E2-E4").success()).isFalse();
+    }
+
+    @Test
+    void moveHandsTheFlagToTheOpponent() throws InterruptedException {
+        CountDownLatch flagFell = new CountDownLatch(1);
+        Game game = new Game();
+        game.enableClock(Duration.ofMillis(200), scheduler, owner(game, flagFell));
+
+        assertThat(game.playMove("E2-E4").success()).isTrue();
+
+        assertThat(flagFell.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.TIME_UP);
+        assertThat(game.getWinner()).isEqualTo(Color.WHITE);
+    }
+
+    @Test
+    void pausedClockDoesNotFlag() throws InterruptedException {
+        CountDownLatch flagFell = new CountDownLatch(1);
+        Game game = new Game();
+        game.enableClock(Duration.ofMillis(50), scheduler, owner(game, flagFell));
+
+        game.offerDraw();
+
+        assertThat(flagFell.await(150, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.ONGOING);
+    }
+
+    /**
+     * Runs flag falls on the scheduler thread and counts down once one ends the
+     * game, which also publishes the game state to the test thread.
+     */
+    private static Executor owner(Game game, CountDownLatch flagFell) {
+        return command -> {
+            command.run();
+            if (game.isGameOver()) {
+                flagFell.countDown();
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.example.chess.game;
 import com.example.chess.model.Board;
 import com.example.chess.model.Color;
 import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
 import com.example.chess.model.Piece;
 import com.example.chess.model.PieceType;
 import com.example.chess.model.Position;
@@ -11,6 +12,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -43,6 +47,17 @@ class GameTest {
         assertThat(second.success()).isFalse(); // 2+1 is not allowed
     }
 
+    @Test
+    void badMoveTextIsReportedInPlayerTerms() {
+        Game game = new Game();
+
+        assertThat(game.playMove("K2 K4").message()).isEqualTo("Invalid notation: K2");
+        assertThat(game.playMove("e2 e11").message()).isEqualTo("Invalid notation: E11");
+        assertThat(game.playMove("E2E4").message()).isEqualTo("Use notation like A2 A3 or A2-A3");
+        assertThat(game.playMove("  ").message()).isEqualTo("Empty move");
+        assertThat(game.getMoveHistory()).isEmpty();
+    }
+
     @Test
     void bishopCannotExceedSixSquares() {
         Board board = new Board();
@@ -81,6 +96,22 @@ class GameTest {
         assertThat(game.isInCheck(board, Color.WHITE)).isTrue();
     }
 
+    @Test
+    void loverCannotCaptureTheKing() {
+        Game game = Game.fromNotation("5k4/10/10/10/10/10/10/10/4l5/5K4 b -");
+        MoveList legal = new MoveList();
+
+        game.generateLegalMoves(legal);
+        MoveResult result = game.playMove("E2 F1");
+
+        assertThat(result.success()).isFalse();
+        for (int i = 0; i < legal.size(); i++) {
+            assertThat(PackedMove.captured(legal.move(i))).isNotEqualTo(PieceType.KING);
+        }
+        assertThat(game.playMove("E2 F2").success()).isTrue();
+        assertThat(game.getBoard().kingSquare(Color.WHITE)).isEqualTo(Position.fromAlgebraic("F1").index());
+    }
+
     @Test
     void moveThatExposesKingIsRejected() {
         Board board = new Board();
@@ -279,6 +310,163 @@ class GameTest {
         assertThat(result.success()).isFalse();
     }
 
+    // ======================= TAKEBACK TESTS =======================
+
+    @Test
+    void takebackRestoresBoardAndTurn() {
+        Game game = new Game();
+        game.playMove("E2 E4");
+
+        MoveResult result = game.takeback();
+
+        assertThat(result.success()).isTrue();
+        assertThat(game.getActiveColor()).isEqualTo(Color.WHITE);
+        assertThat(game.getBoard().get(Position.fromAlgebraic("E4"))).isEmpty();
+        assertThat(game.getBoard().get(Position.fromAlgebraic("E2")).orElseThrow().hasMoved()).isFalse();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.ONGOING);
+    }
+
+    @Test
+    void takebackWithoutMovesFails() {
+        Game game = new Game();
+
+        assertThat(game.takeback().success()).isFalse();
+    }
+
+    @Test
+    void takebackUndoesCheckmate() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("A9"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B8"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        Game game = new Game(board, Color.WHITE);
+
+        game.playMove("B8 B10");
+        assertThat(game.getStatus()).isEqualTo(GameStatus.CHECKMATE);
+
+        MoveResult result = game.takeback();
+
+        assertThat(result.success()).isTrue();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.ONGOING);
+        assertThat(game.getWinner()).isNull();
+        assertThat(game.getBoard().get(Position.fromAlgebraic("B8"))).isPresent();
+    }
+
+    @Test
+    void takebackAfterResignFails() {
+        Game game = new Game();
+        game.playMove("A2 A3");
+        game.resign();
+
+        assertThat(game.takeback().success()).isFalse();
+    }
+
+    @Test
+    void takebackRevertsCastling() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.LOVER, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B1"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F10"), new Piece(PieceType.KING, Color.BLACK, false));
+        Game game = new Game(board, Color.WHITE);
+        game.playMove("F1 D1");
+
+        game.takeback();
+
+        assertThat(game.getBoard().get(Position.fromAlgebraic("F1")).orElseThrow().hasMoved()).isFalse();
+        assertThat(game.getBoard().get(Position.fromAlgebraic("B1")).orElseThrow().type()).isEqualTo(PieceType.ROOK);
+        assertThat(game.getBoard().get(Position.fromAlgebraic("E1"))).isEmpty();
+    }
+
+    @Test
+    void moveHistoryListsPlayedMovesOldestFirst() {
+        Game game = new Game();
+        game.playMove("E2 E4");
+        game.playMove("E9 E7");
+        game.playMove("D2 D4");
+        game.playMove("A9 A7");
+
+        game.takeback();
+
+        assertThat(game.getMoveHistory()).containsExactly(
+                new Move(Position.fromAlgebraic("E2"), Position.fromAlgebraic("E4")),
+                new Move(Position.fromAlgebraic("E9"), Position.fromAlgebraic("E7")),
+                new Move(Position.fromAlgebraic("D2"), Position.fromAlgebraic("D4")));
+    }
+
+    // ======================= POSITION KEY TESTS =======================
+
+    @Test
+    void positionKeyIncludesSideToMove() {
+        Game white = new Game(Board.initialSetup(), Color.WHITE);
+        Game black = new Game(Board.initialSetup(), Color.BLACK);
+
+        assertThat(white.getPositionKey()).isNotEqualTo(black.getPositionKey());
+    }
+
+    @Test
+    void transposedMoveOrdersReachTheSameKey() {
+        Game first = new Game();
+        first.playMove("C1 D4");
+        first.playMove("C10 D7");
+        first.playMove("E2 E4");
+        Game second = new Game();
+        second.playMove("E2 E4");
+        second.playMove("C10 D7");
+        second.playMove("C1 D4");
+
+        assertThat(first.getPositionKey()).isEqualTo(second.getPositionKey());
+    }
+
+    @Test
+    void takebackRestoresPositionKey() {
+        Game game = new Game();
+        long initial = game.getPositionKey();
+        game.playMove("E2 E4");
+
+        game.takeback();
+
+        assertThat(game.getPositionKey()).isEqualTo(initial);
+    }
+
+    // ======================= SEARCH PRIMITIVE TESTS =======================
+
+    @Test
+    void generateLegalMovesIncludesCastlingAndSkipsPinnedMoves() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.LOVER, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B1"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F2"), new Piece(PieceType.KNIGHT, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F10"), new Piece(PieceType.ROOK, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        Game game = new Game(board, Color.WHITE);
+        MoveList buffer = new MoveList();
+
+        game.generateLegalMoves(buffer);
+
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            moves.add(buffer.toMove(i));
+        }
+        assertThat(moves).contains(new Move(Position.fromAlgebraic("F1"), Position.fromAlgebraic("D1")));
+        assertThat(moves).doesNotContain(new Move(Position.fromAlgebraic("F2"), Position.fromAlgebraic("E5")));
+    }
+
+    @Test
+    void makeAndUnmakeMoveRestorePositionAndTurn() {
+        Game game = new Game();
+        long key = game.getPositionKey();
+
+        game.makeMove(Position.fromAlgebraic("E2").index(), Position.fromAlgebraic("E4").index());
+        assertThat(game.getActiveColor()).isEqualTo(Color.BLACK);
+        game.unmakeMove();
+
+        assertThat(game.getActiveColor()).isEqualTo(Color.WHITE);
+        assertThat(game.getPositionKey()).isEqualTo(key);
+    }
+
     // ======================= CASTLING TESTS =======================
     
     @Test
@@ -473,6 +661,100 @@ class GameTest {
         assertThat(game.getClock().isPaused()).isFalse();
     }
 
+    @Test
+    void takebackWithdrawsADrawOfferAndRestartsTheClock() {
+        VirtualTimeSource time = new VirtualTimeSource();
+        Game game = new Game();
+        game.enableClock(Duration.ofMinutes(5), time);
+        game.playMove("E2 E4");
+        game.offerDraw();
+
+        assertThat(game.takeback().success()).isTrue();
+        time.advance(Duration.ofMinutes(1));
+
+        assertThat(game.isDrawOffered()).isFalse();
+        assertThat(game.getClock().isPaused()).isFalse();
+        assertThat(game.getClock().getRunningClock()).isEqualTo(Color.WHITE);
+        assertThat(game.getClock().getRemaining(Color.WHITE)).isEqualTo(Duration.ofMinutes(4));
+    }
+
+    @Test
+    void resetSetsUpTheSameBoardAgain() {
+        Game game = new Game();
+        Board board = game.getBoard();
+        long initialKey = game.getPositionKey();
+        game.playMove("E2 E4");
+        game.playMove("E9 E7");
+        game.playMove("D1 G4");
+
+        game.reset();
+
+        assertThat(game.getBoard()).isSameAs(board);
+        assertThat(game.getPositionKey()).isEqualTo(initialKey);
+        assertThat(game.toNotation()).isEqualTo(new Game().toNotation());
+        assertThat(board.undoDepth()).isZero();
+        assertThat(game.getMoveHistory()).isEmpty();
+        assertThat(game.playMove("E2 E4").success()).isTrue();
+    }
+
+    @Test
+    void resetKeepsTheClockSettings() {
+        VirtualTimeSource time = new VirtualTimeSource();
+        Game game = new Game();
+        game.enableClock(Duration.ofMinutes(3), time);
+        time.advance(Duration.ofSeconds(20));
+        game.playMove("E2-E4");
+
+        game.reset();
+        time.advance(Duration.ofSeconds(5));
+
+        ChessClock clock = game.getClock();
+        assertThat(clock.getTimeSource()).isSameAs(time);
+        assertThat(clock.getTimePerPlayer()).isEqualTo(Duration.ofMinutes(3));
+        assertThat(clock.getRunningClock()).isEqualTo(Color.WHITE);
+        assertThat(clock.getRemaining(Color.WHITE)).isEqualTo(Duration.ofSeconds(175));
+        assertThat(clock.getRemaining(Color.BLACK)).isEqualTo(Duration.ofMinutes(3));
+    }
+
+    @Test
+    void moveAfterTimeRunsOutLosesOnTime() {
+        VirtualTimeSource time = new VirtualTimeSource();
+        Game game = new Game();
+        game.enableClock(Duration.ofMinutes(1), time);
+
+        time.advance(Duration.ofSeconds(59));
+        assertThat(game.playMove("E2-E4").success()).isTrue();
+        time.advance(Duration.ofSeconds(60));
+
+        assertThat(game.playMove("E9-E7").success()).isFalse();
+        assertThat(game.getStatus()).isEqualTo(GameStatus.TIME_UP);
+        assertThat(game.getWinner()).isEqualTo(Color.WHITE);
+    }
+
+    @Test
+    void simulatedTimedGamesRunInParallelOnVirtualTime() {
+        String[] line = {"E2-E4", "E9-E7", "D2-D4", "D9-D7", "C2-C4", "C9-C7"};
+        // every move takes g % 30 + 1 seconds of a one-minute clock: from 20 s per
+        // move on, White's flag falls before the line is done
+        long mismatches = IntStream.range(0, 3_000).parallel().filter(g -> {
+            Duration perMove = Duration.ofSeconds(g % 30 + 1);
+            VirtualTimeSource time = new VirtualTimeSource();
+            Game game = new Game();
+            game.enableClock(Duration.ofMinutes(1), time);
+            for (String move : line) {
+                time.advance(perMove);
+                if (!game.playMove(move).success()) {
+                    break;
+                }
+            }
+            GameStatus expected = perMove.getSeconds() >= 20 ? GameStatus.TIME_UP : GameStatus.ONGOING;
+            return game.getStatus() != expected
+                    || (expected == GameStatus.TIME_UP && game.getWinner() != Color.BLACK);
+        }).count();
+
+        assertThat(mismatches).isZero();
+    }
+
     // ======================= GAME STATUS TESTS =======================
     
     @Test
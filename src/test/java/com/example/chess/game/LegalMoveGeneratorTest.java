@@ -0,0 +1,179 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LegalMoveGeneratorTest {
+
+    private final LegalMoveGenerator generator = new LegalMoveGenerator();
+
+    @Test
+    void randomPositionsMatchSimulatedMoves() {
+        Random random = new Random(450);
+        PieceType[] types = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT,
+                PieceType.PAWN, PieceType.LOVER};
+        for (int n = 0; n < 300; n++) {
+            Board board = new Board();
+            board.set(Position.fromIndex(random.nextInt(Position.SQUARE_COUNT)),
+                    new Piece(PieceType.KING, Color.WHITE, true));
+            int blackKing;
+            do {
+                blackKing = random.nextInt(Position.SQUARE_COUNT);
+            } while (board.pieceAt(blackKing) != null);
+            board.set(Position.fromIndex(blackKing), new Piece(PieceType.KING, Color.BLACK, true));
+            int pieces = 4 + random.nextInt(30);
+            for (int i = 0; i < pieces; i++) {
+                int square = random.nextInt(Position.SQUARE_COUNT);
+                if (board.pieceAt(square) == null) {
+                    Color color = random.nextBoolean() ? Color.WHITE : Color.BLACK;
+                    board.set(Position.fromIndex(square), new Piece(types[random.nextInt(types.length)], color, true));
+                }
+            }
+            assertMatchesSimulation(board, Color.WHITE);
+            assertMatchesSimulation(board, Color.BLACK);
+        }
+    }
+
+    @Test
+    void randomGamesMatchSimulatedMoves() {
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        for (int n = 0; n < 20; n++) {
+            Game game = new Game();
+            for (int ply = 0; ply < 60; ply++) {
+                Board board = game.getBoard();
+                assertThat(board.kingSquare(Color.WHITE)).isGreaterThanOrEqualTo(0);
+                assertThat(board.kingSquare(Color.BLACK)).isGreaterThanOrEqualTo(0);
+                assertMatchesSimulation(board, game.getActiveColor());
+                game.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int pick = random.nextInt(moves.size());
+                game.makeMove(moves.from(pick), moves.to(pick));
+            }
+        }
+    }
+
+    @Test
+    void doubleCheckAllowsOnlyKingMoves() {
+        Board board = new Board();
+        board.set(at("E1"), new Piece(PieceType.KING, Color.WHITE, true));
+        board.set(at("D1"), new Piece(PieceType.ROOK, Color.WHITE, true));
+        board.set(at("E8"), new Piece(PieceType.ROOK, Color.BLACK, true));
+        board.set(at("F4"), new Piece(PieceType.KNIGHT, Color.BLACK, true));
+        board.set(at("J10"), new Piece(PieceType.KING, Color.BLACK, true));
+
+        Set<Move> moves = legalMoves(board, Color.WHITE);
+
+        assertThat(moves).isNotEmpty();
+        assertThat(moves.stream().allMatch(m -> m.from().equals(at("E1")))).isTrue();
+        assertThat(moves).doesNotContain(new Move(at("E1"), at("E2")));
+    }
+
+    @Test
+    void loverCanBlockCheck() {
+        Board board = new Board();
+        board.set(at("A1"), new Piece(PieceType.KING, Color.WHITE, true));
+        board.set(at("A2"), new Piece(PieceType.PAWN, Color.WHITE, true));
+        board.set(at("B2"), new Piece(PieceType.PAWN, Color.WHITE, true));
+        board.set(at("D2"), new Piece(PieceType.LOVER, Color.WHITE, true));
+        board.set(at("J1"), new Piece(PieceType.ROOK, Color.BLACK, true));
+        board.set(at("J10"), new Piece(PieceType.KING, Color.BLACK, true));
+
+        Set<Move> moves = legalMoves(board, Color.WHITE);
+
+        assertThat(moves).hasSize(3);
+        assertThat(moves).contains(new Move(at("D2"), at("C1")));
+        assertThat(moves).contains(new Move(at("D2"), at("D1")));
+        assertThat(moves).contains(new Move(at("D2"), at("E1")));
+    }
+
+    @Test
+    void pinnedPieceMovesOnlyAlongPinLine() {
+        Board board = new Board();
+        board.set(at("A1"), new Piece(PieceType.KING, Color.WHITE, true));
+        board.set(at("C3"), new Piece(PieceType.QUEEN, Color.WHITE, true));
+        board.set(at("F6"), new Piece(PieceType.BISHOP, Color.BLACK, true));
+        board.set(at("J10"), new Piece(PieceType.KING, Color.BLACK, true));
+
+        Set<Move> moves = legalMoves(board, Color.WHITE);
+
+        assertThat(moves).contains(new Move(at("C3"), at("F6")));
+        assertThat(moves).contains(new Move(at("C3"), at("B2")));
+        assertThat(moves).doesNotContain(new Move(at("C3"), at("C4")));
+    }
+
+    @Test
+    void bishopBeyondItsRangeDoesNotPin() {
+        Board board = new Board();
+        board.set(at("A1"), new Piece(PieceType.KING, Color.WHITE, true));
+        board.set(at("B2"), new Piece(PieceType.ROOK, Color.WHITE, true));
+        board.set(at("H8"), new Piece(PieceType.BISHOP, Color.BLACK, true));
+        board.set(at("J10"), new Piece(PieceType.KING, Color.BLACK, true));
+
+        assertThat(legalMoves(board, Color.WHITE)).contains(new Move(at("B2"), at("B9")));
+    }
+
+    @Test
+    void kingCannotRetreatAlongCheckingLine() {
+        Board board = new Board();
+        board.set(at("E5"), new Piece(PieceType.KING, Color.WHITE, true));
+        board.set(at("E9"), new Piece(PieceType.ROOK, Color.BLACK, true));
+        board.set(at("J10"), new Piece(PieceType.KING, Color.BLACK, true));
+
+        Set<Move> moves = legalMoves(board, Color.WHITE);
+
+        assertThat(moves).doesNotContain(new Move(at("E5"), at("E4")));
+        assertThat(moves).contains(new Move(at("E5"), at("D4")));
+    }
+
+    private Set<Move> legalMoves(Board board, Color color) {
+        MoveList buffer = new MoveList();
+        generator.generate(board, color, buffer);
+        Set<Move> moves = new HashSet<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            moves.add(buffer.toMove(i));
+        }
+        assertThat(moves).hasSize(buffer.size());
+        return moves;
+    }
+
+    /**
+     * Reference: every pseudo-legal move, played and checked with a full scan.
+     */
+    private void assertMatchesSimulation(Board board, Color color) {
+        Game rules = new Game(board, color);
+        MoveList pseudo = new MoveList();
+        MoveGenerator.generate(board, color, pseudo);
+        Set<Move> expected = new HashSet<>();
+        for (int i = 0; i < pseudo.size(); i++) {
+            if (PackedMove.captured(pseudo.move(i)) == PieceType.KING) {
+                continue; // kings are never captured
+            }
+            Board after = board.copy();
+            after.makeMove(pseudo.from(i), pseudo.to(i), after.pieceAt(pseudo.from(i)).withMoved());
+            if (!ReferenceRules.isInCheckByScan(rules, after, color)) {
+                expected.add(pseudo.toMove(i));
+            }
+        }
+        assertThat(legalMoves(board, color)).isEqualTo(expected);
+        assertThat(generator.hasLegalMove(board, color)).isEqualTo(!expected.isEmpty());
+    }
+
+    private static Position at(String square) {
+        return Position.fromAlgebraic(square);
+    }
+}
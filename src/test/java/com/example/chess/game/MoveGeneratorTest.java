@@ -0,0 +1,138 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoveGeneratorTest {
+
+    @Test
+    void initialPositionMatchesBruteForceScan() {
+        Game game = new Game();
+        assertMatchesBruteForce(game, game.getBoard(), Color.WHITE);
+        assertMatchesBruteForce(game, game.getBoard(), Color.BLACK);
+    }
+
+    @Test
+    void randomPositionsMatchBruteForceScan() {
+        Random random = new Random(450);
+        PieceType[] types = PieceType.values();
+        for (int n = 0; n < 200; n++) {
+            Board board = new Board();
+            int pieces = 4 + random.nextInt(40);
+            for (int i = 0; i < pieces; i++) {
+                Position pos = Position.fromIndex(random.nextInt(Position.SQUARE_COUNT));
+                Color color = random.nextBoolean() ? Color.WHITE : Color.BLACK;
+                board.set(pos, new Piece(types[random.nextInt(types.length)], color, random.nextBoolean()));
+            }
+            Game game = new Game(board, Color.WHITE);
+            assertMatchesBruteForce(game, board, Color.WHITE);
+            assertMatchesBruteForce(game, board, Color.BLACK);
+        }
+    }
+
+    @Test
+    void bishopStopsAfterSixSquares() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.BISHOP, Color.WHITE, false));
+        MoveList buffer = new MoveList();
+
+        MoveGenerator.generate(board, Color.WHITE, buffer);
+
+        assertThat(buffer.size()).isEqualTo(6);
+        assertThat(buffer.toMove(buffer.size() - 1).to()).isEqualTo(Position.fromAlgebraic("G7"));
+    }
+
+    @Test
+    void bufferIsClearedBetweenCalls() {
+        Board board = Board.initialSetup();
+        MoveList buffer = new MoveList(4);
+
+        MoveGenerator.generate(board, Color.WHITE, buffer);
+        int first = buffer.size();
+        MoveGenerator.generate(board, Color.WHITE, buffer);
+
+        assertThat(buffer.size()).isEqualTo(first);
+    }
+
+    @Test
+    void moveListGrowsFromZeroCapacity() {
+        MoveList list = new MoveList(0);
+        for (int i = 0; i < 20; i++) {
+            list.add(i + 1);
+        }
+
+        assertThat(list.size()).isEqualTo(20);
+        assertThat(list.move(19)).isEqualTo(20);
+    }
+
+    @Test
+    void moveListSortsByScoreKeepingTies() {
+        MoveList list = new MoveList(2);
+        int[] scores = {5, 9, 5, -1, 9};
+        for (int i = 0; i < scores.length; i++) {
+            list.add(i + 1);
+            list.setScore(i, scores[i]);
+        }
+
+        list.sort();
+
+        assertThat(new int[] {list.move(0), list.move(1), list.move(2), list.move(3), list.move(4)})
+                .containsExactly(2, 5, 1, 3, 4);
+        assertThat(list.score(0)).isEqualTo(9);
+        assertThat(list.score(4)).isEqualTo(-1);
+    }
+
+    @Test
+    void pickBestMovesHighestRemainingScoreForward() {
+        MoveList list = new MoveList();
+        int[] scores = {1, 7, 3};
+        for (int i = 0; i < scores.length; i++) {
+            list.add(10 + i);
+            list.setScore(i, scores[i]);
+        }
+
+        list.pickBest(0);
+        list.pickBest(1);
+
+        assertThat(list.move(0)).isEqualTo(11);
+        assertThat(list.move(1)).isEqualTo(12);
+        assertThat(list.move(2)).isEqualTo(10);
+    }
+
+    private static void assertMatchesBruteForce(Game game, Board board, Color color) {
+        Set<Move> expected = new HashSet<>();
+        for (int from = 0; from < Position.SQUARE_COUNT; from++) {
+            Piece piece = board.pieceAt(from);
+            if (piece == null || piece.color() != color) {
+                continue;
+            }
+            for (int to = 0; to < Position.SQUARE_COUNT; to++) {
+                Move move = new Move(Position.fromIndex(from), Position.fromIndex(to));
+                if (game.isLegalMoveIgnoringCheck(board, move, piece)) {
+                    expected.add(move);
+                }
+            }
+        }
+        MoveList buffer = new MoveList();
+        MoveGenerator.generate(board, color, buffer);
+        Set<Move> generated = new HashSet<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            generated.add(buffer.toMove(i));
+            assertThat(buffer.move(i)).isEqualTo(PackedMove.encode(board, buffer.from(i), buffer.to(i)));
+        }
+        assertThat(generated).isEqualTo(expected);
+        assertThat(buffer.size()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.BoardLayout;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Known counts were generated with {@link #referencePerft}, which only uses the
+ * original rule checks: {@code isLegalMoveIgnoringCheck}, a full scan for check,
+ * and {@code playMove} for castling. A faster generator must reproduce them exactly.
+ */
+class PerftTest {
+
+    private static final String MIDGAME = "H1-G4 B9-B8 D2-D3 F9-F7 E1-D2 E9-E7 H2-H3 C10-D7 G4-H7 G10-E8 F2-F4 D10-E9";
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 1",
+            "1, 24",
+            "2, 576",
+            "3, 15552",
+            "4, 418444"
+    })
+    void initialPositionCounts(int depth, long nodes) {
+        assertThat(new Perft(new Game()).count(depth)).isEqualTo(nodes);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void everyLayoutGivesTheSameCounts(BoardLayout layout) {
+        assertThat(new Perft(Board.initialSetup(layout), Color.WHITE).count(3)).isEqualTo(15552);
+        Game midgame = replay(MIDGAME);
+        Board copy = new Board(layout);
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            copy.set(square, midgame.getBoard().pieceAt(square));
+        }
+        assertThat(new Perft(copy, Color.WHITE).count(3)).isEqualTo(85024);
+    }
+
+    @Test
+    void initialPositionBreakdown() {
+        Perft.Result result = new Perft(new Game()).run(3);
+
+        assertThat(result.nodes()).isEqualTo(15552);
+        assertThat(result.captures()).isEqualTo(12);
+        assertThat(result.promotions()).isEqualTo(0);
+        assertThat(result.castles()).isEqualTo(0);
+        assertThat(result.checks()).isEqualTo(36);
+        assertThat(result.mates()).isEqualTo(17);
+    }
+
+    @Test
+    void specialMovesAreCounted() {
+        Perft perft = new Perft(promotionAndCastlingPosition(), Color.WHITE);
+
+        Perft.Result shallow = perft.run(1);
+        assertThat(shallow.nodes()).isEqualTo(21);
+        assertThat(shallow.promotions()).isEqualTo(1);
+        assertThat(shallow.castles()).isEqualTo(1);
+        assertThat(shallow.checks()).isEqualTo(2);
+
+        Perft.Result deep = perft.run(3);
+        assertThat(deep.nodes()).isEqualTo(1952);
+        assertThat(deep.captures()).isEqualTo(4);
+        assertThat(deep.promotions()).isEqualTo(78);
+        assertThat(deep.castles()).isEqualTo(2);
+        assertThat(deep.checks()).isEqualTo(139);
+        assertThat(deep.mates()).isEqualTo(2);
+    }
+
+    @Test
+    void midgameCounts() {
+        Perft.Result result = new Perft(replay(MIDGAME)).run(3);
+
+        assertThat(result.nodes()).isEqualTo(85024);
+        assertThat(result.captures()).isEqualTo(4376);
+        assertThat(result.checks()).isEqualTo(783);
+        assertThat(result.mates()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesReferenceLogic() {
+        Game initial = new Game();
+        assertThat(new Perft(initial).count(3)).isEqualTo(referencePerft(initial.getBoard(), Color.WHITE, 3));
+
+        Board special = promotionAndCastlingPosition();
+        assertThat(new Perft(special, Color.WHITE).count(3)).isEqualTo(referencePerft(special, Color.WHITE, 3));
+
+        Game midgame = replay(MIDGAME);
+        assertThat(new Perft(midgame).count(2))
+                .isEqualTo(referencePerft(midgame.getBoard(), midgame.getActiveColor(), 2));
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        Game game = replay(MIDGAME);
+        Perft perft = new Perft(game);
+
+        List<Perft.Division> divisions = perft.divide(2);
+
+        assertThat(divisions).hasSize(43);
+        assertThat(divisions.stream().mapToLong(Perft.Division::nodes).sum()).isEqualTo(1987);
+        Perft.Division first = divisions.get(0);
+        Game child = replay(MIDGAME);
+        assertThat(child.playMove(first.move()).success()).isTrue();
+        assertThat(new Perft(child).count(1)).isEqualTo(first.nodes());
+    }
+
+    @Test
+    void callerGameIsUntouched() {
+        Game game = replay(MIDGAME);
+        long key = game.getPositionKey();
+
+        new Perft(game).run(2);
+
+        assertThat(game.getPositionKey()).isEqualTo(key);
+        assertThat(game.getActiveColor()).isEqualTo(Color.WHITE);
+    }
+
+    @Test
+    void defenderWithoutAKingIsNeverInCheck() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B2"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J9"), new Piece(PieceType.PAWN, Color.BLACK, false));
+        Perft perft = new Perft(board, Color.WHITE);
+
+        Perft.Result result = perft.run(1);
+
+        assertThat(result.nodes()).isEqualTo(perft.count(1)).isPositive();
+        assertThat(result.checks()).isZero();
+        assertThat(result.mates()).isZero();
+        assertThat(perft.run(2).nodes()).isEqualTo(perft.count(2));
+    }
+
+    @Test
+    void negativeDepthIsRejected() {
+        assertThatThrownBy(() -> new Perft(new Game()).run(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Perft(new Game()).divide(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nodesPerSecondSurvivesDeepCounts() {
+        Perft.Result result = new Perft.Result(9, 20_000_000_000L, 0, 0, 0, 0, 0, Duration.ofSeconds(10));
+        assertThat(result.nodesPerSecond()).isEqualTo(2_000_000_000L);
+    }
+
+    private static Board promotionAndCastlingPosition() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.LOVER, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("B1"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("F1"), new Piece(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("C9"), new Piece(PieceType.PAWN, Color.WHITE, true));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("H8"), new Piece(PieceType.PAWN, Color.BLACK, true));
+        return board;
+    }
+
+    private static Game replay(String line) {
+        Game game = new Game();
+        for (String move : line.split(" ")) {
+            assertThat(game.playMove(move).success()).isTrue();
+        }
+        return game;
+    }
+
+    /**
+     * Slow perft over every from/to pair. Ordinary moves are judged by
+     * {@code isLegalMoveIgnoringCheck} plus a scan for check, with king captures
+     * left out, castling by {@code playMove}; the move is then played on a
+     * fresh copy.
+     */
+    private static long referencePerft(Board board, Color color, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        Game game = new Game(board, color);
+        long nodes = 0;
+        for (int from = 0; from < Position.SQUARE_COUNT; from++) {
+            Piece piece = board.pieceAt(from);
+            if (piece == null || piece.color() != color) {
+                continue;
+            }
+            for (int to = 0; to < Position.SQUARE_COUNT; to++) {
+                Move move = new Move(Position.fromIndex(from), Position.fromIndex(to));
+                boolean castling = piece.type() == PieceType.KING && from - to == 2;
+                if (!castling) {
+                    Piece target = board.pieceAt(to);
+                    if (!game.isLegalMoveIgnoringCheck(board, move, piece)
+                            || target != null && target.type() == PieceType.KING) {
+                        continue;
+                    }
+                    Board after = board.copy();
+                    after.makeMove(from, to, piece.withMoved());
+                    if (ReferenceRules.isInCheckByScan(game, after, color)) {
+                        continue;
+                    }
+                }
+                Game child = new Game(board.copy(), color);
+                boolean played = child.playMove(move).success();
+                assertThat(played || castling).isTrue();
+                if (played) {
+                    nodes += referencePerft(child.getBoard(), color.opposite(), depth - 1);
+                }
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Move;
+import com.example.chess.model.PackedMove;
+
+import java.util.Random;
+
+/**
+ * Seeded random playouts shared by tests and benchmarks that need games of
+ * many varied, legal moves.
+ */
+public final class RandomPlay {
+
+    private RandomPlay() {
+    }
+
+    /**
+     * Plays up to {@code plies} random legal moves on {@code game} through
+     * {@link Game#playMove(Move)}, stopping early once it is over.
+     *
+     * @throws AssertionError if a generated move is rejected
+     */
+    public static Game play(Game game, Random random, int plies) {
+        MoveList legal = new MoveList();
+        for (int ply = 0; ply < plies && !game.isGameOver(); ply++) {
+            game.generateLegalMoves(legal);
+            Move move = PackedMove.toMove(legal.move(random.nextInt(legal.size())));
+            MoveResult result = game.playMove(move);
+            if (!result.success()) {
+                throw new AssertionError("Generated move " + move + " rejected: " + result.message());
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.chess.game;
+
+import com.example.chess.model.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+
+/**
+ * Slow rule checks built only from the original per-move logic, which the
+ * fast generators are tested against.
+ */
+final class ReferenceRules {
+
+    private ReferenceRules() {
+    }
+
+    /**
+     * Whether {@code color}'s king is attacked, by trying every enemy piece
+     * other than a Lover against it with {@code rules}.
+     */
+    static boolean isInCheckByScan(Game rules, Board board, Color color) {
+        Position king = board.findKing(color).orElseThrow();
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Piece attacker = board.pieceAt(square);
+            if (attacker != null && attacker.color() != color && attacker.type() != PieceType.LOVER
+                    && rules.isLegalMoveIgnoringCheck(board, new Move(Position.fromIndex(square), king), attacker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
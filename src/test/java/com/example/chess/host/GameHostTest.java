@@ -0,0 +1,202 @@
+package com.example.chess.host;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.MoveResult;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameHostTest {
+
+    private static final String[] LINE = {"E2-E4", "E9-E7", "D2-D4", "D9-D7", "C2-C4", "C9-C7"};
+
+    private final GameHost host = new GameHost();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void shutDown() {
+        callers.shutdownNow();
+        host.close();
+    }
+
+    @Test
+    void commandsForOneGameNeverOverlap() throws Exception {
+        GameActor actor = host.create();
+        int threads = 64;
+        int callsPerThread = 500;
+        // deliberately unsynchronized: only the mailbox keeps these consistent
+        int[] counter = new int[1];
+        boolean[] inside = new boolean[1];
+        AtomicInteger overlaps = new AtomicInteger();
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(callers.submit(() -> {
+                for (int i = 0; i < callsPerThread; i++) {
+                    seen.add(actor.call(game -> {
+                        if (inside[0]) {
+                            overlaps.incrementAndGet();
+                        }
+                        inside[0] = true;
+                        int value = ++counter[0];
+                        inside[0] = false;
+                        return value;
+                    }));
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+
+        assertThat(overlaps.get()).isZero();
+        assertThat(actor.<Integer>call(game -> counter[0])).isEqualTo(threads * callsPerThread);
+        assertThat(seen).hasSize(threads * callsPerThread);
+    }
+
+    @Test
+    void racingCallersPlayTheSameMoveOnce() throws Exception {
+        GameActor actor = host.create();
+        Move move = move("E2-E4");
+
+        List<Future<MoveResult>> results = new ArrayList<>();
+        for (int t = 0; t < 32; t++) {
+            results.add(callers.submit(() -> actor.call(game -> game.playMove(move))));
+        }
+        int played = 0;
+        for (Future<MoveResult> result : results) {
+            if (result.get().success()) {
+                played++;
+            }
+        }
+
+        assertThat(played).isEqualTo(1);
+        assertThat(actor.call(Game::getActiveColor)).isEqualTo(Color.BLACK);
+    }
+
+    @Test
+    void manyGamesPlayConcurrentlyWithReaders() throws Exception {
+        int games = 500;
+        List<GameActor> actors = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            actors.add(host.create());
+        }
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> tasks = new ArrayList<>();
+        for (GameActor actor : actors) {
+            tasks.add(callers.submit(() -> {
+                for (String text : LINE) {
+                    if (!actor.call(game -> game.playMove(move(text))).success()) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+            // a reader per game, interleaving with the moves
+            tasks.add(callers.submit(() -> {
+                for (int i = 0; i < LINE.length; i++) {
+                    actor.call(game -> game.getBoard().zobristKey());
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+
+        assertThat(rejected.get()).isZero();
+        assertThat(host.size()).isEqualTo(games);
+        long expected = actors.get(0).call(game -> game.getBoard().zobristKey());
+        for (GameActor actor : actors) {
+            assertThat(actor.call(Game::getActiveColor)).isEqualTo(Color.WHITE);
+            assertThat(actor.<Long>call(game -> game.getBoard().zobristKey())).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void failingCommandLeavesTheMailboxRunning() {
+        GameActor actor = host.create();
+
+        assertThatThrownBy(() -> actor.call(game -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(actor.call(game -> game.playMove(move("E2-E4"))).success()).isTrue();
+    }
+
+    @Test
+    void idleTimedGameIsLostOnTime() throws InterruptedException {
+        GameActor timed = host.create(Duration.ofMillis(50));
+        GameActor untimed = host.create();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timed.call(Game::getStatus) != GameStatus.TIME_UP && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(timed.call(Game::getStatus)).isEqualTo(GameStatus.TIME_UP);
+        assertThat(timed.call(Game::getWinner)).isEqualTo(Color.BLACK);
+        assertThat(untimed.call(Game::getStatus)).isEqualTo(GameStatus.ONGOING);
+    }
+
+    @Test
+    void findsAndRemovesGamesById() {
+        GameActor first = host.create();
+        GameActor second = host.create();
+
+        assertThat(second.id()).isNotEqualTo(first.id());
+        assertThat(host.find(first.id())).containsSame(first);
+        assertThat(host.remove(first.id())).isTrue();
+        assertThat(host.find(first.id())).isEmpty();
+        assertThat(host.size()).isEqualTo(1);
+    }
+
+    @Test
+    void resetTimedGameStillLosesOnTime() throws InterruptedException {
+        GameActor timed = host.create(Duration.ofMillis(100));
+        timed.call(game -> {
+            game.reset();
+            return null;
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timed.call(Game::getStatus) != GameStatus.TIME_UP && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(timed.call(Game::getStatus)).isEqualTo(GameStatus.TIME_UP);
+    }
+
+    @Test
+    void removedTimedGameIsNotLostOnTime() throws InterruptedException {
+        GameActor timed = host.create(Duration.ofMillis(50));
+
+        assertThat(host.remove(timed.id())).isTrue();
+        Thread.sleep(200);
+
+        assertThat(timed.call(Game::getStatus)).isEqualTo(GameStatus.ONGOING);
+        assertThat(host.remove(timed.id())).isFalse();
+    }
+
+    private static Move move(String text) {
+        String[] squares = text.split("-");
+        return new Move(Position.fromAlgebraic(squares[0]), Position.fromAlgebraic(squares[1]));
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.chess.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoardTest {
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void initialSetupIsIdenticalForEveryLayout(BoardLayout layout) {
+        Board reference = Board.initialSetup(BoardLayout.ARRAY);
+        Board board = Board.initialSetup(layout);
+
+        assertThat(board.layout()).isEqualTo(layout);
+        for (int index = 0; index < Position.SQUARE_COUNT; index++) {
+            Position pos = Position.fromIndex(index);
+            assertThat(board.get(pos)).isEqualTo(reference.get(pos));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void nextOccupiedVisitsOnlyPiecesOfOneColor(BoardLayout layout) {
+        Board board = new Board(layout);
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.ROOK, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("J7"), new Piece(PieceType.PAWN, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("C7"), new Piece(PieceType.PAWN, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("J10"), new Piece(PieceType.KING, Color.WHITE, false));
+
+        assertThat(board.nextOccupied(Color.WHITE, 0)).isEqualTo(0);
+        assertThat(board.nextOccupied(Color.WHITE, 1)).isEqualTo(Position.fromAlgebraic("J7").index());
+        assertThat(board.nextOccupied(Color.WHITE, 70)).isEqualTo(99);
+        assertThat(board.nextOccupied(Color.WHITE, 100)).isEqualTo(-1);
+        assertThat(board.nextOccupied(Color.BLACK, 0)).isEqualTo(Position.fromAlgebraic("C7").index());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void replacingAndClearingSquaresKeepsKingLookupInSync(BoardLayout layout) {
+        Board board = new Board(layout);
+        Position e1 = Position.fromAlgebraic("E1");
+        Position e2 = Position.fromAlgebraic("E2");
+        board.set(e1, new Piece(PieceType.KING, Color.WHITE, false));
+        assertThat(board.findKing(Color.WHITE)).hasValue(e1);
+
+        board.set(e1, new Piece(PieceType.QUEEN, Color.BLACK, false));
+        assertThat(board.findKing(Color.WHITE)).isEmpty();
+        assertThat(board.nextOccupied(Color.WHITE, 0)).isEqualTo(-1);
+
+        board.set(e1, null);
+        board.set(e2, new Piece(PieceType.KING, Color.WHITE, true));
+        assertThat(board.findKing(Color.WHITE)).hasValue(e2);
+        assertThat(board.nextOccupied(Color.BLACK, 0)).isEqualTo(-1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void copyIsIndependent(BoardLayout layout) {
+        Board board = Board.initialSetup(layout);
+        Board copy = board.copy();
+        copy.set(Position.fromAlgebraic("F1"), null);
+
+        assertThat(copy.layout()).isEqualTo(layout);
+        assertThat(board.findKing(Color.WHITE)).isPresent();
+        assertThat(copy.findKing(Color.WHITE)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void unmakeMoveRestoresCapturedPieceAndMovedFlag(BoardLayout layout) {
+        Board board = new Board(layout);
+        Position d4 = Position.fromAlgebraic("D4");
+        Position e5 = Position.fromAlgebraic("E5");
+        Piece pawn = new Piece(PieceType.PAWN, Color.WHITE, false);
+        Piece victim = new Piece(PieceType.KNIGHT, Color.BLACK, true);
+        board.set(d4, pawn);
+        board.set(e5, victim);
+
+        board.makeMove(d4.index(), e5.index(), pawn.withMoved());
+        assertThat(board.get(d4)).isEmpty();
+        assertThat(board.get(e5)).hasValue(pawn.withMoved());
+        assertThat(board.undoDepth()).isEqualTo(1);
+
+        board.unmakeMove();
+        assertThat(board.get(d4)).hasValue(pawn);
+        assertThat(board.get(e5)).hasValue(victim);
+        assertThat(board.undoDepth()).isEqualTo(0);
+        assertThat(board.nextOccupied(Color.BLACK, 0)).isEqualTo(e5.index());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void unmakeMoveRevertsPromotion(BoardLayout layout) {
+        Board board = new Board(layout);
+        Position from = Position.fromAlgebraic("C9");
+        Position to = Position.fromAlgebraic("C10");
+        Piece pawn = new Piece(PieceType.PAWN, Color.WHITE, true);
+        board.set(from, pawn);
+
+        board.makeMove(from.index(), to.index(), new Piece(PieceType.QUEEN, Color.WHITE, true));
+        board.unmakeMove();
+
+        assertThat(board.get(from)).hasValue(pawn);
+        assertThat(board.get(to)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void unmakeMoveRevertsCastling(BoardLayout layout) {
+        Board board = Board.initialSetup(layout);
+        Position f1 = Position.fromAlgebraic("F1");
+        Position b1 = Position.fromAlgebraic("B1");
+        Piece king = board.get(f1).orElseThrow();
+        Piece rook = board.get(b1).orElseThrow();
+        board.set(Position.fromAlgebraic("C1"), null);
+        board.set(Position.fromAlgebraic("D1"), null);
+        board.set(Position.fromAlgebraic("E1"), null);
+
+        board.makeCastling(f1.index(), Position.fromAlgebraic("D1").index(), b1.index(),
+                Position.fromAlgebraic("E1").index());
+        assertThat(board.get(Position.fromAlgebraic("D1"))).hasValue(king.withMoved());
+        assertThat(board.get(Position.fromAlgebraic("E1"))).hasValue(rook.withMoved());
+
+        board.unmakeMove();
+        assertThat(board.get(f1)).hasValue(king);
+        assertThat(board.get(b1)).hasValue(rook);
+        assertThat(board.get(Position.fromAlgebraic("D1"))).isEmpty();
+        assertThat(board.get(Position.fromAlgebraic("E1"))).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void unmakeWithoutMoveFails(BoardLayout layout) {
+        Board board = new Board(layout);
+
+        assertThatThrownBy(board::unmakeMove).isInstanceOf(IllegalStateException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void slidersAreBlockedAndCappedInAttackMap(BoardLayout layout) {
+        Board board = new Board(layout);
+        board.set(Position.fromAlgebraic("A1"), new Piece(PieceType.BISHOP, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("A5"), new Piece(PieceType.ROOK, Color.BLACK, false));
+
+        assertThat(board.isAttacked(Position.fromAlgebraic("G7").index(), Color.WHITE)).isTrue();
+        assertThat(board.isAttacked(Position.fromAlgebraic("H8").index(), Color.WHITE)).isFalse();
+        assertThat(board.isAttacked(Position.fromAlgebraic("A1").index(), Color.BLACK)).isTrue();
+
+        board.set(Position.fromAlgebraic("A3"), new Piece(PieceType.PAWN, Color.WHITE, false));
+        assertThat(board.isAttacked(Position.fromAlgebraic("A3").index(), Color.BLACK)).isTrue();
+        assertThat(board.isAttacked(Position.fromAlgebraic("A2").index(), Color.BLACK)).isFalse();
+        assertThat(board.attackCount(Position.fromAlgebraic("B4").index(), Color.WHITE)).isEqualTo(1);
+
+        board.set(Position.fromAlgebraic("A3"), null);
+        assertThat(board.isAttacked(Position.fromAlgebraic("A1").index(), Color.BLACK)).isTrue();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void loverNeverAttacks(BoardLayout layout) {
+        Board board = new Board(layout);
+        board.set(Position.fromAlgebraic("E5"), new Piece(PieceType.LOVER, Color.BLACK, false));
+        board.set(Position.fromAlgebraic("E4"), new Piece(PieceType.KING, Color.WHITE, false));
+
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            assertThat(board.isAttacked(square, Color.BLACK)).isFalse();
+        }
+        assertThat(board.isInCheck(Color.WHITE)).isFalse();
+        assertThatThrownBy(() -> board.isInCheck(Color.BLACK)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void attackMapMatchesRebuildAfterRandomMovesAndUndo(BoardLayout layout) {
+        Random random = new Random(450);
+        Board board = Board.initialSetup(layout);
+        for (int step = 0; step < 400; step++) {
+            if (board.undoDepth() > 0 && random.nextInt(3) == 0) {
+                board.unmakeMove();
+            } else {
+                Color side = random.nextBoolean() ? Color.WHITE : Color.BLACK;
+                int from = board.nextOccupied(side, random.nextInt(Position.SQUARE_COUNT));
+                int to = random.nextInt(Position.SQUARE_COUNT);
+                if (from < 0 || from == to) {
+                    continue;
+                }
+                board.makeMove(from, to, board.pieceAt(from).withMoved());
+            }
+            assertSameAttacks(board, rebuild(board, layout));
+            assertSameAttacks(board.copy(), board);
+        }
+    }
+
+    @Test
+    void positionsAndPiecesAreSharedInstances() {
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Position position = Position.fromIndex(square);
+            assertThat(Position.of(position.row(), position.col())).isSameAs(position);
+            assertThat(Position.fromAlgebraic(position.toAlgebraic())).isSameAs(position);
+            assertThat(position).isEqualTo(new Position(position.row(), position.col()));
+        }
+        assertThat(Position.fromAlgebraic("E4").offset(1, -1)).isSameAs(Position.of(5, 4));
+        assertThat(Position.fromAlgebraic("J10").offset(1, 0)).isNull();
+        assertThatThrownBy(() -> Position.of(0, 5)).isInstanceOf(IllegalArgumentException.class);
+
+        Piece pawn = Piece.of(PieceType.PAWN, Color.BLACK, false);
+        assertThat(pawn).isEqualTo(new Piece(PieceType.PAWN, Color.BLACK, false));
+        assertThat(pawn.withMoved()).isSameAs(Piece.of(PieceType.PAWN, Color.BLACK, true));
+        assertThat(new Piece(PieceType.PAWN, Color.BLACK, false).withMoved()).isSameAs(pawn.withMoved());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void indexSetterMatchesPositionSetter(BoardLayout layout) {
+        Board byIndex = new Board(layout);
+        Board byPosition = new Board(layout);
+        byIndex.set(44, Piece.of(PieceType.QUEEN, Color.WHITE, true));
+        byPosition.set(Position.fromAlgebraic("E5"), Piece.of(PieceType.QUEEN, Color.WHITE, true));
+
+        assertThat(byIndex.zobristKey()).isEqualTo(byPosition.zobristKey());
+        assertSameAttacks(byIndex, byPosition);
+
+        byIndex.set(44, null);
+        assertThat(byIndex.pieceAt(44)).isNull();
+        assertThat(byIndex.zobristKey()).isEqualTo(new Board(layout).zobristKey());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void firstOccupiedMatchesRayWalk(BoardLayout layout) {
+        Random random = new Random(13);
+        for (int n = 0; n < 50; n++) {
+            Board board = new Board(layout);
+            for (int i = 0; i < 25; i++) {
+                Color color = random.nextBoolean() ? Color.WHITE : Color.BLACK;
+                board.set(random.nextInt(Position.SQUARE_COUNT), Piece.of(PieceType.PAWN, color, true));
+            }
+            for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+                for (int dir = 0; dir < MoveTables.DIRECTION_COUNT; dir++) {
+                    int range = 1 + random.nextInt(Position.BOARD_SIZE);
+                    int expected = -1;
+                    int[] ray = MoveTables.RAYS[square][dir];
+                    for (int i = 0; i < Math.min(range, ray.length) && expected < 0; i++) {
+                        expected = board.pieceAt(ray[i]) != null ? ray[i] : -1;
+                    }
+                    assertThat(board.firstOccupied(square, dir, range)).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    private static Board rebuild(Board board, BoardLayout layout) {
+        Board fresh = new Board(layout);
+        for (int square = Position.SQUARE_COUNT - 1; square >= 0; square--) {
+            if (board.pieceAt(square) != null) {
+                fresh.set(Position.fromIndex(square), board.pieceAt(square));
+            }
+        }
+        return fresh;
+    }
+
+    private static void assertSameAttacks(Board actual, Board expected) {
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            for (Color color : Color.values()) {
+                assertThat(actual.attackCount(square, color)).isEqualTo(expected.attackCount(square, color));
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.chess.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoveParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"A2 A3", "a2-a3", "A2 to A3", "a2 TO a3", "A2TOA3", "A2-A3", " A2\tA3\n", "A2 - A3",
+            "a2toa3"})
+    void everyNotationGivesTheSameMove(String text) {
+        int move = MoveParser.parse(text);
+
+        assertThat(MoveParser.isError(move)).isFalse();
+        assertThat(PackedMove.toMove(move)).isEqualTo(
+                new Move(Position.fromAlgebraic("A2"), Position.fromAlgebraic("A3")));
+    }
+
+    @Test
+    void tenthRankAndEveryFileParse() {
+        for (int from = 0; from < Position.SQUARE_COUNT; from++) {
+            for (int to = 0; to < Position.SQUARE_COUNT; to += 7) {
+                String text = Position.fromIndex(from).toAlgebraic() + "-" + Position.fromIndex(to).toAlgebraic();
+
+                int move = MoveParser.parse(text);
+
+                assertThat(PackedMove.from(move)).as(text).isEqualTo(from);
+                assertThat(PackedMove.to(move)).as(text).isEqualTo(to);
+            }
+        }
+        assertThat(MoveParser.parseSquare("j10")).isEqualTo(99);
+    }
+
+    @Test
+    void bytesParseInPlaceWithOffsetsIntoTheArray() {
+        byte[] lines = "E2 E4\nJ9-J10\nE2 Z4\n".getBytes(StandardCharsets.US_ASCII);
+
+        int first = MoveParser.parse(lines, 0, 6);
+        int second = MoveParser.parse(lines, 6, 7);
+        int third = MoveParser.parse(lines, 13, 6);
+
+        assertThat(PackedMove.toMove(first)).isEqualTo(
+                new Move(Position.fromAlgebraic("E2"), Position.fromAlgebraic("E4")));
+        assertThat(PackedMove.toMove(second)).isEqualTo(
+                new Move(Position.fromAlgebraic("J9"), Position.fromAlgebraic("J10")));
+        assertThat(MoveParser.error(third)).isEqualTo(MoveParser.BAD_FILE);
+        assertThat(MoveParser.errorOffset(third)).isEqualTo(16);
+    }
+
+    @Test
+    void errorsNameTheKindAndOffset() {
+        assertError("", MoveParser.EMPTY, 0);
+        assertError("   ", MoveParser.EMPTY, 3);
+        assertError("K2 A3", MoveParser.BAD_FILE, 0);
+        assertError("A2 A", MoveParser.BAD_RANK, 4);
+        assertError("A11 A3", MoveParser.BAD_RANK, 1);
+        assertError("A0 A3", MoveParser.BAD_RANK, 1);
+        assertError("A05 A3", MoveParser.BAD_RANK, 1);
+        assertError("A2 A1000", MoveParser.BAD_RANK, 4);
+        assertError("A2", MoveParser.BAD_FILE, 2);
+        assertError("A2 ", MoveParser.BAD_FILE, 3);
+        assertError("A2A3", MoveParser.BAD_SEPARATOR, 2);
+        assertError("A2 A3 A4", MoveParser.TRAILING_TEXT, 6);
+        assertError("A2 A3x", MoveParser.TRAILING_TEXT, 5);
+        assertError("E2", 0, 1, MoveParser.BAD_RANK, 1);
+    }
+
+    @Test
+    void describeKeepsTheFamiliarMessages() {
+        assertThat(describe(" ")).isEqualTo("Empty move");
+        assertThat(describe("A2A3")).isEqualTo("Use notation like A2 A3 or A2-A3");
+        assertThat(describe("A2")).isEqualTo("Use notation like A2 A3 or A2-A3");
+        assertThat(describe("A2 A3 A4")).isEqualTo("Use notation like A2 A3 or A2-A3");
+        assertThat(describe("z9 A3")).isEqualTo("Invalid notation: Z9");
+        assertThat(describe("A2-A11")).isEqualTo("Invalid notation: A11");
+        assertThat(describe("A2 a")).isEqualTo("Invalid notation: A");
+        assertThat(describe("A2 A3x")).isEqualTo("Invalid notation: A3X");
+        assertThat(MoveParser.describe(MoveParser.parse("A2 A11"))).isEqualTo("Rank must be 1-10");
+    }
+
+    private static String describe(String text) {
+        return MoveParser.describe(MoveParser.parse(text), text);
+    }
+
+    private static void assertError(String text, int kind, int offset) {
+        assertError(text, 0, text.length(), kind, offset);
+    }
+
+    private static void assertError(String text, int start, int end, int kind, int offset) {
+        int result = MoveParser.parse(text, start, end);
+
+        assertThat(MoveParser.isError(result)).as(text).isTrue();
+        assertThat(MoveParser.error(result)).as(text).isEqualTo(kind);
+        assertThat(MoveParser.errorOffset(result)).as(text).isEqualTo(offset);
+    }
+}
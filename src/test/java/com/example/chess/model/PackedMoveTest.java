@@ -0,0 +1,66 @@
+package com.example.chess.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PackedMoveTest {
+
+    @Test
+    void fieldsRoundTrip() {
+        for (PieceType moved : PieceType.values()) {
+            for (PieceType captured : PieceType.values()) {
+                int move = PackedMove.encode(99, 0, moved, captured, PackedMove.PROMOTION);
+
+                assertThat(PackedMove.from(move)).isEqualTo(99);
+                assertThat(PackedMove.to(move)).isEqualTo(0);
+                assertThat(PackedMove.moved(move)).isEqualTo(moved);
+                assertThat(PackedMove.captured(move)).isEqualTo(captured);
+                assertThat(PackedMove.isCapture(move)).isTrue();
+                assertThat(PackedMove.isPromotion(move)).isTrue();
+                assertThat(PackedMove.isCastle(move)).isFalse();
+            }
+        }
+        int quiet = PackedMove.encode(12, 22, PieceType.PAWN, null, 0);
+        assertThat(PackedMove.captured(quiet)).isNull();
+        assertThat(PackedMove.isCapture(quiet)).isFalse();
+        assertThat(quiet).isNotEqualTo(PackedMove.NONE);
+    }
+
+    @Test
+    void squaresMatchTranspositionTableEncoding() {
+        int move = PackedMove.encode(45, 67, PieceType.QUEEN, PieceType.ROOK, 0);
+
+        assertThat(PackedMove.squares(move)).isEqualTo(45 << 7 | 67);
+    }
+
+    @Test
+    void convertsToAndFromMoveRecords() {
+        Board board = Board.initialSetup();
+        Move push = new Move(Position.fromAlgebraic("E2"), Position.fromAlgebraic("E4"));
+
+        int move = PackedMove.of(board, push);
+
+        assertThat(PackedMove.toMove(move)).isEqualTo(push);
+        assertThat(PackedMove.moved(move)).isEqualTo(PieceType.PAWN);
+        assertThat(PackedMove.isCapture(move)).isFalse();
+        assertThatThrownBy(() -> PackedMove.of(board, new Move(Position.fromAlgebraic("E5"),
+                Position.fromAlgebraic("E6")))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void boardEncodingFlagsCastlingAndPromotion() {
+        Board board = new Board();
+        board.set(Position.fromAlgebraic("F1"), Piece.of(PieceType.KING, Color.WHITE, false));
+        board.set(Position.fromAlgebraic("C9"), Piece.of(PieceType.PAWN, Color.WHITE, true));
+        board.set(Position.fromAlgebraic("D10"), Piece.of(PieceType.KNIGHT, Color.BLACK, false));
+
+        int castle = PackedMove.of(board, new Move(Position.fromAlgebraic("F1"), Position.fromAlgebraic("D1")));
+        int capture = PackedMove.of(board, new Move(Position.fromAlgebraic("C9"), Position.fromAlgebraic("D10")));
+
+        assertThat(PackedMove.isCastle(castle)).isTrue();
+        assertThat(PackedMove.isPromotion(capture)).isTrue();
+        assertThat(PackedMove.captured(capture)).isEqualTo(PieceType.KNIGHT);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.chess.model;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.MoveList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PositionNotationTest {
+
+    @Test
+    void initialSetupMatchesTheConstant() {
+        assertThat(PositionNotation.format(Board.initialSetup(), Color.WHITE)).isEqualTo(PositionNotation.INITIAL);
+
+        Board board = new Board();
+        assertThat(new PositionNotation().parse(PositionNotation.INITIAL, board)).isEqualTo(Color.WHITE);
+        assertThat(board.zobristKey()).isEqualTo(Board.initialSetup().zobristKey());
+    }
+
+    @Test
+    void playedPositionsRoundTrip() {
+        Random random = new Random(23);
+        MoveList legal = new MoveList();
+        PositionNotation notation = new PositionNotation();
+        Board parsed = new Board();
+        StringBuilder text = new StringBuilder();
+        for (int g = 0; g < 50; g++) {
+            Game game = new Game();
+            for (int ply = 0; ply < 120 && !game.isGameOver(); ply++) {
+                game.generateLegalMoves(legal);
+                int move = legal.move(random.nextInt(legal.size()));
+                game.playMove(PackedMove.toMove(move));
+
+                text.setLength(0);
+                PositionNotation.append(game.getBoard(), game.getActiveColor(), text);
+                Color side = notation.parse(text, parsed);
+
+                assertThat(side).isEqualTo(game.getActiveColor());
+                assertThat(parsed.zobristKey()).isEqualTo(game.getBoard().zobristKey());
+                assertThat(PositionNotation.format(parsed, side)).isEqualTo(text.toString());
+                assertThat(parsed.undoDepth()).isZero();
+            }
+        }
+    }
+
+    @Test
+    void castlingFieldDecidesWhetherTheKingMayCastle() {
+        String placement = "5k4/10/10/10/10/10/10/10/10/LR3K4 w ";
+
+        Game allowed = Game.fromNotation(placement + "ABF");
+        Game moved = Game.fromNotation(placement + "AB");
+
+        assertThat(allowed.playMove("F1 D1").success()).isTrue();
+        assertThat(moved.playMove("F1 D1").success()).isFalse();
+        assertThat(Game.fromNotation(placement + "-").toNotation()).isEqualTo(placement + "-");
+    }
+
+    @Test
+    void blackToMoveIsKept() {
+        Game game = new Game();
+        game.playMove("E2 E4");
+
+        Game loaded = Game.fromNotation(game.toNotation());
+
+        assertThat(loaded.getActiveColor()).isEqualTo(Color.BLACK);
+        assertThat(loaded.getPositionKey()).isEqualTo(game.getPositionKey());
+        assertThat(game.toNotation())
+                .isEqualTo("lrnbqkbnrr/pppppppppp/10/10/10/10/4P5/10/PPPP1PPPPP/LRNBQKBNRR b ABFIJabfij");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP w ABFIJabfij",
+            "lrnbqkbnrr/pppppppppp/11/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w ABFIJabfij",
+            "lrnbqkbnrr/pppppppppp/9/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w ABFIJabfij",
+            "lrnbqkbnrr/pppppppppp/10/10/10/4X5/10/10/PPPPPPPPPP/LRNBQKBNRR w ABFIJabfij",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR x ABFIJabfij",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w ABCFIJ",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w AABFIJ",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR w ABFIJabfij extra",
+            "lrnbqkbnrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/LRNBQKBNRR  w ABFIJabfij"
+    })
+    void invalidTextIsRejectedAndLeavesTheBoardAlone(String text) {
+        Board board = Board.initialSetup();
+        board.set(Position.fromAlgebraic("E5"), Piece.of(PieceType.QUEEN, Color.BLACK, true));
+        long key = board.zobristKey();
+
+        assertThatThrownBy(() -> new PositionNotation().parse(text, board))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(board.zobristKey()).isEqualTo(key);
+        assertThat(board.pieceAt(Position.fromAlgebraic("E5").index()).type()).isEqualTo(PieceType.QUEEN);
+    }
+
+    @Test
+    void surroundingWhitespaceIsIgnored() {
+        Board board = new Board();
+
+        assertThat(new PositionNotation().parse("  " + PositionNotation.INITIAL + "\n", board))
+                .isEqualTo(Color.WHITE);
+        assertThat(board.zobristKey()).isEqualTo(Board.initialSetup().zobristKey());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.chess.model;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.MoveList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PositionSnapshotTest {
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void randomBoardsRoundTrip(BoardLayout layout) {
+        Random random = new Random(22);
+        ByteBuffer buffer = ByteBuffer.allocate(PositionSnapshot.BYTES);
+        Board decoded = new Board(layout);
+        for (int i = 0; i < 2_000; i++) {
+            Board board = randomBoard(random, layout);
+            Color side = random.nextBoolean() ? Color.WHITE : Color.BLACK;
+
+            buffer.clear();
+            PositionSnapshot.write(board, side, buffer);
+            assertThat(buffer.position()).isEqualTo(PositionSnapshot.BYTES);
+            buffer.flip();
+            Color read = PositionSnapshot.read(buffer, decoded);
+
+            assertThat(read).isEqualTo(side);
+            assertThat(buffer.position()).isEqualTo(PositionSnapshot.BYTES);
+            assertSamePosition(decoded, board);
+        }
+    }
+
+    @Test
+    void playedGamesRoundTripInEitherByteOrder() {
+        Random random = new Random(5);
+        MoveList legal = new MoveList();
+        ByteBuffer big = ByteBuffer.allocate(PositionSnapshot.BYTES);
+        ByteBuffer little = ByteBuffer.allocateDirect(PositionSnapshot.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        Board decoded = new Board();
+        for (int g = 0; g < 50; g++) {
+            Game game = new Game();
+            for (int ply = 0; ply < 120 && !game.isGameOver(); ply++) {
+                game.generateLegalMoves(legal);
+                int move = legal.move(random.nextInt(legal.size()));
+                game.playMove(PackedMove.toMove(move));
+
+                big.clear();
+                little.clear();
+                PositionSnapshot.write(game.getBoard(), game.getActiveColor(), big);
+                PositionSnapshot.write(game.getBoard(), game.getActiveColor(), little);
+                assertThat(little.flip()).isEqualTo(big.flip());
+                assertThat(PositionSnapshot.read(little, decoded)).isEqualTo(game.getActiveColor());
+                assertSamePosition(decoded, game.getBoard());
+                assertThat(decoded.zobristKey() ^ Zobrist.sideToMove(game.getActiveColor()))
+                        .isEqualTo(game.getPositionKey());
+            }
+        }
+    }
+
+    @Test
+    void writesAtTheBufferPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(3 * PositionSnapshot.BYTES);
+        Board initial = Board.initialSetup();
+        Board empty = new Board();
+
+        PositionSnapshot.write(empty, Color.BLACK, buffer);
+        PositionSnapshot.write(initial, Color.WHITE, buffer);
+        buffer.flip();
+
+        Board decoded = new Board();
+        assertThat(PositionSnapshot.read(buffer, decoded)).isEqualTo(Color.BLACK);
+        assertSamePosition(decoded, empty);
+        assertThat(PositionSnapshot.read(buffer, decoded)).isEqualTo(Color.WHITE);
+        assertSamePosition(decoded, initial);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void readDropsTheUndoHistory() {
+        Board board = Board.initialSetup();
+        board.makeMove(Position.fromAlgebraic("E2").index(), Position.fromAlgebraic("E4").index(),
+                Piece.of(PieceType.PAWN, Color.WHITE, true));
+        ByteBuffer buffer = ByteBuffer.allocate(PositionSnapshot.BYTES);
+        PositionSnapshot.write(Board.initialSetup(), Color.WHITE, buffer);
+
+        PositionSnapshot.read(buffer.flip(), board);
+
+        assertThat(board.undoDepth()).isZero();
+        assertThat(board.zobristKey()).isEqualTo(Board.initialSetup().zobristKey());
+    }
+
+    @Test
+    void unknownPieceCodeIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(PositionSnapshot.BYTES);
+        buffer.put(20, (byte) 0xF0);
+        Board board = Board.initialSetup();
+
+        assertThatThrownBy(() -> PositionSnapshot.read(buffer, board))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("square 41");
+        assertSamePosition(board, Board.initialSetup());
+    }
+
+    /**
+     * Any mix of pieces, including boards no game can reach, with random moved flags.
+     */
+    private static Board randomBoard(Random random, BoardLayout layout) {
+        Board board = new Board(layout);
+        PieceType[] types = PieceType.values();
+        int pieces = random.nextInt(Position.SQUARE_COUNT + 1);
+        for (int i = 0; i < pieces; i++) {
+            board.set(random.nextInt(Position.SQUARE_COUNT), Piece.of(types[random.nextInt(types.length)],
+                    random.nextBoolean() ? Color.WHITE : Color.BLACK, random.nextBoolean()));
+        }
+        return board;
+    }
+
+    /**
+     * Same pieces everywhere, with the moved flags that matter (those the
+     * position key includes, and pawns' on their start rank) and the same
+     * attack counts.
+     */
+    private static void assertSamePosition(Board actual, Board expected) {
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            Piece want = expected.pieceAt(square);
+            Piece got = actual.pieceAt(square);
+            if (want == null) {
+                assertThat(got).isNull();
+                continue;
+            }
+            assertThat(got.type()).isEqualTo(want.type());
+            assertThat(got.color()).isEqualTo(want.color());
+            int startRow = want.color() == Color.WHITE ? 1 : Position.BOARD_SIZE - 2;
+            if (want.type() == PieceType.PAWN && square / Position.BOARD_SIZE == startRow) {
+                assertThat(got.hasMoved()).isEqualTo(want.hasMoved());
+            }
+        }
+        assertThat(actual.zobristKey()).isEqualTo(expected.zobristKey());
+        for (int square = 0; square < Position.SQUARE_COUNT; square++) {
+            assertThat(actual.attackCount(square, Color.WHITE)).isEqualTo(expected.attackCount(square, Color.WHITE));
+            assertThat(actual.attackCount(square, Color.BLACK)).isEqualTo(expected.attackCount(square, Color.BLACK));
+        }
+    }
+}
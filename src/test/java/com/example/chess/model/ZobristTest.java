@@ -0,0 +1,77 @@
+package com.example.chess.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZobristTest {
+
+    @Test
+    void initialSetupKeyIsStableAcrossJvms() {
+        // Pinned value: changing the key table invalidates stored keys.
+        assertThat(Board.initialSetup().zobristKey()).isEqualTo(0xCCE93C4A50564C1FL);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoardLayout.class)
+    void incrementalKeyMatchesFullRecomputation(BoardLayout layout) {
+        Board board = Board.initialSetup(layout);
+        Position e2 = Position.fromAlgebraic("E2");
+        Position e4 = Position.fromAlgebraic("E4");
+
+        board.makeMove(e2.index(), e4.index(), board.pieceAt(e2.index()).withMoved());
+        assertThat(board.zobristKey()).isEqualTo(Zobrist.compute(board));
+
+        board.set(Position.fromAlgebraic("C1"), null);
+        board.set(Position.fromAlgebraic("D1"), null);
+        board.set(Position.fromAlgebraic("E1"), null);
+        board.makeCastling(Position.fromAlgebraic("F1").index(), Position.fromAlgebraic("D1").index(),
+                Position.fromAlgebraic("B1").index(), Position.fromAlgebraic("E1").index());
+        assertThat(board.zobristKey()).isEqualTo(Zobrist.compute(board));
+    }
+
+    @Test
+    void unmakeRestoresKey() {
+        Board board = Board.initialSetup();
+        long before = board.zobristKey();
+        Position c1 = Position.fromAlgebraic("C1");
+
+        board.makeMove(c1.index(), Position.fromAlgebraic("D4").index(), board.pieceAt(c1.index()).withMoved());
+        assertThat(board.zobristKey()).isNotEqualTo(before);
+        board.unmakeMove();
+
+        assertThat(board.zobristKey()).isEqualTo(before);
+    }
+
+    @Test
+    void castlingPiecesHashTheirMovedFlag() {
+        Piece unmovedRook = new Piece(PieceType.ROOK, Color.WHITE, false);
+        Piece unmovedQueen = new Piece(PieceType.QUEEN, Color.WHITE, false);
+
+        assertThat(Zobrist.piece(unmovedRook, 1)).isNotEqualTo(Zobrist.piece(unmovedRook.withMoved(), 1));
+        assertThat(Zobrist.piece(unmovedQueen, 4)).isEqualTo(Zobrist.piece(unmovedQueen.withMoved(), 4));
+    }
+
+    @Test
+    void promotionChangesPieceKey() {
+        Board board = new Board();
+        Position from = Position.fromAlgebraic("A9");
+        Position to = Position.fromAlgebraic("A10");
+        board.set(from, new Piece(PieceType.PAWN, Color.WHITE, true));
+
+        board.makeMove(from.index(), to.index(), new Piece(PieceType.QUEEN, Color.WHITE, true));
+
+        Board expected = new Board();
+        expected.set(to, new Piece(PieceType.QUEEN, Color.WHITE, true));
+        assertThat(board.zobristKey()).isEqualTo(expected.zobristKey());
+    }
+
+    @Test
+    void copyKeepsKey() {
+        Board board = Board.initialSetup();
+
+        assertThat(board.copy().zobristKey()).isEqualTo(board.zobristKey());
+    }
+}
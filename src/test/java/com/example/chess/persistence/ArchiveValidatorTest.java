@@ -0,0 +1,121 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.RandomPlay;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveValidatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void randomGamesAreValidAndEndAsPlayed() throws IOException {
+        List<Game> games = randomGames(new Random(25), 300);
+        StringBuilder text = new StringBuilder();
+        for (Game game : games) {
+            ArchiveValidator.appendGame(game.getMoveHistory(), text);
+        }
+        Path file = write("games.txt", text.toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Queue<GameVerdict> verdicts = new ConcurrentLinkedQueue<>();
+
+        // chunks far smaller than a line, so most lines start in one chunk and end in another
+        ValidationSummary summary = new ArchiveValidator(pool, 64).validate(List.of(file), verdicts::add);
+        pool.shutdown();
+
+        List<GameVerdict> sorted = new ArrayList<>(verdicts);
+        sorted.sort(Comparator.comparingLong(GameVerdict::offset));
+        assertThat(sorted).hasSize(games.size());
+        long plies = 0;
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            GameVerdict verdict = sorted.get(i);
+            assertThat(verdict.valid()).isTrue();
+            assertThat(verdict.plies()).isEqualTo(game.getMoveHistory().size());
+            assertThat(verdict.status()).isEqualTo(game.getStatus());
+            assertThat(verdict.winner()).isEqualTo(game.getWinner());
+            plies += verdict.plies();
+        }
+        assertThat(summary.games()).isEqualTo(games.size());
+        assertThat(summary.rejected()).isZero();
+        assertThat(summary.plies()).isEqualTo(plies);
+        assertThat(summary.statuses().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(games.size());
+        assertThat(new ArchiveValidator().validate(file)).isEqualTo(summary);
+    }
+
+    @Test
+    void verdictNamesTheFirstRejectedPly() throws IOException {
+        Path file = write("games.txt", String.join("\n",
+                "# header comment",
+                "E2 E4, E9 E7",
+                "",
+                "E2 E4, E2 E4",
+                "e2-e5",
+                "E2 E4, Z9 Z7",
+                "E2 E4,",
+                "E2 E4, E9 E7\r",
+                ""));
+        Queue<GameVerdict> verdicts = new ConcurrentLinkedQueue<>();
+
+        ValidationSummary summary = new ArchiveValidator().validate(List.of(file), verdicts::add);
+
+        List<GameVerdict> sorted = new ArrayList<>(verdicts);
+        sorted.sort(Comparator.comparingLong(GameVerdict::offset));
+        assertThat(sorted.stream().map(GameVerdict::rejectedPly).toList()).containsExactly(0, 2, 1, 2, 2, 0);
+        assertThat(sorted.stream().map(GameVerdict::plies).toList()).containsExactly(2, 1, 0, 1, 1, 2);
+        assertThat(sorted.get(0).offset()).isEqualTo("# header comment\n".length());
+        assertThat(sorted.get(0).reason()).isNull();
+        assertThat(sorted.get(3).reason()).startsWith("Expected a square");
+        assertThat(sorted.get(4).reason()).startsWith("Empty move");
+        assertThat(sorted.get(1).status()).isEqualTo(GameStatus.ONGOING);
+        assertThat(summary.games()).isEqualTo(6);
+        assertThat(summary.rejected()).isEqualTo(4);
+        assertThat(summary.valid()).isEqualTo(2);
+        assertThat(summary.plies()).isEqualTo(7);
+    }
+
+    @Test
+    void emptyFileHasNoGames() throws IOException {
+        ValidationSummary summary = new ArchiveValidator().validate(write("empty.txt", ""));
+
+        assertThat(summary.games()).isZero();
+        assertThat(summary.draws()).isZero();
+    }
+
+    @Test
+    void missingFileFails() {
+        assertThatThrownBy(() -> new ArchiveValidator().validate(directory.resolve("missing.txt")))
+                .isInstanceOf(IOException.class);
+    }
+
+    private Path write(String name, String text) throws IOException {
+        return Files.write(directory.resolve(name), text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static List<Game> randomGames(Random random, int count) {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // at least one move, since a game without any is a blank line
+            games.add(RandomPlay.play(new Game(), random, 1 + random.nextInt(200)));
+        }
+        return games;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.ChessClock;
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.game.RandomPlay;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void randomGamesRoundTripThroughPlayMove() throws IOException {
+        List<Game> games = randomGames(new Random(21), 200);
+        Path file = directory.resolve("games.archive");
+        long plies = 0;
+        try (GameArchiveWriter writer = GameArchiveWriter.create(file)) {
+            for (Game game : games) {
+                writer.write(ArchivedGame.of(game));
+                plies += game.getMoveHistory().size();
+            }
+            assertThat(writer.count()).isEqualTo(200);
+        }
+
+        List<ArchivedGame> read = readAll(file, GameArchiveReader.open(file));
+
+        assertThat(read).hasSize(games.size());
+        for (int i = 0; i < games.size(); i++) {
+            Game original = games.get(i);
+            ArchivedGame archived = read.get(i);
+            assertThat(archived).isEqualTo(ArchivedGame.of(original));
+            Game replayed = archived.replay();
+            assertThat(replayed.getPositionKey()).isEqualTo(original.getPositionKey());
+            if (original.getStatus() != GameStatus.RESIGNED) {
+                assertThat(replayed.getStatus()).isEqualTo(original.getStatus());
+            }
+        }
+        // about a byte per ply, plus a few header bytes per game
+        assertThat(Files.size(file))
+                .isLessThanOrEqualTo(GameArchiveWriter.FILE_HEADER_BYTES + plies + 8L * games.size());
+    }
+
+    @Test
+    void clockSettingsAndResultsSurvive() throws IOException {
+        List<Move> moves = List.of(move("E2-E4"), move("E9-E7"));
+        List<ArchivedGame> games = List.of(
+                new ArchivedGame(GameStatus.TIME_UP, Color.BLACK, ChessClock.Mode.FISCHER,
+                        Duration.ofMinutes(3), Duration.ofSeconds(2), moves),
+                new ArchivedGame(GameStatus.RESIGNED, Color.WHITE, ChessClock.Mode.DELAY,
+                        Duration.ofHours(2), Duration.ofMillis(500), moves),
+                new ArchivedGame(GameStatus.DRAW, null, ChessClock.Mode.SUDDEN_DEATH,
+                        Duration.ofMinutes(10), Duration.ZERO, List.of()),
+                new ArchivedGame(GameStatus.ONGOING, null, null, Duration.ZERO, Duration.ZERO, moves));
+        Path file = directory.resolve("clocks.archive");
+        try (GameArchiveWriter writer = GameArchiveWriter.create(file)) {
+            for (ArchivedGame game : games) {
+                writer.write(game);
+            }
+        }
+
+        List<ArchivedGame> read = readAll(file, GameArchiveReader.open(file));
+
+        assertThat(read).isEqualTo(games);
+        assertThat(read.get(0).result()).isEqualTo("0-1");
+        assertThat(read.get(1).result()).isEqualTo("1-0");
+        assertThat(read.get(2).result()).isEqualTo("1/2-1/2");
+        assertThat(read.get(3).result()).isEqualTo("*");
+    }
+
+    @Test
+    void readerSlidesItsWindowAlongTheFile() throws IOException {
+        List<Game> games = randomGames(new Random(7), 50);
+        Path file = directory.resolve("window.archive");
+        try (GameArchiveWriter writer = GameArchiveWriter.create(file)) {
+            for (Game game : games) {
+                writer.write(ArchivedGame.of(game));
+            }
+        }
+
+        List<ArchivedGame> read = readAll(file, GameArchiveReader.open(file, 64));
+
+        assertThat(read).hasSize(games.size());
+        for (int i = 0; i < games.size(); i++) {
+            assertThat(read.get(i)).isEqualTo(ArchivedGame.of(games.get(i)));
+        }
+    }
+
+    @Test
+    void illegalMovesAreNotWritten() throws IOException {
+        ArchivedGame illegal = new ArchivedGame(GameStatus.ONGOING, null, null, Duration.ZERO, Duration.ZERO,
+                List.of(move("E2-E4"), move("E4-E5")));
+        try (GameArchiveWriter writer = GameArchiveWriter.create(directory.resolve("illegal.archive"))) {
+            assertThatThrownBy(() -> writer.write(illegal))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Move 2");
+            assertThat(writer.count()).isZero();
+        }
+    }
+
+    @Test
+    void truncatedArchiveIsReported() throws IOException {
+        Path file = directory.resolve("torn.archive");
+        try (GameArchiveWriter writer = GameArchiveWriter.create(file)) {
+            for (Game game : randomGames(new Random(3), 3)) {
+                writer.write(ArchivedGame.of(game));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (GameArchiveReader reader = GameArchiveReader.open(file)) {
+            assertThat(reader.read()).isNotNull();
+            assertThat(reader.read()).isNotNull();
+            assertThatThrownBy(reader::read).isInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path file = Files.writeString(directory.resolve("notes.txt"), "not an archive");
+
+        assertThatThrownBy(() -> GameArchiveReader.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a game archive");
+    }
+
+    /**
+     * Games of random legal moves played through {@link Game#playMove(Move)},
+     * up to 300 plies; some are timed and every fifth one is resigned.
+     */
+    private static List<Game> randomGames(Random random, int count) {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Game game = new Game();
+            if (i % 3 == 0) {
+                game.enableClock(Duration.ofMinutes(5));
+            }
+            RandomPlay.play(game, random, random.nextInt(300));
+            if (i % 5 == 0 && !game.isGameOver()) {
+                game.resign();
+            }
+            games.add(game);
+        }
+        return games;
+    }
+
+    private static List<ArchivedGame> readAll(Path file, GameArchiveReader reader) throws IOException {
+        List<ArchivedGame> games = new ArrayList<>();
+        try (reader) {
+            for (ArchivedGame game = reader.read(); game != null; game = reader.read()) {
+                games.add(game);
+            }
+            assertThat(reader.position()).isEqualTo(Files.size(file));
+        }
+        return games;
+    }
+
+    private static Move move(String text) {
+        String[] squares = text.split("-");
+        return new Move(Position.fromAlgebraic(squares[0]), Position.fromAlgebraic(squares[1]));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.chess.persistence;
+
+import com.example.chess.game.Game;
+import com.example.chess.game.GameStatus;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveredGamesMatchTheOriginals() throws Exception {
+        Game played;
+        Game resigned;
+        Game declined;
+        try (GameJournal journal = GameJournal.open(directory)) {
+            played = journal.create(1);
+            for (String text : new String[] {"E2-E4", "E9-E7", "D2-D4", "D9-D7"}) {
+                assertThat(journal.playMove(1, played, move(text)).success()).isTrue();
+            }
+            resigned = journal.create(2);
+            journal.playMove(2, resigned, move("C2-C3"));
+            journal.resign(2, resigned);
+            declined = journal.create(3);
+            journal.offerDraw(3, declined);
+            journal.declineDraw(3, declined);
+            journal.playMove(3, declined, move("A2-A3"));
+            journal.offerDraw(3, declined);
+            journal.sync();
+        }
+
+        Map<Long, Game> recovered;
+        try (GameJournal journal = GameJournal.open(directory)) {
+            recovered = journal.recover();
+        }
+
+        assertThat(recovered.keySet()).containsExactly(1L, 2L, 3L);
+        assertSameGame(recovered.get(1L), played);
+        assertSameGame(recovered.get(2L), resigned);
+        assertSameGame(recovered.get(3L), declined);
+        assertThat(recovered.get(2L).getStatus()).isEqualTo(GameStatus.RESIGNED);
+        assertThat(recovered.get(3L).getDrawOfferedBy()).isEqualTo(Color.BLACK);
+    }
+
+    @Test
+    void rejectedCommandsAreNotRecorded() throws IOException {
+        try (Journal raw = Journal.open(directory)) {
+            GameJournal journal = new GameJournal(raw);
+            Game game = journal.create(1);
+
+            assertThat(journal.playMove(1, game, move("E2-E6")).success()).isFalse();
+            assertThat(journal.acceptDraw(1, game).success()).isFalse();
+
+            assertThat(raw.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void timedGameComesBackWithItsClock() throws Exception {
+        try (GameJournal journal = GameJournal.open(directory)) {
+            Game game = journal.create(1, Duration.ofMinutes(5));
+            journal.playMove(1, game, move("E2-E4"));
+            journal.snapshotClock(1, game);
+        }
+
+        Game recovered;
+        try (GameJournal journal = GameJournal.open(directory)) {
+            recovered = journal.recover().get(1L);
+        }
+
+        assertThat(recovered.getClock().getRunningClock()).isEqualTo(Color.BLACK);
+        assertThat(recovered.getClock().isPaused()).isFalse();
+        assertThat(recovered.getClock().getRemaining(Color.WHITE)).isGreaterThan(Duration.ofSeconds(299));
+        assertThat(recovered.getClock().getRemaining(Color.WHITE)).isLessThanOrEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void lossOnTimeIsRecovered() throws Exception {
+        try (GameJournal journal = GameJournal.open(directory)) {
+            Game game = journal.create(1, Duration.ofMillis(1));
+            Thread.sleep(5);
+
+            assertThat(journal.playMove(1, game, move("E2-E4")).success()).isFalse();
+            assertThat(journal.playMove(1, game, move("E2-E4")).success()).isFalse();
+        }
+
+        Game recovered;
+        try (GameJournal journal = GameJournal.open(directory)) {
+            recovered = journal.recover().get(1L);
+        }
+
+        assertThat(recovered.getStatus()).isEqualTo(GameStatus.TIME_UP);
+        assertThat(recovered.getWinner()).isEqualTo(Color.BLACK);
+        assertThat(recovered.getClock().isPaused()).isTrue();
+    }
+
+    private static void assertSameGame(Game actual, Game expected) {
+        assertThat(actual.getPositionKey()).isEqualTo(expected.getPositionKey());
+        assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+        assertThat(actual.getWinner()).isEqualTo(expected.getWinner());
+        assertThat(actual.getActiveColor()).isEqualTo(expected.getActiveColor());
+        assertThat(actual.isDrawOffered()).isEqualTo(expected.isDrawOffered());
+    }
+
+    private static Move move(String text) {
+        String[] squares = text.split("-");
+        return new Move(Position.fromAlgebraic(squares[0]), Position.fromAlgebraic(squares[1]));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.chess.persistence;
+
+import com.example.chess.model.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsInOrderAcrossSegments() throws IOException {
+        List<JournalRecord> appended = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, 4)) {
+            for (int i = 0; i < 10; i++) {
+                JournalRecord record = JournalRecord.move(i, i, 99 - i, Duration.ofMillis(i), Duration.ofMillis(2 * i));
+                appended.add(record);
+                assertThat(journal.append(record)).isEqualTo(i + 1);
+            }
+        }
+
+        assertThat(segmentFiles()).hasSize(3);
+        try (Journal journal = Journal.open(directory, 4)) {
+            assertThat(replay(journal)).isEqualTo(appended);
+        }
+    }
+
+    @Test
+    void reopenedJournalAppendsAfterTheLastRecord() throws IOException {
+        try (Journal journal = Journal.open(directory, 4)) {
+            journal.append(JournalRecord.create(1, null));
+            journal.append(JournalRecord.action(JournalRecord.RESIGN, 1, Color.WHITE, null, null));
+            journal.append(JournalRecord.create(2, Duration.ofMinutes(3)));
+        }
+        try (Journal journal = Journal.open(directory, 4)) {
+            assertThat(journal.size()).isEqualTo(3);
+            journal.append(JournalRecord.action(JournalRecord.OFFER_DRAW, 2, Color.WHITE,
+                    Duration.ofMinutes(3), Duration.ofMinutes(3)));
+            journal.append(JournalRecord.move(2, 14, 34, Duration.ofMinutes(2), Duration.ofMinutes(3)));
+        }
+        try (Journal journal = Journal.open(directory, 4)) {
+            List<JournalRecord> records = replay(journal);
+            assertThat(records).hasSize(5);
+            assertThat(records.get(1).color()).isEqualTo(Color.WHITE);
+            assertThat(records.get(1).hasClock()).isFalse();
+            assertThat(records.get(2).a()).isEqualTo(Duration.ofMinutes(3).toNanos());
+            assertThat(records.get(4).whiteRemaining()).isEqualTo(Duration.ofMinutes(2));
+        }
+    }
+
+    @Test
+    void reopeningWithAnotherSegmentSizeKeepsTheWrittenOne() throws IOException {
+        List<JournalRecord> appended = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, 4)) {
+            for (int i = 0; i < 10; i++) {
+                appended.add(JournalRecord.move(3, i, i + 20, null, null));
+                journal.append(appended.get(i));
+            }
+        }
+
+        for (int segmentRecords : new int[] {Journal.DEFAULT_SEGMENT_RECORDS, 2}) {
+            try (Journal journal = Journal.open(directory, segmentRecords)) {
+                assertThat(journal.segmentRecords()).isEqualTo(4);
+                assertThat(journal.size()).isEqualTo(10);
+                assertThat(replay(journal)).isEqualTo(appended);
+            }
+            assertThat(segmentFiles()).hasSize(3);
+        }
+        try (Journal journal = Journal.open(directory)) {
+            appended.add(JournalRecord.move(3, 10, 30, null, null));
+            assertThat(journal.append(appended.get(10))).isEqualTo(11);
+            assertThat(replay(journal)).isEqualTo(appended);
+        }
+    }
+
+    @Test
+    void segmentsOfDifferentSizesAreRefusedUntouched() throws IOException {
+        try (Journal journal = Journal.open(directory, 4)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(JournalRecord.move(5, i, i, null, null));
+            }
+        }
+        Path last = segmentFiles().get(1);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(2L * JournalRecord.BYTES);
+        }
+
+        assertThatThrownBy(() -> Journal.open(directory))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("do not line up");
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(Files.size(last)).isEqualTo(2L * JournalRecord.BYTES);
+    }
+
+    @Test
+    void tornRecordAndEverythingAfterItAreDropped() throws IOException {
+        try (Journal journal = Journal.open(directory, 4)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(JournalRecord.move(7, i, i + 10, null, null));
+            }
+        }
+        Path first = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(first, StandardOpenOption.WRITE)) {
+            // flip a byte inside the third record's game id
+            channel.write(ByteBuffer.wrap(new byte[] {42}), 2L * JournalRecord.BYTES + 9);
+        }
+
+        try (Journal journal = Journal.open(directory, 4)) {
+            assertThat(journal.size()).isEqualTo(2);
+            assertThat(segmentFiles()).hasSize(1);
+            journal.append(JournalRecord.move(7, 50, 60, null, null));
+        }
+        try (Journal journal = Journal.open(directory, 4)) {
+            List<JournalRecord> records = replay(journal);
+            assertThat(records).hasSize(3);
+            assertThat(records.get(2).from()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    void concurrentWritersShareDurableFlushes() throws Exception {
+        int writers = 8;
+        int appendsPerWriter = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try (Journal journal = Journal.open(directory, 256)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long gameId = w;
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < appendsPerWriter; i++) {
+                        journal.awaitDurable(journal.append(JournalRecord.move(gameId, i % 100, 0, null, null)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+
+            assertThat(journal.size()).isEqualTo(writers * appendsPerWriter);
+            List<JournalRecord> records = replay(journal);
+            for (int w = 0; w < writers; w++) {
+                long gameId = w;
+                // each writer's records stay in its own order
+                List<Integer> froms = records.stream().filter(r -> r.gameId() == gameId)
+                        .map(JournalRecord::from).toList();
+                assertThat(froms).hasSize(appendsPerWriter);
+                for (int i = 0; i < appendsPerWriter; i++) {
+                    assertThat(froms.get(i)).isEqualTo(i % 100);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<JournalRecord> replay(Journal journal) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.chess.server;
+
+import com.example.chess.game.GameStatus;
+import com.example.chess.host.GameHost;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.PieceType;
+import com.example.chess.model.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameServerTest {
+
+    private GameServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = GameServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void playsMovesAndReportsState() throws IOException {
+        try (GameClient client = GameClient.connect(server.address())) {
+            GameState created = client.createGame();
+            assertThat(created.status()).isEqualTo(GameStatus.ONGOING);
+            assertThat(created.activeColor()).isEqualTo(Color.WHITE);
+
+            GameClient.Reply reply = client.playMove(created.gameId(), move("E2", "E4"));
+
+            assertThat(reply.result().success()).isTrue();
+            assertThat(reply.state().activeColor()).isEqualTo(Color.BLACK);
+            assertThat(reply.state().board().pieceAt(index("E2"))).isNull();
+            assertThat(reply.state().board().pieceAt(index("E4")).type()).isEqualTo(PieceType.PAWN);
+            assertThat(reply.state().board().pieceAt(index("E4")).hasMoved()).isTrue();
+            assertThat(client.state(created.gameId()).board().zobristKey())
+                    .isEqualTo(reply.state().board().zobristKey());
+        }
+    }
+
+    @Test
+    void rejectedMoveLeavesGameUnchanged() throws IOException {
+        try (GameClient client = GameClient.connect(server.address())) {
+            long id = client.createGame().gameId();
+
+            GameClient.Reply reply = client.playMove(id, move("E2", "E6"));
+
+            assertThat(reply.result().success()).isFalse();
+            assertThat(reply.result().message()).isEqualTo("Illegal move for PAWN");
+            assertThat(reply.state().activeColor()).isEqualTo(Color.WHITE);
+        }
+    }
+
+    @Test
+    void drawOfferAcceptAndResign() throws IOException {
+        try (GameClient client = GameClient.connect(server.address())) {
+            long drawn = client.createGame().gameId();
+            assertThat(client.offerDraw(drawn).state().drawOfferedBy()).isEqualTo(Color.WHITE);
+            assertThat(client.acceptDraw(drawn).result().success()).isFalse();
+            assertThat(client.declineDraw(drawn).state().drawOfferedBy()).isNull();
+
+            long resigned = client.createGame().gameId();
+            GameClient.Reply reply = client.resign(resigned);
+            assertThat(reply.state().status()).isEqualTo(GameStatus.RESIGNED);
+            assertThat(reply.state().winner()).isEqualTo(Color.BLACK);
+        }
+    }
+
+    @Test
+    void finishedAndClosedGamesAreDropped() throws IOException {
+        try (GameClient client = GameClient.connect(server.address())) {
+            long resigned = client.createGame().gameId();
+            long closed = client.createGame().gameId();
+            long playing = client.createGame().gameId();
+            assertThat(server.gameCount()).isEqualTo(3);
+
+            assertThat(client.resign(resigned).state().status()).isEqualTo(GameStatus.RESIGNED);
+            client.playMove(closed, move("E2", "E4"));
+            assertThat(client.closeGame(closed).activeColor()).isEqualTo(Color.BLACK);
+
+            assertThatThrownBy(() -> client.state(closed)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(client.state(playing).status()).isEqualTo(GameStatus.ONGOING);
+            assertThat(server.gameCount()).isEqualTo(1);
+
+            // a finished game stays readable until it is closed
+            assertThat(client.state(resigned).status()).isEqualTo(GameStatus.RESIGNED);
+            assertThat(client.closeGame(resigned).status()).isEqualTo(GameStatus.RESIGNED);
+            assertThatThrownBy(() -> client.state(resigned)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void opponentSeesHowTheGameEnded() throws IOException {
+        try (GameClient white = GameClient.connect(server.address());
+                GameClient black = GameClient.connect(server.address())) {
+            long id = white.createGame().gameId();
+            white.playMove(id, move("E2", "E4"));
+            assertThat(black.resign(id).state().status()).isEqualTo(GameStatus.RESIGNED);
+
+            GameState seen = white.state(id);
+            assertThat(seen.status()).isEqualTo(GameStatus.RESIGNED);
+            assertThat(seen.winner()).isEqualTo(Color.WHITE);
+            assertThat(seen.board().pieceAt(index("E4")).type()).isEqualTo(PieceType.PAWN);
+
+            GameClient.Reply late = white.playMove(id, move("D2", "D4"));
+            assertThat(late.result().success()).isFalse();
+            assertThat(late.result().message()).isEqualTo("Game is over: RESIGNED");
+            assertThat(late.state().board().pieceAt(index("D2")).type()).isEqualTo(PieceType.PAWN);
+        }
+    }
+
+    @Test
+    void pipelinedRequestsAreAllAnsweredInTurn() throws Exception {
+        int requests = 8 * GameServer.MAX_UNANSWERED;
+        try (GameClient client = GameClient.connect(server.address());
+                SocketChannel raw = SocketChannel.open(server.address())) {
+            long id = client.createGame().gameId();
+            ByteBuffer pipelined = ByteBuffer.allocate(requests * (Protocol.LENGTH_BYTES + 1 + Integer.BYTES + Long.BYTES));
+            for (int i = 1; i <= requests; i++) {
+                pipelined.put(Protocol.request(Protocol.STATE, i, id).flip());
+            }
+            pipelined.flip();
+            ExecutorService writer = Executors.newSingleThreadExecutor();
+            try {
+                // sent far ahead of reading, so the server has to hold requests back
+                Future<?> sent = writer.submit(() -> {
+                    while (pipelined.hasRemaining()) {
+                        raw.write(pipelined);
+                    }
+                    return null;
+                });
+                Thread.sleep(200);
+
+                ByteBuffer length = ByteBuffer.allocate(Protocol.LENGTH_BYTES);
+                for (int i = 1; i <= requests; i++) {
+                    readFully(raw, length.clear());
+                    ByteBuffer payload = readFully(raw, ByteBuffer.allocate(length.getInt(0)));
+                    assertThat(payload.get(0)).isEqualTo(Protocol.STATE);
+                    assertThat(payload.getInt(1)).isEqualTo(i);
+                    assertThat(payload.get(1 + Integer.BYTES)).isEqualTo(Protocol.OK);
+                }
+                sent.get();
+            } finally {
+                writer.shutdownNow();
+            }
+            assertThat(client.state(id).status()).isEqualTo(GameStatus.ONGOING);
+        }
+    }
+
+    @Test
+    void unknownGameIsReported() throws IOException {
+        try (GameClient client = GameClient.connect(server.address())) {
+            assertThatThrownBy(() -> client.state(999))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Unknown game 999");
+            // the connection stays usable
+            assertThat(client.createGame().gameId()).isPositive();
+        }
+    }
+
+    @Test
+    void failingCommandIsAnswered() throws IOException {
+        GameHost host = new GameHost();
+        try (GameServer own = GameServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), host);
+                GameClient client = GameClient.connect(own.address())) {
+            long id = client.createGame().gameId();
+            AtomicBoolean broken = new AtomicBoolean();
+            host.find(id).orElseThrow().<Void>call(game -> {
+                game.enableClock(Duration.ofMinutes(5), () -> {
+                    if (broken.get()) {
+                        throw new IllegalStateException("clock broke");
+                    }
+                    return 0;
+                });
+                return null;
+            });
+            broken.set(true);
+
+            assertThatThrownBy(() -> client.playMove(id, move("E2", "E4")))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Command failed");
+            // the connection stays usable
+            assertThat(client.createGame().gameId()).isNotEqualTo(id);
+        }
+    }
+
+    @Test
+    void oversizedFrameClosesOnlyThatConnection() throws IOException {
+        try (SocketChannel raw = SocketChannel.open(server.address());
+                GameClient client = GameClient.connect(server.address())) {
+            raw.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, Protocol.MAX_FRAME + 1));
+            assertThat(raw.read(ByteBuffer.allocate(16))).isEqualTo(-1);
+
+            assertThat(client.createGame().status()).isEqualTo(GameStatus.ONGOING);
+        }
+    }
+
+    @Test
+    void manyClientsPlayManyGamesConcurrently() throws Exception {
+        String[] line = {"E2-E4", "E9-E7", "D2-D4", "D9-D7", "C2-C4", "C9-C7"};
+        int clients = 16;
+        int gamesPerClient = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<List<GameState>>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                Callable<List<GameState>> task = () -> {
+                    try (GameClient client = GameClient.connect(server.address())) {
+                        List<Long> ids = new ArrayList<>();
+                        for (int g = 0; g < gamesPerClient; g++) {
+                            ids.add(client.createGame().gameId());
+                        }
+                        // interleave the games so every session sees traffic throughout
+                        for (String text : line) {
+                            String[] squares = text.split("-");
+                            for (long id : ids) {
+                                assertThat(client.playMove(id, move(squares[0], squares[1])).result().success())
+                                        .isTrue();
+                            }
+                        }
+                        List<GameState> states = new ArrayList<>();
+                        for (long id : ids) {
+                            states.add(client.state(id));
+                        }
+                        return states;
+                    }
+                };
+                results.add(pool.submit(task));
+            }
+            long expectedKey = -1;
+            for (Future<List<GameState>> result : results) {
+                for (GameState state : result.get()) {
+                    assertThat(state.activeColor()).isEqualTo(Color.WHITE);
+                    if (expectedKey == -1) {
+                        expectedKey = state.board().zobristKey();
+                    }
+                    assertThat(state.board().zobristKey()).isEqualTo(expectedKey);
+                }
+            }
+            assertThat(server.gameCount()).isEqualTo(clients * gamesPerClient);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Move move(String from, String to) {
+        return new Move(Position.fromAlgebraic(from), Position.fromAlgebraic(to));
+    }
+
+    private static ByteBuffer readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            assertThat(channel.read(buffer)).isNotEqualTo(-1);
+        }
+        return buffer.flip();
+    }
+
+    private static int index(String square) {
+        return Position.fromAlgebraic(square).index();
+    }
+}